@@ -0,0 +1,85 @@
+package gamesearch;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Heuristic evaluation throughput over the stored mid-game positions, for the heuristics of
+ * ReversiState and of BitboardReversiState.  Each operation is one evaluation.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(8)
+public class HeuristicBenchmark {
+
+	private GameState[] arrayBoards;
+	private GameState[] bitboards;
+
+	private final GameHeuristic arrayPieceCount = new ReversiState.PieceCountHeuristic();
+	private final GameHeuristic arrayCorners = new ReversiState.CornersHeuristic();
+	private final GameHeuristic bitboardPieceCount = new BitboardReversiState.PieceCountHeuristic();
+	private final GameHeuristic bitboardCorners = new BitboardReversiState.CornersHeuristic();
+	private final GameHeuristic bitboardPatterns = new PatternHeuristic();
+	private final GameHeuristic bitboardMobility = new BitboardReversiState.MobilityHeuristic();
+
+	@Setup
+	public void setup() {
+		arrayBoards = MidgamePositions.arrayBoards();
+		bitboards = MidgamePositions.bitboards();
+	}
+
+	@Benchmark
+	public void arrayBoardPieceCount(Blackhole bh) {
+		evaluate(arrayPieceCount, arrayBoards, bh);
+	}
+
+	@Benchmark
+	public void arrayBoardCorners(Blackhole bh) {
+		evaluate(arrayCorners, arrayBoards, bh);
+	}
+
+	@Benchmark
+	public void bitboardPieceCount(Blackhole bh) {
+		evaluate(bitboardPieceCount, bitboards, bh);
+	}
+
+	@Benchmark
+	public void bitboardCorners(Blackhole bh) {
+		evaluate(bitboardCorners, bitboards, bh);
+	}
+
+	@Benchmark
+	public void bitboardPatterns(Blackhole bh) {
+		evaluate(bitboardPatterns, bitboards, bh);
+	}
+
+	@Benchmark
+	public void bitboardMobility(Blackhole bh) {
+		evaluate(bitboardMobility, bitboards, bh);
+	}
+
+	private static void evaluate(GameHeuristic h, GameState[] states, Blackhole bh) {
+		for (GameState s : states) {
+			bh.consume(h.h(s));
+		}
+	}
+}
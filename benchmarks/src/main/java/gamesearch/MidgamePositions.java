@@ -0,0 +1,67 @@
+package gamesearch;
+
+/**
+ * Stored mid-game Reversi positions for the benchmarks, as the sequences of moves that reach
+ * them from the start of the game.  Each move is a column letter a-h followed by a row number 1-8
+ * (so "d3" is row 2, column 3).  The positions come from seeded random games of 20 to 34 ply.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+final class MidgamePositions {
+
+	static final String[] GAMES = {
+		"f4f3c5f5g5g6g7h7g4b5a5f6g3h5g2g1h6d3e7c4",
+		"d6c6c5e6c7d3e3b7a7c3e7b5a5f5b3c8d7c4f3a8g4c2",
+		"d6c4f3f4f5g6b3g2c3b4a4c5c6b7e6c7g4b2b8b6e3h4h1a5",
+		"c5e6f4c3d6c4d3f6b4b5g6f7d2f3f8a4a3b2c1g3a5g8c2a1b3a2",
+		"f4d3c3b3c2f6a4g3c4a2c6d1g4b2d6d7d8g5a1b1b5c7a3b4a5d2c8b6",
+		"c5c4b3e6e3e2f5g4f2c6d2b4c7a2f3e1f7b5d3c3f1g1d6d7f4b7c2d1b2b1",
+		"e3d3c2f6c4b3b4f3a4e2g7b1d2c3c1b5f4g4c6b2a3a6e6f2h4d7g2d1e1f1e8f5",
+		"d6c6e3d7b7b6d8e8a6b5c4a8f8a4c8f3g3b4e6f5g4f6f7h3d3b3b2c3f4g8c2b8g2a2",
+	};
+
+	private MidgamePositions() {}
+
+	/**
+	 * Replays a game.
+	 *
+	 * @param s The start state of the game, which is modified.
+	 * @param moves The moves of the game.
+	 *
+	 * @return s, after the moves.
+	 */
+	static GameState replay(GameState s, String moves) {
+		for (int i = 0; i < moves.length(); i += 2) {
+			int[] move = {moves.charAt(i + 1) - '1', moves.charAt(i) - 'a'};
+			if (!s.applyMove(move)) throw new IllegalArgumentException("Illegal move " + moves.substring(i, i + 2));
+		}
+		return s;
+	}
+
+	/**
+	 * Builds the positions with the array representation of Reversi.
+	 *
+	 * @return The positions as ReversiStates.
+	 */
+	static GameState[] arrayBoards() {
+		GameState[] states = new GameState[GAMES.length];
+		for (int i = 0; i < GAMES.length; i++) {
+			states[i] = replay(new ReversiState(), GAMES[i]);
+		}
+		return states;
+	}
+
+	/**
+	 * Builds the positions with the bitboard representation of Reversi.
+	 *
+	 * @return The positions as BitboardReversiStates.
+	 */
+	static BitboardReversiState[] bitboards() {
+		BitboardReversiState[] states = new BitboardReversiState[GAMES.length];
+		for (int i = 0; i < GAMES.length; i++) {
+			states[i] = (BitboardReversiState)replay(new BitboardReversiState(), GAMES[i]);
+		}
+		return states;
+	}
+}
@@ -0,0 +1,71 @@
+package gamesearch;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Perft-style move generation benchmarks: counts the leaves of the Reversi game tree to a fixed
+ * depth from the start of the game, by successor lists of ReversiState and of BitboardReversiState,
+ * and by making and unmaking moves of BitboardReversiState.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+	@Param({"4", "6"})
+	int depth;
+
+	@Benchmark
+	public long arrayBoardSuccessors() {
+		return count(new ReversiState(), depth);
+	}
+
+	@Benchmark
+	public long bitboardSuccessors() {
+		return count(new BitboardReversiState(), depth);
+	}
+
+	@Benchmark
+	public long bitboardMakeUnmake() {
+		return count(new BitboardReversiState(), depth, new int[depth][60]);
+	}
+
+	private static long count(GameState s, int depth) {
+		if (depth == 0 || s.isTerminalState()) return 1;
+		long n = 0;
+		for (GameState successor : s.getSuccessors()) {
+			n += count(successor, depth - 1);
+		}
+		return n;
+	}
+
+	private static long count(IncrementalGameState s, int depth, int[][] moves) {
+		if (depth == 0 || s.isTerminalState()) return 1;
+		int[] m = moves[depth - 1];
+		int k = s.generateMoves(m);
+		long n = 0;
+		for (int i = 0; i < k; i++) {
+			long undo = s.makeMove(m[i]);
+			n += count(s, depth - 1, moves);
+			s.unmakeMove(m[i], undo);
+		}
+		return n;
+	}
+}
@@ -0,0 +1,120 @@
+package gamesearch;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Fixed-depth search of each of the stored mid-game positions with the corners heuristic:
+ * with AlphaBetaPruning over ReversiState successor lists, and with AlphaBetaSearcher over
+ * BitboardReversiState, alone and with a transposition table and move ordering, the latter
+ * also with principal variation search and with MTD(f).
+ * Each operation searches all of the positions.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+	@Param({"4", "6"})
+	int depth;
+
+	private GameState[] arrayBoards;
+	private BitboardReversiState[] bitboards;
+	private AlphaBetaSearcher searcher;
+	private AlphaBetaSearcher orderedSearcher;
+	private AlphaBetaSearcher pvsSearcher;
+	private AlphaBetaSearcher mtdfSearcher;
+	private TranspositionTable tt;
+
+	private final GameHeuristic arrayCorners = new ReversiState.CornersHeuristic();
+	private final GameHeuristic bitboardCorners = new BitboardReversiState.CornersHeuristic();
+
+	@Setup
+	public void setup() {
+		arrayBoards = MidgamePositions.arrayBoards();
+		bitboards = MidgamePositions.bitboards();
+		searcher = new AlphaBetaSearcher(bitboardCorners);
+		orderedSearcher = new AlphaBetaSearcher(bitboardCorners);
+		tt = new TranspositionTable(16);
+		orderedSearcher.setTranspositionTable(tt);
+		orderedSearcher.setMoveOrderer(new KillerHistoryMoveOrderer(bitboardCorners, 3));
+		pvsSearcher = new AlphaBetaSearcher(bitboardCorners);
+		pvsSearcher.setTranspositionTable(tt);
+		pvsSearcher.setMoveOrderer(new KillerHistoryMoveOrderer(bitboardCorners, 3));
+		pvsSearcher.setAlgorithm(AlphaBetaSearcher.Algorithm.PVS);
+		mtdfSearcher = new AlphaBetaSearcher(bitboardCorners);
+		mtdfSearcher.setTranspositionTable(tt);
+		mtdfSearcher.setMoveOrderer(new KillerHistoryMoveOrderer(bitboardCorners, 3));
+		mtdfSearcher.setAlgorithm(AlphaBetaSearcher.Algorithm.MTDF);
+	}
+
+	@Setup(Level.Invocation)
+	public void clearTable() {
+		// each search starts cold, as the first search of a move would
+		tt.clear();
+	}
+
+	@Benchmark
+	public void legacyAlphaBeta(Blackhole bh) {
+		for (GameState s : arrayBoards) {
+			bh.consume(s.whoseTurn() == 0 ?
+					AlphaBetaPruning.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth, arrayCorners) :
+					AlphaBetaPruning.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth, arrayCorners));
+		}
+	}
+
+	@Benchmark
+	public void inPlaceAlphaBeta(Blackhole bh) {
+		for (BitboardReversiState s : bitboards) {
+			bh.consume(s.whoseTurn() == 0 ?
+					searcher.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth) :
+					searcher.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth));
+		}
+	}
+
+	@Benchmark
+	public void inPlaceWithTableAndOrdering(Blackhole bh) {
+		for (BitboardReversiState s : bitboards) {
+			bh.consume(s.whoseTurn() == 0 ?
+					orderedSearcher.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth) :
+					orderedSearcher.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth));
+		}
+	}
+
+	@Benchmark
+	public void inPlacePvsWithTableAndOrdering(Blackhole bh) {
+		for (BitboardReversiState s : bitboards) {
+			bh.consume(s.whoseTurn() == 0 ?
+					pvsSearcher.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth) :
+					pvsSearcher.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth));
+		}
+	}
+
+	@Benchmark
+	public void inPlaceMtdfWithTableAndOrdering(Blackhole bh) {
+		for (BitboardReversiState s : bitboards) {
+			bh.consume(s.whoseTurn() == 0 ?
+					mtdfSearcher.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth) :
+					mtdfSearcher.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth));
+		}
+	}
+}
@@ -26,6 +26,10 @@
  * 
  */
 
+package gamesearch;
+
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Implementation of Alpha Beta Pruning.
  * 
@@ -214,4 +218,40 @@ public class AlphaBetaPruning {
 		}
 		return alpha;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Parallel versions of the depth-limited maxValue, for games that support IncrementalGameState.
+	 * The younger siblings of each node are searched in parallel on the threads of the pool once
+	 * the eldest has been searched (see YoungBrothersWaitSearch).
+	 * 
+	 * @param s The game state to evaluate.
+	 * @param alpha The value of alpha.
+	 * @param beta The value of beta.
+	 * @param searchDepth The depth to limit the search.
+	 * @param h A heuristic to approximate the game-theoretic value of s.
+	 * @param pool The threads that search.
+	 * 
+	 * @return The estimated game-theoretic value of s.
+	 */
+	public static double parallelMaxValue(IncrementalGameState s, double alpha, double beta, int searchDepth, GameHeuristic h, ForkJoinPool pool) {
+		return new YoungBrothersWaitSearch(h, null, pool, YoungBrothersWaitSearch.DEFAULT_SPLIT_DEPTH).maxValue(s, alpha, beta, searchDepth);
+	}
+	
+	/**
+	 * Parallel versions of the depth-limited minValue, for games that support IncrementalGameState.
+	 * The younger siblings of each node are searched in parallel on the threads of the pool once
+	 * the eldest has been searched (see YoungBrothersWaitSearch).
+	 * 
+	 * @param s The game state to evaluate.
+	 * @param alpha The value of alpha.
+	 * @param beta The value of beta.
+	 * @param searchDepth The depth to limit the search.
+	 * @param h A heuristic to approximate the game-theoretic value of s.
+	 * @param pool The threads that search.
+	 * 
+	 * @return The estimated game-theoretic value of s.
+	 */
+	public static double parallelMinValue(IncrementalGameState s, double alpha, double beta, int searchDepth, GameHeuristic h, ForkJoinPool pool) {
+		return new YoungBrothersWaitSearch(h, null, pool, YoungBrothersWaitSearch.DEFAULT_SPLIT_DEPTH).minValue(s, alpha, beta, searchDepth);
+	}
+}
@@ -0,0 +1,789 @@
+package gamesearch;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Alpha beta pruning over the IncrementalGameState interface.  Rather than generating a list of
+ * successor states at each node, the search makes each move in place, recurses, and unmakes
+ * the move, so a search of any depth uses a single game state object.  Moves are generated
+ * into per-ply arrays that are allocated once and reused by later searches, so a searcher
+ * should be reused rather than created per search, but must not be used by more than one
+ * thread at a time.
+ *
+ * An optional TranspositionTable, which may be shared with other searchers, lets the search
+ * reuse the results of states it reaches by more than one sequence of moves, and searches the
+ * best move recorded for a state first.
+ *
+ * For play under a time limit, timedBestMove searches with iterative deepening: to depth 1,
+ * then 2, and so on, searching the previous iteration's best move first, until a deadline
+ * passes, and returns the best move of the deepest iteration that finished.
+ *
+ * Each search fills in the searcher's SearchStatistics.
+ *
+ * The search algorithm is selectable (see Algorithm).  Principal variation search searches
+ * the first move of each state with the full window and proves each later move no better with a
+ * null window, re-searching it with the full window only if it turns out better.  Since values
+ * are doubles, the null window around a value v is the window between v and the adjacent double.
+ * The windows are those of the player whose move is being proven, whoever moves next in the
+ * successor, so the case of a move giving the same player another turn needs no special handling.
+ * MTD(f) instead finds the value of a state by a sequence of null window searches of the whole
+ * state, each of which moves a lower or upper bound on the value towards a first guess, which
+ * is the value found by the previous iteration of iterative deepening.  It relies on the
+ * transposition table to avoid repeating the work of earlier passes, so should be used with one.
+ *
+ * An optional MoveOrderer reorders the moves of each state before they are searched, and is
+ * told which moves cause cutoffs.
+ *
+ * Optional quiescence search extends the search beyond the depth limit along tactical moves, as
+ * chosen by a TacticalMoveFilter, up to a bounded number of extra ply.  At each state beyond the
+ * limit, the player to move may stand pat, taking the heuristic's value, or make a tactical move
+ * if it is better, so the heuristic is not trusted in a state where, say, a corner is about to be
+ * captured.  The states searched beyond the limit are counted in SearchStatistics, to weigh the
+ * nodes they cost against the strength they add.
+ *
+ * Optional ProbCut prunes states whose value a shallow search predicts, with high probability,
+ * to be outside of the window, at the depths for which it has a model (see ProbCut).  Unlike the
+ * rest of the search, this may change the values found, in exchange for searching deeper in the
+ * same time.
+ *
+ * As in AlphaBetaPruning, maxValue evaluates player 0 states and minValue evaluates player 1
+ * states, and the correct method is chosen for each successor by checking whose turn it is,
+ * since a move may give the same player another turn.  Terminal states are valued by the
+ * state's value() method, and states at the depth limit by the heuristic.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class AlphaBetaSearcher {
+
+	/** Search depth used when there is no heuristic, which is deeper than any game's tree. */
+	static final int UNLIMITED_DEPTH = 10000;
+
+	/**
+	 * The search algorithms of a searcher, which all compute the same values.
+	 */
+	public enum Algorithm {
+		/** Alpha beta pruning, searching every move with the full window. */
+		ALPHA_BETA,
+		/** Principal variation search (NegaScout), proving moves after the first with null windows. */
+		PVS,
+		/** MTD(f), converging on the value with null window searches by iterative deepening. */
+		MTDF
+	}
+
+	private final GameHeuristic h;
+	private int[][] moveBuffers;
+	private double bestValue;
+	private TranspositionTable tt;
+	private MoveOrderer orderer;
+	private TacticalMoveFilter tactical;
+	private int quiescenceDepth;
+	private ProbCut probCut;
+	private Algorithm algorithm = Algorithm.ALPHA_BETA;
+	private final SearchStatistics stats = new SearchStatistics();
+	private final TranspositionTable.Probe probe = new TranspositionTable.Probe();
+
+	// iterative deepening state
+	private long deadline;  // System.nanoTime() at which to abort, or 0 for none
+	private boolean aborted;
+	private BooleanSupplier abortSignal;
+	private boolean reachedDepthLimit;
+	private int completedDepth;
+	private long nodes;
+
+	/**
+	 * Initializes a searcher.
+	 *
+	 * @param h A heuristic to estimate the game theoretic value of states at the depth limit.
+	 * 			If h is null, then the search isn't limited by depth.
+	 */
+	public AlphaBetaSearcher(GameHeuristic h) {
+		this.h = h;
+		moveBuffers = new int[0][];
+	}
+
+	/**
+	 * Sets the algorithm of later searches.  The default is ALPHA_BETA.
+	 *
+	 * @param algorithm The algorithm.
+	 */
+	public void setAlgorithm(Algorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Accesses the algorithm of the searcher.
+	 *
+	 * @return The algorithm.
+	 */
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Sets the transposition table used by later searches.
+	 *
+	 * @param tt The transposition table, or null to search without one.
+	 */
+	public void setTranspositionTable(TranspositionTable tt) {
+		this.tt = tt;
+	}
+
+	/**
+	 * Accesses the transposition table.
+	 *
+	 * @return The transposition table, or null if there isn't one.
+	 */
+	public TranspositionTable getTranspositionTable() {
+		return tt;
+	}
+
+	/**
+	 * Accesses the statistics of the most recent search.
+	 *
+	 * @return The statistics, which the next search resets and fills in again.
+	 */
+	public SearchStatistics getStatistics() {
+		return stats;
+	}
+
+	/**
+	 * Sets the move orderer used by later searches.
+	 *
+	 * @param orderer The move orderer, or null to search moves in the order they are generated
+	 * 			(after the transposition table's best move, if any).
+	 */
+	public void setMoveOrderer(MoveOrderer orderer) {
+		this.orderer = orderer;
+	}
+
+	/**
+	 * Enables quiescence search in later searches, or disables it.  Ignored if the heuristic is null.
+	 *
+	 * @param tactical The moves to search beyond the depth limit, or null to disable quiescence search.
+	 * @param maxDepth The most ply to search beyond the depth limit.
+	 */
+	public void setQuiescence(TacticalMoveFilter tactical, int maxDepth) {
+		this.tactical = maxDepth > 0 ? tactical : null;
+		quiescenceDepth = maxDepth;
+	}
+
+	/**
+	 * Sets the ProbCut models of later searches.  Ignored if the heuristic is null.
+	 *
+	 * @param probCut The models, or null to prune nothing.
+	 */
+	public void setProbCut(ProbCut probCut) {
+		this.probCut = probCut;
+	}
+
+	/**
+	 * Sets a signal that later searches poll, along with the clock, every 1024 nodes,
+	 * abandoning the search once the signal is true.  A parallel search uses this to cancel
+	 * a subtree whose result is no longer needed.
+	 *
+	 * @param abortSignal The signal, or null for none.
+	 */
+	public void setAbortSignal(BooleanSupplier abortSignal) {
+		this.abortSignal = abortSignal;
+	}
+
+	/**
+	 * Checks whether the most recent search was abandoned because of the abort signal,
+	 * in which case the value it returned is meaningless.
+	 *
+	 * @return true if the most recent search was abandoned.
+	 */
+	public boolean wasAborted() {
+		return aborted;
+	}
+
+	/**
+	 * Selects a move for the player whose turn it is, choosing the first of the equally valued
+	 * best moves in the order they are searched, which is the order they are generated except
+	 * that a best move recorded in the transposition table is searched first.
+	 *
+	 * @param s The game state, which is restored before returning.  Must not be terminal.
+	 * @param searchDepth The depth, in ply, to limit the search, counting the move itself.
+	 * 			Ignored if the heuristic is null.
+	 *
+	 * @return The best move, or -1 if s has no moves.
+	 */
+	public int bestMove(IncrementalGameState s, int searchDepth) {
+		deadline = 0;
+		aborted = false;
+		if (orderer != null) orderer.newSearch();
+		stats.start();
+		int depth = depth(searchDepth);
+		int best;
+		if (algorithm == Algorithm.MTDF) {
+			best = h == null ? mtdfRoot(s, depth, -1, 0) : deepen(s, depth, 0);
+		} else {
+			best = rootSearch(s, depth, -1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+		}
+		stats.stop(depth);
+		return best;
+	}
+
+	/**
+	 * Selects a move for the player whose turn it is by iterative deepening, searching to
+	 * depth 1, 2, 3, and so on until time runs out, with the best move of each iteration
+	 * searched first in the next.  The iteration that is running when time runs out is
+	 * abandoned, and the move found by the deepest completed iteration is returned.  The
+	 * depth 1 iteration always completes, so a move is returned however short the time limit.
+	 *
+	 * @param s The game state, which is restored before returning.  Must not be terminal.
+	 * @param millis The time limit in milliseconds.
+	 * @param maxDepth The deepest iteration to search if time allows.  Iteration also stops
+	 * 			once a search reaches no state at its depth limit, since it is then exact.
+	 *
+	 * @return The best move, or -1 if s has no moves.
+	 */
+	public int timedBestMove(IncrementalGameState s, long millis, int maxDepth) {
+		if (h == null) {
+			// without a heuristic there is only one, complete, iteration
+			int best = bestMove(s, UNLIMITED_DEPTH);
+			completedDepth = UNLIMITED_DEPTH;
+			return best;
+		}
+		deadline = 0;
+		aborted = false;
+		if (orderer != null) orderer.newSearch();
+		stats.start();
+		int best = deepen(s, depth(maxDepth), millis);
+		stats.stop(completedDepth);
+		return best;
+	}
+
+	/*
+	 * Searches by iterative deepening up to the depth limit, or until the time limit, if
+	 * positive, runs out after the first iteration.
+	 */
+	private int deepen(IncrementalGameState s, int limit, long millis) {
+		long start = System.nanoTime();
+		int best = -1;
+		// the first guess of MTD(f)
+		double value = algorithm == Algorithm.MTDF ? h.h(s) : 0;
+		completedDepth = 0;
+		for (int d = 1; d <= limit; d++) {
+			reachedDepthLimit = false;
+			int move = algorithm == Algorithm.MTDF ? mtdfRoot(s, d, best, value) :
+				rootSearch(s, d, best, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+			if (aborted) break;
+			best = move;
+			value = bestValue;
+			completedDepth = d;
+			if (!reachedDepthLimit || best < 0) break;
+			if (millis > 0) {
+				deadline = start + millis * 1000000L;
+				if (System.nanoTime() >= deadline) break;
+			}
+		}
+		deadline = 0;
+		aborted = false;
+		bestValue = value;
+		return best;
+	}
+
+	/**
+	 * Accesses the depth of the deepest iteration completed by the most recent call to timedBestMove.
+	 *
+	 * @return The depth, in ply, of the search that selected the move.
+	 */
+	public int completedDepth() {
+		return completedDepth;
+	}
+
+	/*
+	 * MTD(f) at the root: converges on the value of s by null window root searches, starting
+	 * from the given guess.  Returns the best move, or -1 if s has no moves or if the search is
+	 * aborted, and sets bestValue.
+	 *
+	 * Only a pass that cuts off at the root proves that its move achieves the pass's bound: a
+	 * fail high for player 0, who maximizes, and a fail low for player 1, who minimizes.  The move
+	 * of any other pass is only the one with the best bound, so it is kept only until one is proved.
+	 */
+	private int mtdfRoot(IncrementalGameState s, int depth, int firstMove, double guess) {
+		boolean max = s.whoseTurn() == 0;
+		double lower = Double.NEGATIVE_INFINITY;
+		double upper = Double.POSITIVE_INFINITY;
+		double g = guess;
+		int best = -1;
+		boolean proved = false;
+		for (boolean first = true; lower < upper; first = false) {
+			if (!first) stats.researches++;
+			double beta = g == lower ? Math.nextUp(g) : g;
+			int move = rootSearch(s, depth, best >= 0 ? best : firstMove, Math.nextDown(beta), beta);
+			if (aborted) return -1;
+			g = bestValue;
+			boolean cutoff = max ? g >= beta : g < beta;
+			if (g < beta) upper = g;
+			else lower = g;
+			if (cutoff) {
+				// a move that achieves the new bound
+				best = move;
+				proved = true;
+			} else if (!proved) {
+				best = move;
+			}
+		}
+		bestValue = g;
+		return best;
+	}
+
+	/*
+	 * MTD(f) below the root: converges on the value of s by null window searches, starting from
+	 * the given guess, until the value is found or is shown to be outside of (alpha, beta).
+	 * The result is as for fail-soft alpha beta with that window.
+	 */
+	private double mtdf(IncrementalGameState s, double guess, double alpha, double beta, int depth) {
+		double lower = Double.NEGATIVE_INFINITY;
+		double upper = Double.POSITIVE_INFINITY;
+		double g = Math.max(Math.nextUp(alpha), Math.min(Math.nextDown(beta), guess));
+		for (boolean first = true; lower < upper && lower < beta && upper > alpha; first = false) {
+			if (!first) stats.researches++;
+			double b = g == lower ? Math.nextUp(g) : g;
+			g = s.whoseTurn() == 0 ?
+					maxValue(s, Math.nextDown(b), b, depth, 0) :
+					minValue(s, Math.nextDown(b), b, depth, 0);
+			if (aborted) return 0;
+			if (g < b) upper = g;
+			else lower = g;
+		}
+		if (lower >= upper) return g;
+		return lower >= beta ? lower : upper;
+	}
+
+	/*
+	 * Searches the moves of s to the given depth within the window (alpha, beta), with firstMove
+	 * (if not -1) searched first.  Returns the best move, or -1 if s has no moves or if the
+	 * search is aborted, and sets bestValue to the fail-soft value of s.
+	 */
+	private int rootSearch(IncrementalGameState s, int depth, int firstMove, double alpha, double beta) {
+		stats.node(0);
+		int[] moves = moveBuffer(0, s);
+		int n = s.generateMoves(moves);
+		int hashMove = firstMove;
+		if (hashMove < 0 && tt != null && tt.probe(s.zobristKey(), probe)) {
+			hashMove = probe.move;
+		}
+		order(s, moves, n, hashMove, 0, depth);
+		int player = s.whoseTurn();
+		int bestMove = -1;
+		double best = player == 0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		double a = alpha;
+		double b = beta;
+		boolean pvs = algorithm == Algorithm.PVS;
+		for (int i = 0; i < n; i++) {
+			double temp = pvs && i > 0 ?
+					scout(s, moves[i], player, a, b, depth - 1, 1) :
+					child(s, moves[i], a, b, depth - 1, 1);
+			if (aborted) return -1;
+			if (player == 0 ? temp > best : temp < best) {
+				best = temp;
+				bestMove = moves[i];
+				if (player == 0 ? best >= b : best <= a) break;
+				if (player == 0) a = Math.max(a, best);
+				else b = Math.min(b, best);
+			}
+		}
+		if (bestMove < 0 && n > 0) {
+			// every move loses as badly as possible
+			bestMove = moves[0];
+		}
+		bestValue = best;
+		if (tt != null && bestMove >= 0) {
+			tt.store(s.zobristKey(), best, depth, best >= beta ? TranspositionTable.LOWER :
+				(best <= alpha ? TranspositionTable.UPPER : TranspositionTable.EXACT), bestMove);
+		}
+		return bestMove;
+	}
+
+	/**
+	 * Accesses the value of the move chosen by the most recent call to bestMove.
+	 *
+	 * @return The estimated game-theoretic value of the chosen move.
+	 */
+	public double bestValue() {
+		return bestValue;
+	}
+
+	/**
+	 * Evaluates a player 0 state with the searcher's algorithm.
+	 *
+	 * @param s The game state to evaluate, which is restored before returning.
+	 * @param alpha The value of alpha.
+	 * @param beta The value of beta.
+	 * @param searchDepth The depth to limit the search.  Ignored if the heuristic is null.
+	 *
+	 * @return The estimated game-theoretic value of s.
+	 */
+	public double maxValue(IncrementalGameState s, double alpha, double beta, int searchDepth) {
+		deadline = 0;
+		aborted = false;
+		stats.start();
+		double v = value(s, alpha, beta, depth(searchDepth));
+		stats.stop(depth(searchDepth));
+		return v;
+	}
+
+	/**
+	 * Evaluates a player 1 state with the searcher's algorithm.
+	 *
+	 * @param s The game state to evaluate, which is restored before returning.
+	 * @param alpha The value of alpha.
+	 * @param beta The value of beta.
+	 * @param searchDepth The depth to limit the search.  Ignored if the heuristic is null.
+	 *
+	 * @return The estimated game-theoretic value of s.
+	 */
+	public double minValue(IncrementalGameState s, double alpha, double beta, int searchDepth) {
+		deadline = 0;
+		aborted = false;
+		stats.start();
+		double v = value(s, alpha, beta, depth(searchDepth));
+		stats.stop(depth(searchDepth));
+		return v;
+	}
+
+	/**
+	 * Checks whether ProbCut prunes a state before it is searched, as the search does at each
+	 * state with a model for its remaining depth.  A parallel search uses this at the states it
+	 * splits between threads, which this searcher does not search itself.
+	 *
+	 * @param s The non-terminal game state, which is restored before returning.
+	 * @param alpha The value of alpha.
+	 * @param beta The value of beta.
+	 * @param searchDepth The remaining depth of s.
+	 *
+	 * @return 1 if the value of s is likely at least beta, -1 if it is likely at most alpha,
+	 * 			and 0 if neither, if there is no model of searchDepth, or if the check was aborted.
+	 */
+	public int probCut(IncrementalGameState s, double alpha, double beta, int searchDepth) {
+		deadline = 0;
+		aborted = false;
+		stats.start();
+		int cut = 0;
+		if (h != null && probCut != null && probCut.shallowDepth(searchDepth) > 0) {
+			cut = probCut(s, alpha, beta, searchDepth, 0);
+			if (aborted) cut = 0;
+		}
+		stats.stop(searchDepth);
+		return cut;
+	}
+
+	/*
+	 * Evaluates s with the searcher's algorithm, which for MTD(f) is by iterative deepening.  At
+	 * the depth limit there is nothing to deepen, but there may be a quiescence search.
+	 */
+	private double value(IncrementalGameState s, double alpha, double beta, int depth) {
+		if (algorithm != Algorithm.MTDF || depth == 0) {
+			return s.whoseTurn() == 0 ? maxValue(s, alpha, beta, depth, 0) : minValue(s, alpha, beta, depth, 0);
+		}
+		if (h == null || s.isTerminalState()) return mtdf(s, 0, alpha, beta, depth);
+		double g = h.h(s);
+		for (int d = 1; d <= depth; d++) {
+			reachedDepthLimit = false;
+			g = mtdf(s, g, alpha, beta, d);
+			if (aborted || !reachedDepthLimit) break;
+		}
+		return g;
+	}
+
+	private double maxValue(IncrementalGameState s, double alpha, double beta, int searchDepth, int ply) {
+		if (timeUp()) return 0;
+		stats.node(ply);
+		if (s.isTerminalState()) {
+			stats.terminalNodes++;
+			return s.value();
+		}
+		if (searchDepth == 0) {
+			reachedDepthLimit = true;
+			if (tactical != null) return quiesce(s, alpha, beta, quiescenceDepth, ply);
+			stats.heuristicEvaluations++;
+			return h.h(s);
+		}
+		long key = 0;
+		int ttMove = -1;
+		if (tt != null) {
+			key = s.zobristKey();
+			if (tt.probe(key, probe)) {
+				ttMove = probe.move;
+				if (probe.depth >= searchDepth) {
+					// the stored search may have stopped at a depth limit
+					reachedDepthLimit = true;
+					if (probe.bound == TranspositionTable.EXACT) {
+						tt.countCutoff();
+						stats.tableCutoffs++;
+						return probe.value;
+					}
+					if (probe.bound == TranspositionTable.LOWER) alpha = Math.max(alpha, probe.value);
+					else beta = Math.min(beta, probe.value);
+					if (alpha >= beta) {
+						tt.countCutoff();
+						stats.tableCutoffs++;
+						return probe.value;
+					}
+				}
+			}
+		}
+		if (probCut != null && probCut.shallowDepth(searchDepth) > 0) {
+			int cut = probCut(s, alpha, beta, searchDepth, ply);
+			if (aborted) return 0;
+			if (cut > 0) return beta;
+			if (cut < 0) return alpha;
+		}
+		int[] moves = moveBuffer(ply, s);
+		int n = s.generateMoves(moves);
+		order(s, moves, n, ttMove, ply, searchDepth);
+		double v = Double.NEGATIVE_INFINITY;
+		int best = -1;
+		double a = alpha;
+		boolean pvs = algorithm == Algorithm.PVS;
+		for (int i = 0; i < n; i++) {
+			double c = pvs && i > 0 ?
+					scout(s, moves[i], 0, a, beta, searchDepth - 1, ply + 1) :
+					child(s, moves[i], a, beta, searchDepth - 1, ply + 1);
+			if (aborted) return 0;
+			if (c > v) {
+				v = c;
+				best = moves[i];
+				if (v >= beta) {
+					if (orderer != null) orderer.cutoff(0, best, ply, searchDepth);
+					stats.cutoff(ply);
+					break;
+				}
+				a = Math.max(a, v);
+			}
+		}
+		if (tt != null) {
+			tt.store(key, v, searchDepth, v >= beta ? TranspositionTable.LOWER :
+				(v <= alpha ? TranspositionTable.UPPER : TranspositionTable.EXACT), best);
+		}
+		return v;
+	}
+
+	private double minValue(IncrementalGameState s, double alpha, double beta, int searchDepth, int ply) {
+		if (timeUp()) return 0;
+		stats.node(ply);
+		if (s.isTerminalState()) {
+			stats.terminalNodes++;
+			return s.value();
+		}
+		if (searchDepth == 0) {
+			reachedDepthLimit = true;
+			if (tactical != null) return quiesce(s, alpha, beta, quiescenceDepth, ply);
+			stats.heuristicEvaluations++;
+			return h.h(s);
+		}
+		long key = 0;
+		int ttMove = -1;
+		if (tt != null) {
+			key = s.zobristKey();
+			if (tt.probe(key, probe)) {
+				ttMove = probe.move;
+				if (probe.depth >= searchDepth) {
+					// the stored search may have stopped at a depth limit
+					reachedDepthLimit = true;
+					if (probe.bound == TranspositionTable.EXACT) {
+						tt.countCutoff();
+						stats.tableCutoffs++;
+						return probe.value;
+					}
+					if (probe.bound == TranspositionTable.LOWER) alpha = Math.max(alpha, probe.value);
+					else beta = Math.min(beta, probe.value);
+					if (alpha >= beta) {
+						tt.countCutoff();
+						stats.tableCutoffs++;
+						return probe.value;
+					}
+				}
+			}
+		}
+		if (probCut != null && probCut.shallowDepth(searchDepth) > 0) {
+			int cut = probCut(s, alpha, beta, searchDepth, ply);
+			if (aborted) return 0;
+			if (cut > 0) return beta;
+			if (cut < 0) return alpha;
+		}
+		int[] moves = moveBuffer(ply, s);
+		int n = s.generateMoves(moves);
+		order(s, moves, n, ttMove, ply, searchDepth);
+		double v = Double.POSITIVE_INFINITY;
+		int best = -1;
+		double b = beta;
+		boolean pvs = algorithm == Algorithm.PVS;
+		for (int i = 0; i < n; i++) {
+			double c = pvs && i > 0 ?
+					scout(s, moves[i], 1, alpha, b, searchDepth - 1, ply + 1) :
+					child(s, moves[i], alpha, b, searchDepth - 1, ply + 1);
+			if (aborted) return 0;
+			if (c < v) {
+				v = c;
+				best = moves[i];
+				if (v <= alpha) {
+					if (orderer != null) orderer.cutoff(1, best, ply, searchDepth);
+					stats.cutoff(ply);
+					break;
+				}
+				b = Math.min(b, v);
+			}
+		}
+		if (tt != null) {
+			tt.store(key, v, searchDepth, v <= alpha ? TranspositionTable.UPPER :
+				(v >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT), best);
+		}
+		return v;
+	}
+
+	/*
+	 * ProbCut: checks with null window searches to the shallow depth of the model of searchDepth
+	 * whether the value of s is likely to be at least beta, returning 1, or at most alpha,
+	 * returning -1, or neither, returning 0.  Bounds that no value could clear are not searched.
+	 */
+	private int probCut(IncrementalGameState s, double alpha, double beta, int searchDepth, int ply) {
+		int shallow = probCut.shallowDepth(searchDepth);
+		boolean first = s.whoseTurn() == 0;
+		double bound = probCut.highBound(searchDepth, beta);
+		if (bound < 1) {
+			double a = Math.nextDown(bound);
+			double v = first ? maxValue(s, a, bound, shallow, ply) : minValue(s, a, bound, shallow, ply);
+			if (aborted) return 0;
+			if (v >= bound) {
+				stats.probCuts++;
+				return 1;
+			}
+		}
+		bound = probCut.lowBound(searchDepth, alpha);
+		if (bound > -1) {
+			double b = Math.nextUp(bound);
+			double v = first ? maxValue(s, bound, b, shallow, ply) : minValue(s, bound, b, shallow, ply);
+			if (aborted) return 0;
+			if (v <= bound) {
+				stats.probCuts++;
+				return -1;
+			}
+		}
+		return 0;
+	}
+
+	/*
+	 * Quiescence search of a non-terminal state at or beyond the depth limit: the better, for
+	 * the player to move, of the heuristic's value and the values of the tactical moves, which
+	 * are searched only while extra depth remains.  The result is as for fail-soft alpha beta.
+	 */
+	private double quiesce(IncrementalGameState s, double alpha, double beta, int remaining, int ply) {
+		stats.heuristicEvaluations++;
+		double v = h.h(s);
+		int player = s.whoseTurn();
+		if (remaining == 0 || (player == 0 ? v >= beta : v <= alpha)) return v;
+		int[] moves = moveBuffer(ply, s);
+		int n = s.generateMoves(moves);
+		for (int i = 0; i < n; i++) {
+			if (!tactical.isTactical(s, moves[i])) continue;
+			if (player == 0) alpha = Math.max(alpha, v);
+			else beta = Math.min(beta, v);
+			long undo = s.makeMove(moves[i]);
+			double c = quiescenceChild(s, alpha, beta, remaining - 1, ply + 1);
+			s.unmakeMove(moves[i], undo);
+			if (aborted) return 0;
+			if (player == 0 ? c > v : c < v) {
+				v = c;
+				if (player == 0 ? v >= beta : v <= alpha) break;
+			}
+		}
+		return v;
+	}
+
+	private double quiescenceChild(IncrementalGameState s, double alpha, double beta, int remaining, int ply) {
+		if (timeUp()) return 0;
+		stats.node(ply);
+		stats.quiescenceNodes++;
+		if (s.isTerminalState()) {
+			stats.terminalNodes++;
+			return s.value();
+		}
+		return quiesce(s, alpha, beta, remaining, ply);
+	}
+
+	/*
+	 * Makes a move, evaluates the successor with whichever of maxValue and minValue
+	 * matches whose turn it is there, and unmakes the move.
+	 */
+	private double child(IncrementalGameState s, int move, double alpha, double beta, int searchDepth, int ply) {
+		long undo = s.makeMove(move);
+		double v = s.whoseTurn() == 0 ?
+				maxValue(s, alpha, beta, searchDepth, ply) :
+				minValue(s, alpha, beta, searchDepth, ply);
+		s.unmakeMove(move, undo);
+		return v;
+	}
+
+	/*
+	 * Evaluates a move of the given player after the first move of a state, for principal
+	 * variation search: proves with a null window that the move is no better for the player
+	 * than the bound the player already has (alpha for player 0, beta for player 1), and
+	 * re-searches it with the full window if it is better but not good enough to cut off.
+	 */
+	private double scout(IncrementalGameState s, int move, int player, double alpha, double beta, int searchDepth, int ply) {
+		if (player == 0) {
+			double c = child(s, move, alpha, Math.nextUp(alpha), searchDepth, ply);
+			if (aborted || c <= alpha || c >= beta) return c;
+		} else {
+			double c = child(s, move, Math.nextDown(beta), beta, searchDepth, ply);
+			if (aborted || c >= beta || c <= alpha) return c;
+		}
+		stats.researches++;
+		return child(s, move, alpha, beta, searchDepth, ply);
+	}
+
+	/*
+	 * Checks the clock and the abort signal every 1024 nodes, and records whether the
+	 * deadline has passed or the signal is set.
+	 */
+	private boolean timeUp() {
+		if ((++nodes & 1023) == 0) {
+			if (deadline != 0 && System.nanoTime() >= deadline || abortSignal != null && abortSignal.getAsBoolean()) {
+				aborted = true;
+			}
+		}
+		return aborted;
+	}
+
+	private int depth(int searchDepth) {
+		return h == null ? UNLIMITED_DEPTH : Math.min(searchDepth, UNLIMITED_DEPTH);
+	}
+
+	/*
+	 * Orders moves with the move orderer, or else moves the hash move to the front.
+	 */
+	private void order(IncrementalGameState s, int[] moves, int n, int hashMove, int ply, int depth) {
+		if (orderer != null) orderer.order(s, moves, n, hashMove, ply, depth);
+		else moveToFront(moves, n, hashMove);
+	}
+
+	/*
+	 * Moves a move, if present, to the front of a list of moves, keeping the others in order.
+	 */
+	private static void moveToFront(int[] moves, int n, int move) {
+		for (int i = 0; i < n; i++) {
+			if (moves[i] == move) {
+				System.arraycopy(moves, 0, moves, 1, i);
+				moves[0] = move;
+				return;
+			}
+		}
+	}
+
+	private int[] moveBuffer(int ply, IncrementalGameState s) {
+		if (ply >= moveBuffers.length) {
+			moveBuffers = Arrays.copyOf(moveBuffers, Math.max(ply + 1, 2 * moveBuffers.length));
+		}
+		int[] moves = moveBuffers[ply];
+		if (moves == null || moves.length < s.maxMoves()) {
+			moves = moveBuffers[ply] = new int[s.maxMoves()];
+		}
+		return moves;
+	}
+}
@@ -0,0 +1,499 @@
+package gamesearch;
+
+import java.util.ArrayList;
+
+/**
+ * A bitboard representation of the game Reversi, also known as Othello.  Plays exactly the
+ * same game as {@link ReversiState}, including the rule that a player whose opponent has no
+ * legal move takes another turn, but stores the board as two 64-bit masks (one per player)
+ * and generates moves and flips with shift-and-mask operations rather than by scanning
+ * the 8 rays of each of the 64 squares.
+ *
+ * Square (row, col) is bit row*8+col of each mask, so iterating the bits of a move mask from
+ * lowest to highest visits squares in the same row-major order as ReversiState.
+ *
+ * Moves for the IncrementalGameState interface are the square index row*8+col, and the undo
+ * information returned by makeMove is the mask of flipped pieces.
+ *
+ * Heuristics equivalent to those of ReversiState are provided as inner classes.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+class BitboardReversiState implements IncrementalGameState {
+
+	/** Mask of all squares not in column 0. */
+	static final long NOT_COL_0 = 0xFEFEFEFEFEFEFEFEL;
+	/** Mask of all squares not in column 7. */
+	static final long NOT_COL_7 = 0x7F7F7F7F7F7F7F7FL;
+	/** Mask of the four corners. */
+	private static final long CORNERS = 0x8100000000000081L;
+
+	/*
+	 * Zobrist keys by byte: ZOBRIST[p][i][b] is the exclusive or of the random numbers of
+	 * player p's pieces on the squares of byte i of the board whose bits are set in b.
+	 */
+	private static final long[][][] ZOBRIST = new long[2][8][256];
+	private static final long ZOBRIST_PLAYER_1;
+	static {
+		long[] r = Zobrist.randoms(129, 0x5EED0E11L);
+		for (int p = 0; p < 2; p++) {
+			for (int i = 0; i < 8; i++) {
+				for (int b = 1; b < 256; b++) {
+					int low = Integer.numberOfTrailingZeros(b);
+					ZOBRIST[p][i][b] = ZOBRIST[p][i][b & (b - 1)] ^ r[p * 64 + i * 8 + low];
+				}
+			}
+		}
+		ZOBRIST_PLAYER_1 = r[128];
+	}
+
+	private long discs0;  // player 0's pieces
+	private long discs1;  // player 1's pieces
+	private int player;  // 0 or 1
+
+	/**
+	 * Generates the start state for Reversi (also known as Othello).
+	 */
+	public BitboardReversiState() {
+		discs0 = bit(3, 3) | bit(4, 4);
+		discs1 = bit(3, 4) | bit(4, 3);
+		player = 0;
+	}
+
+	/**
+	 * Generates a position from the squares of each player's pieces.
+	 *
+	 * @param discs0 The mask of player 0's pieces, with bit row*8+col for each square.
+	 * @param discs1 The mask of player 1's pieces.
+	 * @param player The player whose turn it is.
+	 */
+	BitboardReversiState(long discs0, long discs1, int player) {
+		this.discs0 = discs0;
+		this.discs1 = discs1;
+		this.player = player;
+	}
+
+	private BitboardReversiState(BitboardReversiState s) {
+		discs0 = s.discs0;
+		discs1 = s.discs1;
+		player = s.player;
+	}
+
+	private BitboardReversiState(BitboardReversiState s, int square) {
+		discs0 = s.discs0;
+		discs1 = s.discs1;
+		player = s.player;
+		play(square);
+	}
+
+	/**
+	 * Computes the single bit mask of a square.
+	 *
+	 * @param row The row of the square.
+	 * @param col The column of the square.
+	 * @return The mask with only the bit for (row, col) set.
+	 */
+	static long bit(int row, int col) {
+		return 1L << (row * 8 + col);
+	}
+
+	/**
+	 * Shifts every square of a mask one step in one of the 8 directions, discarding squares
+	 * that would wrap around the edge of the board.
+	 *
+	 * @param x The mask to shift.
+	 * @param dir The direction, 0 through 7.
+	 * @return The shifted mask.
+	 */
+	static long shift(long x, int dir) {
+		switch (dir) {
+			case 0: return (x << 1) & NOT_COL_0;   // col+1
+			case 1: return (x >>> 1) & NOT_COL_7;  // col-1
+			case 2: return x << 8;                 // row+1
+			case 3: return x >>> 8;                // row-1
+			case 4: return (x << 9) & NOT_COL_0;   // row+1, col+1
+			case 5: return (x >>> 9) & NOT_COL_7;  // row-1, col-1
+			case 6: return (x << 7) & NOT_COL_7;   // row+1, col-1
+			default: return (x >>> 7) & NOT_COL_0; // row-1, col+1
+		}
+	}
+
+	/**
+	 * Computes the legal moves of a player.
+	 *
+	 * @param own The pieces of the player to move.
+	 * @param opp The pieces of the other player.
+	 * @return A mask of the empty squares where the player to move can legally play.
+	 */
+	static long legalMoves(long own, long opp) {
+		long empty = ~(own | opp);
+		long moves = 0;
+		for (int dir = 0; dir < 8; dir++) {
+			// at most 6 opposing pieces can lie between a move and the piece that brackets them
+			long t = shift(own, dir) & opp;
+			t |= shift(t, dir) & opp;
+			t |= shift(t, dir) & opp;
+			t |= shift(t, dir) & opp;
+			t |= shift(t, dir) & opp;
+			t |= shift(t, dir) & opp;
+			moves |= shift(t, dir) & empty;
+		}
+		return moves;
+	}
+
+	/**
+	 * Computes the pieces flipped by a move.
+	 *
+	 * @param own The pieces of the player to move.
+	 * @param opp The pieces of the other player.
+	 * @param square The square, row*8+col, where the player to move plays.
+	 * @return A mask of the opposing pieces flipped by the move, which is 0 if the move is not legal.
+	 */
+	static long flips(long own, long opp, int square) {
+		long move = 1L << square;
+		long flipped = 0;
+		for (int dir = 0; dir < 8; dir++) {
+			long f = 0;
+			long x = shift(move, dir);
+			while ((x & opp) != 0) {
+				f |= x;
+				x = shift(x, dir);
+			}
+			if ((x & own) != 0) flipped |= f;
+		}
+		return flipped;
+	}
+
+	/**
+	 * Places a piece for the player to move, flips the bracketed pieces, and passes the turn
+	 * as ReversiState.applyMove does.  Assumes the move is legal.
+	 *
+	 * @param square The square, row*8+col, of the move.
+	 * @return The mask of flipped pieces.
+	 */
+	private long play(int square) {
+		long move = 1L << square;
+		long f;
+		if (player == 0) {
+			f = flips(discs0, discs1, square);
+			discs0 |= f | move;
+			discs1 &= ~f;
+		} else {
+			f = flips(discs1, discs0, square);
+			discs1 |= f | move;
+			discs0 &= ~f;
+		}
+		int otherPlayer = (player==0) ? 1 : 0;
+		if (movesFor(otherPlayer) != 0) {
+			player = otherPlayer;
+		} else if (movesFor(player) == 0) {
+			player = otherPlayer;
+		}
+		return f;
+	}
+
+	private long movesFor(int p) {
+		return p == 0 ? legalMoves(discs0, discs1) : legalMoves(discs1, discs0);
+	}
+
+	/**
+	 * Accesses the pieces of player 0.
+	 *
+	 * @return A mask of the squares occupied by player 0.
+	 */
+	long discs0() {
+		return discs0;
+	}
+
+	/**
+	 * Accesses the pieces of player 1.
+	 *
+	 * @return A mask of the squares occupied by player 1.
+	 */
+	long discs1() {
+		return discs1;
+	}
+
+	/**
+	 * Accesses the legal moves of the player whose turn it is.
+	 *
+	 * @return A mask of the squares where the current player can legally play.
+	 */
+	long legalMoves() {
+		return movesFor(player);
+	}
+
+	@Override
+	public boolean isTerminalState() {
+		// a move only leaves the turn with a player who has no move when neither player has one
+		return movesFor(player) == 0;
+	}
+
+	@Override
+	public double value() {
+		if (!isTerminalState()) throw new IllegalStateException("Trying to compute value of non-terminal state.");
+		int count0 = Long.bitCount(discs0);
+		int count1 = Long.bitCount(discs1);
+		if (count0 > count1) return 1.0;
+		else if (count0 < count1) return -1.0;
+		else return 0;
+	}
+
+	@Override
+	public int whoseTurn() {
+		return player;
+	}
+
+	@Override
+	public ArrayList<GameState> getSuccessors() {
+		long moves = movesFor(player);
+		ArrayList<GameState> successors = new ArrayList<GameState>(Long.bitCount(moves));
+		while (moves != 0) {
+			successors.add(new BitboardReversiState(this, Long.numberOfTrailingZeros(moves)));
+			moves &= moves - 1;
+		}
+		return successors;
+	}
+
+	@Override
+	public boolean isLegalMove(int[] params) {
+		if (params.length < 2 || params[0] < 0 || params[0] >= 8 || params[1] < 0 || params[1] >= 8) return false;
+		return (movesFor(player) & bit(params[0], params[1])) != 0;
+	}
+
+	@Override
+	public boolean applyMove(int[] params) {
+		if (!isLegalMove(params)) return false;
+		play(params[0] * 8 + params[1]);
+		return true;
+	}
+
+	@Override
+	public int maxMoves() {
+		// at most 60 empty squares
+		return 60;
+	}
+
+	@Override
+	public int generateMoves(int[] moves) {
+		long m = movesFor(player);
+		int n = 0;
+		while (m != 0) {
+			moves[n++] = Long.numberOfTrailingZeros(m);
+			m &= m - 1;
+		}
+		return n;
+	}
+
+	@Override
+	public long makeMove(int move) {
+		return play(move);
+	}
+
+	@Override
+	public void unmakeMove(int move, long undo) {
+		long b = 1L << move;
+		if ((discs0 & b) != 0) {
+			discs0 &= ~(undo | b);
+			discs1 |= undo;
+			player = 0;
+		} else {
+			discs1 &= ~(undo | b);
+			discs0 |= undo;
+			player = 1;
+		}
+	}
+
+	@Override
+	public long zobristKey() {
+		long key = player == 0 ? 0 : ZOBRIST_PLAYER_1;
+		for (int i = 0; i < 8; i++) {
+			key ^= ZOBRIST[0][i][(int)(discs0 >>> (i * 8)) & 0xFF] ^ ZOBRIST[1][i][(int)(discs1 >>> (i * 8)) & 0xFF];
+		}
+		return key;
+	}
+
+	@Override
+	public BitboardReversiState copy() {
+		return new BitboardReversiState(this);
+	}
+
+	@Override
+	public String turnInstructions() {
+		return "Enter row and column separated by spaces:";
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("   0 1 2 3 4 5 6 7\n   _______________\n");
+		for (int i = 0; i < 8; i++) {
+			s.append(i).append(" |");
+			for (int j = 0; j < 8; j++) {
+				if (j > 0) s.append(' ');
+				long b = bit(i, j);
+				if ((discs0 & b) != 0) s.append('0');
+				else if ((discs1 & b) != 0) s.append('1');
+				else s.append('-');
+			}
+			s.append("|\n");
+		}
+		s.append("   _______________\n");
+		return s.toString();
+	}
+
+	/**
+	 * Computes who occupies a square.
+	 *
+	 * @param row The row of the square.
+	 * @param col The column of the square.
+	 * @return 0 or 1 for the player whose piece is on the square, or -1 if it is empty.
+	 */
+	int owner(int row, int col) {
+		long b = bit(row, col);
+		if ((discs0 & b) != 0) return 0;
+		if ((discs1 & b) != 0) return 1;
+		return -1;
+	}
+
+	/**
+	 * Same heuristic as ReversiState.PieceCountHeuristic.
+	 */
+	static class PieceCountHeuristic implements GameHeuristic {
+
+		public double h(GameState s) {
+			BitboardReversiState r = (BitboardReversiState)s;
+			int count0 = Long.bitCount(r.discs0);
+			int count1 = Long.bitCount(r.discs1);
+			double numPieces = count0 + count1;
+			return (count0 - count1) / numPieces;
+		}
+
+	}
+
+	/**
+	 * Same heuristic as ReversiState.CornersHeuristic, computing identical values.
+	 */
+	static class CornersHeuristic implements GameHeuristic {
+
+		public double h(GameState s) {
+			BitboardReversiState r = (BitboardReversiState)s;
+			// each captured corner doubles its owner's piece count
+			double score0 = Long.bitCount(r.discs0) << Long.bitCount(r.discs0 & CORNERS);
+			double score1 = Long.bitCount(r.discs1) << Long.bitCount(r.discs1 & CORNERS);
+			if (r.owner(0, 0) < 0) {
+				int o = r.owner(1, 1);
+				if (o == 0) score0 *= 0.75;
+				else if (o == 1) score1 *= 0.75;
+				o = r.owner(0, 1);
+				if (o == 0) score0 *= 0.9;
+				else if (o == 1) score1 *= 0.9;
+				o = r.owner(1, 0);
+				if (o == 0) score0 *= 0.9;
+				else if (o == 1) score1 *= 0.9;
+			}
+			if (r.owner(7, 7) < 0) {
+				int o = r.owner(6, 6);
+				if (o == 0) score0 *= 0.75;
+				else if (o == 1) score1 *= 0.75;
+				o = r.owner(7, 6);
+				if (o == 0) score0 *= 0.9;
+				else if (o == 1) score1 *= 0.9;
+				o = r.owner(6, 7);
+				if (o == 0) score0 *= 0.9;
+				else if (o == 1) score1 *= 0.9;
+			}
+			if (r.owner(0, 7) < 0) {
+				int o = r.owner(1, 6);
+				if (o == 0) score0 *= 0.75;
+				else if (o == 1) score1 *= 0.75;
+				o = r.owner(0, 6);
+				if (o == 0) score0 *= 0.9;
+				else if (o == 1) score1 *= 0.9;
+				o = r.owner(1, 7);
+				if (o == 0) score0 *= 0.9;
+				else if (o == 1) score1 *= 0.9;
+			}
+			if (r.owner(7, 0) < 0) {
+				int o = r.owner(6, 1);
+				if (o == 0) score0 *= 0.75;
+				else if (o == 1) score1 *= 0.75;
+				o = r.owner(7, 1);
+				if (o == 0) score0 *= 0.9;
+				else if (o == 1) score1 *= 0.9;
+				o = r.owner(6, 0);
+				if (o == 0) score0 *= 0.9;
+				else if (o == 1) score1 *= 0.9;
+			}
+			double total = score0 + score1;
+			return (score0 - score1) / total;
+		}
+
+	}
+
+	/**
+	 * The tactical moves of Reversi for quiescence search: capturing a corner, which can never be
+	 * lost, and moves after which the opponent has no move and must pass, which can swing mobility
+	 * and tempo at once.
+	 */
+	static class CornerAndPassMoves implements TacticalMoveFilter {
+
+		public boolean isTactical(IncrementalGameState s, int move) {
+			long m = 1L << move;
+			if ((m & CORNERS) != 0) return true;
+			BitboardReversiState r = (BitboardReversiState)s;
+			long own = r.player == 0 ? r.discs0 : r.discs1;
+			long opp = r.player == 0 ? r.discs1 : r.discs0;
+			long f = flips(own, opp, move);
+			return legalMoves(opp & ~f, own | f | m) == 0;
+		}
+
+	}
+
+	/**
+	 * A heuristic of mobility, computed entirely with bitwise operations on the boards: current
+	 * mobility (the number of legal moves of each player), potential mobility (the empty squares
+	 * next to each player's opponent, where moves may appear later), frontier discs (discs next to
+	 * an empty square, which give the opponent moves), corners, and, least, discs.  Each feature
+	 * is compared between the players as (mine - theirs) / (mine + theirs), and the heuristic is a
+	 * weighted sum of them.  The weights add up to less than 1, so no position is valued as highly
+	 * as a win.
+	 */
+	static class MobilityHeuristic implements GameHeuristic {
+
+		private static final double CORNER_WEIGHT = 0.35;
+		private static final double MOBILITY_WEIGHT = 0.3;
+		private static final double POTENTIAL_MOBILITY_WEIGHT = 0.1;
+		private static final double FRONTIER_WEIGHT = 0.1;
+		private static final double DISC_WEIGHT = 0.1;
+
+		public double h(GameState s) {
+			BitboardReversiState r = (BitboardReversiState)s;
+			long d0 = r.discs0;
+			long d1 = r.discs1;
+			long empty = ~(d0 | d1);
+			long nextToEmpty = neighbors(empty);
+			return CORNER_WEIGHT * compare(Long.bitCount(d0 & CORNERS), Long.bitCount(d1 & CORNERS))
+					+ MOBILITY_WEIGHT * compare(Long.bitCount(legalMoves(d0, d1)), Long.bitCount(legalMoves(d1, d0)))
+					+ POTENTIAL_MOBILITY_WEIGHT * compare(Long.bitCount(neighbors(d1) & empty), Long.bitCount(neighbors(d0) & empty))
+					// fewer frontier discs is better
+					+ FRONTIER_WEIGHT * compare(Long.bitCount(d1 & nextToEmpty), Long.bitCount(d0 & nextToEmpty))
+					+ DISC_WEIGHT * compare(Long.bitCount(d0), Long.bitCount(d1));
+		}
+
+		/*
+		 * The squares next to any of the squares of a mask, in any of the 8 directions, along
+		 * with the squares of the mask.
+		 */
+		private static long neighbors(long x) {
+			long row = x | (x << 1) & NOT_COL_0 | (x >>> 1) & NOT_COL_7;
+			return row | row << 8 | row >>> 8;
+		}
+
+		private static double compare(int count0, int count1) {
+			int total = count0 + count1;
+			return total == 0 ? 0 : (double)(count0 - count1) / total;
+		}
+
+	}
+}
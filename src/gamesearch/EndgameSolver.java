@@ -0,0 +1,254 @@
+package gamesearch;
+
+/**
+ * An exact endgame solver for Reversi.  Near the end of the game few empty squares remain, and
+ * the rest of the game tree is small enough to search completely, so the AI can play perfectly
+ * instead of estimating with a heuristic.  As a MoveOracle, the solver answers for positions with
+ * at most a configured number of empty squares, and declines the rest.
+ *
+ * The solver works directly on the bitboards of BitboardReversiState, and scores a finished game
+ * by its disc difference, which it searches in negamax form (the score of a position is the
+ * negation of the score of the position from the opponent's side) since the search is the same
+ * for both players.  Moves are ordered fastest-first, by the opponent's mobility after the move,
+ * until the last few empties, which are searched in parity order (moves in quadrants with an odd
+ * number of empties first) with no further ordering.  The very last empty square is scored
+ * directly.
+ *
+ * In win/loss/draw mode, the solver searches with the null window around a draw, which finds
+ * only the sign of the disc difference, the same as the game's value().  This is much faster than
+ * finding the exact disc difference, which is done in exact mode.
+ *
+ * A solver is not thread safe.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class EndgameSolver implements MoveOracle {
+
+	/** The number of empty squares at which ReversiGame switches to the solver. */
+	public static final int DEFAULT_EMPTIES = 16;
+
+	// below this many empties, moves are ordered by parity only
+	private static final int FASTEST_FIRST_EMPTIES = 7;
+
+	private static final long[] QUADRANTS = {
+		0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L
+	};
+
+	private final int maxEmpties;
+	private final boolean exact;
+	private final int[][] moves;
+	private final long[][] flips;
+	private final int[][] keys;
+	private long nodes;
+	private int score;
+
+	/**
+	 * Initializes a solver.
+	 *
+	 * @param maxEmpties The largest number of empty squares for which the solver gives moves as
+	 * 			a MoveOracle.
+	 * @param exact If true, moves maximize the disc difference, and otherwise moves are only
+	 * 			guaranteed to achieve the best of a win, draw or loss.
+	 */
+	public EndgameSolver(int maxEmpties, boolean exact) {
+		this.maxEmpties = maxEmpties;
+		this.exact = exact;
+		// buffers of each search depth, which has no more moves than empty squares
+		moves = new int[61][];
+		flips = new long[61][];
+		keys = new int[61][];
+		for (int e = 0; e <= 60; e++) {
+			moves[e] = new int[e];
+			flips[e] = new long[e];
+			keys[e] = new int[e];
+		}
+	}
+
+	@Override
+	public int move(IncrementalGameState s) {
+		if (!(s instanceof BitboardReversiState) || s.isTerminalState()) return -1;
+		BitboardReversiState r = (BitboardReversiState)s;
+		if (empties(r.discs0(), r.discs1()) > maxEmpties) return -1;
+		return bestMove(r);
+	}
+
+	/**
+	 * Solves a position, finding its best move.
+	 *
+	 * @param s The position, which must not be terminal.
+	 *
+	 * @return The best move, row*8+col.
+	 */
+	public int bestMove(BitboardReversiState s) {
+		boolean first = s.whoseTurn() == 0;
+		long own = first ? s.discs0() : s.discs1();
+		long opp = first ? s.discs1() : s.discs0();
+		int empties = empties(own, opp);
+		int alpha = exact ? -64 : -1;
+		int beta = exact ? 64 : 1;
+		nodes = 0;
+		int n = order(own, opp, BitboardReversiState.legalMoves(own, opp), empties);
+		int best = Integer.MIN_VALUE;
+		int bestMove = -1;
+		for (int i = 0; i < n; i++) {
+			int square = moves[empties][i];
+			long f = flips[empties][i];
+			int v = -search(opp & ~f, own | f | 1L << square, -beta, -Math.max(alpha, best), empties - 1);
+			if (v > best) {
+				best = v;
+				bestMove = square;
+				if (best >= beta) break;
+			}
+		}
+		score = first ? best : -best;
+		return bestMove;
+	}
+
+	/**
+	 * Accesses the score of the position solved by the most recent call to bestMove, as a
+	 * disc difference in favor of player 0.  In win/loss/draw mode, only its sign is exact.
+	 *
+	 * @return The score.
+	 */
+	public int score() {
+		return score;
+	}
+
+	/**
+	 * Accesses the number of positions searched by the most recent solve.
+	 *
+	 * @return The number of nodes.
+	 */
+	public long nodes() {
+		return nodes;
+	}
+
+	/**
+	 * Computes the game-theoretic value of a position with a win/loss/draw search.
+	 *
+	 * @param s The position.
+	 *
+	 * @return 1.0 if player 0 wins with perfect play, -1.0 if player 1 wins, and 0 for a draw.
+	 */
+	public double value(BitboardReversiState s) {
+		return Math.signum(solve(s, -1, 1));
+	}
+
+	/**
+	 * Computes the final disc difference of a position under perfect play.
+	 *
+	 * @param s The position.
+	 *
+	 * @return Player 0's pieces minus player 1's pieces at the end of the game.
+	 */
+	public int discDifference(BitboardReversiState s) {
+		return solve(s, -64, 64);
+	}
+
+	private int solve(BitboardReversiState s, int alpha, int beta) {
+		nodes = 0;
+		if (s.whoseTurn() == 0) {
+			return search(s.discs0(), s.discs1(), alpha, beta, empties(s.discs0(), s.discs1()));
+		}
+		return -search(s.discs1(), s.discs0(), -beta, -alpha, empties(s.discs0(), s.discs1()));
+	}
+
+	private static int empties(long own, long opp) {
+		return 64 - Long.bitCount(own | opp);
+	}
+
+	/*
+	 * Fail-soft alpha beta search of the disc difference in favor of the player to move, whose
+	 * pieces are own.
+	 */
+	private int search(long own, long opp, int alpha, int beta, int empties) {
+		nodes++;
+		if (empties == 0) return Long.bitCount(own) - Long.bitCount(opp);
+		if (empties == 1) return lastMove(own, opp);
+		long legal = BitboardReversiState.legalMoves(own, opp);
+		if (legal == 0) {
+			if (BitboardReversiState.legalMoves(opp, own) == 0) return Long.bitCount(own) - Long.bitCount(opp);
+			return -search(opp, own, -beta, -alpha, empties);
+		}
+		int best = Integer.MIN_VALUE;
+		if (empties > FASTEST_FIRST_EMPTIES) {
+			int n = order(own, opp, legal, empties);
+			int[] m = moves[empties];
+			long[] f = flips[empties];
+			for (int i = 0; i < n; i++) {
+				int v = -search(opp & ~f[i], own | f[i] | 1L << m[i], -beta, -Math.max(alpha, best), empties - 1);
+				if (v > best) {
+					best = v;
+					if (best >= beta) return best;
+				}
+			}
+			return best;
+		}
+		long odd = oddQuadrants(~(own | opp));
+		for (int pass = 0; pass < 2; pass++) {
+			long m = legal & (pass == 0 ? odd : ~odd);
+			while (m != 0) {
+				int square = Long.numberOfTrailingZeros(m);
+				m &= m - 1;
+				long f = BitboardReversiState.flips(own, opp, square);
+				int v = -search(opp & ~f, own | f | 1L << square, -beta, -Math.max(alpha, best), empties - 1);
+				if (v > best) {
+					best = v;
+					if (best >= beta) return best;
+				}
+			}
+		}
+		return best;
+	}
+
+	/*
+	 * Scores the position with one empty square, which is played by whichever player can.
+	 */
+	private static int lastMove(long own, long opp) {
+		int square = Long.numberOfTrailingZeros(~(own | opp));
+		int diff = Long.bitCount(own) - Long.bitCount(opp);
+		long f = BitboardReversiState.flips(own, opp, square);
+		if (f != 0) return diff + 2 * Long.bitCount(f) + 1;
+		f = BitboardReversiState.flips(opp, own, square);
+		if (f != 0) return diff - 2 * Long.bitCount(f) - 1;
+		return diff;
+	}
+
+	private static long oddQuadrants(long empty) {
+		long odd = 0;
+		for (long q : QUADRANTS) {
+			if ((Long.bitCount(empty & q) & 1) != 0) odd |= q;
+		}
+		return odd;
+	}
+
+	/*
+	 * Orders the legal moves fastest-first into the buffers for the given number of empties,
+	 * breaking ties by parity and then by square, and returns the number of moves.
+	 */
+	private int order(long own, long opp, long legal, int empties) {
+		int[] m = moves[empties];
+		long[] f = flips[empties];
+		int[] k = keys[empties];
+		long odd = oddQuadrants(~(own | opp));
+		int n = 0;
+		while (legal != 0) {
+			int square = Long.numberOfTrailingZeros(legal);
+			legal &= legal - 1;
+			long flipped = BitboardReversiState.flips(own, opp, square);
+			int mobility = Long.bitCount(BitboardReversiState.legalMoves(opp & ~flipped, own | flipped | 1L << square));
+			int key = 2 * mobility + ((odd & 1L << square) != 0 ? 0 : 1);
+			int j = n++;
+			for ( ; j > 0 && k[j - 1] > key; j--) {
+				m[j] = m[j - 1];
+				f[j] = f[j - 1];
+				k[j] = k[j - 1];
+			}
+			m[j] = square;
+			f[j] = flipped;
+			k[j] = key;
+		}
+		return n;
+	}
+}
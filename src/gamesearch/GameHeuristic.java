@@ -20,6 +20,8 @@
  * 
  */
 
+package gamesearch;
+
 /**
  * Interface for specifying a heuristic to estimate game theoretic value
  * of game states.
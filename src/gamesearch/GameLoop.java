@@ -0,0 +1,377 @@
+/* 
+ * Copyright (C) 2018, Vincent A. Cicirello.  All rights reserved.
+ * 
+ * License agreement:
+ * 
+ * This Java source file is licensed strictly for use in Stockton University course
+ * CSIS 4463, Artificial Intelligence.  Students who are or were enrolled in CSIS 4463 in 
+ * the Spring 2018 semester at Stockton University may:
+ * (1) use this Java source file to complete any relevant homework assignments for CSIS 4463, and
+ * (2) retain a private copy among course assignments indefinitely.
+ * 
+ * Prohibitions include the following:
+ * (a) You must not remove, or change, the copyright notice.
+ * (b) You must not remove, or change, the license agreement.
+ * (c) You must not redistribute this source file, including but not limited to
+ * 		online code repositories on GitHub or other similar sites.
+ * (d) You must not change the contents of this Java source file, including comments.
+ * 
+ * This license is non-transferable.
+ * 
+ */
+
+package gamesearch;
+
+import java.util.ArrayList;
+import java.util.Scanner;
+import java.util.StringTokenizer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simple text-based console game main loop for a 2-player zero-sum deterministic game
+ * of perfect information.  Allows human player to decide who goes first.
+ * AI player uses alpha beta pruning to select move.
+ * 
+ * @author Vincent A. Cicirello
+ * @version 3.15.2018
+ */
+public class GameLoop {
+
+	/** Memory budget, in megabytes, of the AI's transposition table. */
+	static final int TRANSPOSITION_TABLE_MB = 64;
+	
+	/** Minimum remaining depth at which the AI orders moves by the heuristic. */
+	static final int PRESORT_DEPTH = 3;
+	
+	/** Node budget, over all of its trees, of the AI's Monte Carlo tree search. */
+	static final int MONTE_CARLO_NODES = 1 << 21;
+
+	private GameState current;
+	private int searchThreads;
+	private boolean rootSplitting;
+	private AlphaBetaSearcher.Algorithm algorithm;
+	private MonteCarloTreeSearch monteCarlo;
+	private boolean pondering;
+	private ProbCut probCut;
+	private TacticalMoveFilter tactical;
+	private int quiescenceDepth;
+	private ArrayList<MoveOracle> oracles;
+	
+	/**
+	 * Initializes the game.
+	 * 
+	 * @param startState The start state of the game.
+	 */
+	public GameLoop(GameState startState) {
+		current = startState;
+		searchThreads = 1;
+		algorithm = AlphaBetaSearcher.Algorithm.ALPHA_BETA;
+		oracles = new ArrayList<MoveOracle>();
+	}
+	
+	/**
+	 * Sets the number of threads the AI searches with when its search is limited by depth.
+	 * With more than one thread, the game tree is searched in parallel (see YoungBrothersWaitSearch),
+	 * which requires a game that supports IncrementalGameState.  The parallel search orders
+	 * moves only by the transposition table, so it searches more nodes than the serial search does
+	 * to the same depth.  It does run any ProbCut and quiescence search.
+	 * 
+	 * @param threads The number of threads.
+	 */
+	public void setSearchThreads(int threads) {
+		searchThreads = threads;
+	}
+	
+	/**
+	 * Sets whether a parallel search splits the work only at the root, searching each of the
+	 * moves of the current state concurrently (see ParallelRootSearch), rather than at every node
+	 * with enough remaining depth (see YoungBrothersWaitSearch).  The default is not to.
+	 * 
+	 * @param rootOnly true to split only at the root.
+	 */
+	public void setRootSplitting(boolean rootOnly) {
+		rootSplitting = rootOnly;
+	}
+	
+	/**
+	 * Sets the search algorithm of the AI, for games that support IncrementalGameState.
+	 * The default is ALPHA_BETA.
+	 * 
+	 * @param algorithm The algorithm.
+	 */
+	public void setAlgorithm(AlphaBetaSearcher.Algorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+	
+	/**
+	 * Makes the AI select its moves by Monte Carlo tree search, under a time limit per move,
+	 * instead of by alpha beta pruning.  Works for any game, and needs no heuristic.
+	 * 
+	 * @param mcts The search, or null to use alpha beta pruning.
+	 */
+	public void setMonteCarlo(MonteCarloTreeSearch mcts) {
+		monteCarlo = mcts;
+	}
+	
+	/**
+	 * Sets whether the AI searches while the human thinks about a move (see Ponderer), for games
+	 * that support IncrementalGameState, when the AI searches by alpha beta pruning.  On a ponder
+	 * hit, the pondering search's move is played instead of searching again, even when the AI
+	 * searches with several threads.  The default is not to.
+	 * 
+	 * @param pondering true to ponder.
+	 */
+	public void setPondering(boolean pondering) {
+		this.pondering = pondering;
+	}
+	
+	/**
+	 * Sets the ProbCut models of the AI's search (see AlphaBetaSearcher.setProbCut), for games
+	 * that support IncrementalGameState.  The default is not to prune.
+	 * 
+	 * @param probCut The models, or null to prune nothing.
+	 */
+	public void setProbCut(ProbCut probCut) {
+		this.probCut = probCut;
+	}
+	
+	/**
+	 * Sets the quiescence search of the AI's search (see AlphaBetaSearcher.setQuiescence), for
+	 * games that support IncrementalGameState.  The default is not to search beyond the depth
+	 * limit.
+	 * 
+	 * @param tactical The moves to search beyond the depth limit, or null for none.
+	 * @param maxDepth The most ply to search beyond the depth limit.
+	 */
+	public void setQuiescence(TacticalMoveFilter tactical, int maxDepth) {
+		this.tactical = tactical;
+		quiescenceDepth = maxDepth;
+	}
+	
+	/**
+	 * Adds a source of moves that the AI plays without searching, whenever it has a move for
+	 * the current state.  Oracles are asked in the order they were added, and only for games that
+	 * support IncrementalGameState.
+	 * 
+	 * @param oracle The oracle.
+	 */
+	public void addOracle(MoveOracle oracle) {
+		oracles.add(oracle);
+	}
+	
+	/**
+	 * The game loop for the game, which handles all console I/O, etc.
+	 * AI does complete search of game tree with alpha beta pruning to select move.
+	 * Only applicable for relatively small games.
+	 */
+	public void consolePlay() {
+		consolePlay(null);
+	}
+	
+	/**
+	 * The game loop for the game, which handles all console I/O, etc.
+	 * AI does limits depth of search, using a heuristic to estimate game theoretic value 
+	 * of states at that limit.  AI does use alpha beta pruning.  For games that support
+	 * IncrementalGameState, the AI may instead be given a time limit per move, within which
+	 * it searches as deeply as it can by iterative deepening.
+	 * 
+	 * @param h A heuristic to estimate game theoretic value of game states.  If h is null,
+	 * 				then doesn't limit by depth.
+	 */
+	public void consolePlay(GameHeuristic h) {
+		Scanner in = new Scanner(System.in);
+		System.out.println("Player 0 or 1?");
+		int player = in.nextInt();
+		in.nextLine();
+		while (player > 1 || player < 0) {
+			System.out.println(player + " is invalid response. Player 0 or 1?");
+			player = in.nextInt();
+			in.nextLine();
+		}
+		int ply = Integer.MAX_VALUE;
+		long millis = 0;
+		if (monteCarlo != null) {
+			System.out.println("Enter search time limit per move in milliseconds:");
+			millis = in.nextLong();
+			in.nextLine();
+			while (millis <= 0) {
+				System.out.println(millis + " is invalid response. Enter a positive time limit:");
+				millis = in.nextLong();
+				in.nextLine();
+			}
+		} else if (h != null && current instanceof IncrementalGameState) {
+			System.out.println("Enter search time limit per move in milliseconds, or 0 to limit search depth instead:");
+			millis = in.nextLong();
+			in.nextLine();
+		}
+		if (h != null && millis <= 0) {
+			System.out.println("Enter search depth limit in number of ply:");
+			ply = in.nextInt();
+			in.nextLine();
+		}
+		AlphaBetaSearcher searcher = new AlphaBetaSearcher(h);
+		ForkJoinPool pool = null;
+		YoungBrothersWaitSearch parallel = null;
+		ParallelRootSearch rootParallel = null;
+		Ponderer ponderer = null;
+		if (current instanceof IncrementalGameState) {
+			TranspositionTable tt = new TranspositionTable(TRANSPOSITION_TABLE_MB);
+			searcher.setTranspositionTable(tt);
+			searcher.setMoveOrderer(new KillerHistoryMoveOrderer(h, PRESORT_DEPTH));
+			searcher.setAlgorithm(algorithm);
+			searcher.setProbCut(probCut);
+			searcher.setQuiescence(tactical, quiescenceDepth);
+			if (searchThreads > 1 && millis <= 0) {
+				// the parallel searches order moves by the table alone, without killer moves or the
+				// history heuristic
+				pool = new ForkJoinPool(searchThreads);
+				if (rootSplitting) {
+					rootParallel = new ParallelRootSearch(h, tt, pool);
+					rootParallel.setAlgorithm(algorithm);
+					rootParallel.setQuiescence(tactical, quiescenceDepth);
+					rootParallel.setProbCut(probCut);
+				} else {
+					parallel = new YoungBrothersWaitSearch(h, tt, pool, YoungBrothersWaitSearch.DEFAULT_SPLIT_DEPTH);
+					parallel.setAlgorithm(algorithm);
+					parallel.setQuiescence(tactical, quiescenceDepth);
+					parallel.setProbCut(probCut);
+				}
+			}
+			if (pondering && monteCarlo == null) {
+				ponderer = new Ponderer(h, tt, algorithm);
+				ponderer.setProbCut(probCut);
+				ponderer.setQuiescence(tactical, quiescenceDepth);
+			}
+		}
+		while (!current.isTerminalState()) {
+			System.out.println("BOARD");
+			System.out.println(current);
+			if (player == current.whoseTurn()) {
+				// human turn
+				System.out.println("Human's Turn");
+				if (ponderer != null) ponderer.start((IncrementalGameState)current, ply, millis);
+				boolean hasValidMove = false;
+				while (!hasValidMove) {
+					hasValidMove = true;
+					System.out.println(current.turnInstructions());
+					String line = in.nextLine();
+					StringTokenizer tokens = new StringTokenizer(line);
+					int[] turnParams = new int[tokens.countTokens()];
+					for (int i = 0; i < turnParams.length; i++) {
+						try{
+							turnParams[i] = Integer.parseInt(tokens.nextToken());
+						} catch (NumberFormatException e) {
+							System.out.println("Invalid move format.");
+							hasValidMove = false;
+						}
+					}
+					if (hasValidMove) {
+						hasValidMove = current.isLegalMove(turnParams);
+						if (!hasValidMove) {
+							System.out.println("Invalid move given current board.");
+						} else {
+							current.applyMove(turnParams);
+						}
+					}
+				}
+			} else {
+				// AI turn
+				System.out.println("AI's Turn.  AI is thinking....");
+				if (current instanceof IncrementalGameState) {
+					// search in place rather than through the list of successors
+					IncrementalGameState s = (IncrementalGameState)current;
+					int known = oracleMove(s);
+					int pondered = -1;
+					if (ponderer != null) {
+						// a hit replaces the AI's search, serial or parallel, and a miss leaves it to run
+						if (known >= 0) ponderer.cancel();
+						else pondered = ponderer.finish(s, millis);
+					}
+					if (known >= 0) {
+						s.makeMove(known);
+					} else if (pondered >= 0) {
+						System.out.println("Ponder hit." + (millis > 0 ? "  AI searched " + ponderer.completedDepth() + " ply." : ""));
+						s.makeMove(pondered);
+						System.out.println(ponderer.getStatistics());
+					} else if (monteCarlo != null) {
+						s.makeMove(monteCarlo.bestMove(s, millis, 0));
+						System.out.println(monteCarlo);
+					} else if (millis > 0) {
+						int move = searcher.timedBestMove(s, millis, Integer.MAX_VALUE);
+						System.out.println("AI searched " + searcher.completedDepth() + " ply.");
+						s.makeMove(move);
+						System.out.println(searcher.getStatistics());
+					} else if (parallel != null) {
+						s.makeMove(parallel.bestMove(s, ply));
+						System.out.println(parallel.getStatistics());
+					} else if (rootParallel != null) {
+						s.makeMove(rootParallel.bestMove(s, ply));
+						System.out.println(rootParallel.getStatistics());
+					} else {
+						s.makeMove(searcher.bestMove(s, ply));
+						System.out.println(searcher.getStatistics());
+					}
+					continue;
+				}
+				if (monteCarlo != null) {
+					int i = monteCarlo.bestSuccessor(current, millis, 0);
+					System.out.println(monteCarlo);
+					current = current.getSuccessors().get(i);
+					continue;
+				}
+				ArrayList<GameState> successors = current.getSuccessors();
+				int bestMove = 0;
+				double alpha = Double.NEGATIVE_INFINITY;
+				double beta = Double.POSITIVE_INFINITY;
+				for (int i = 0; i < successors.size(); i++) {
+					double temp = (h == null) ? 
+							(successors.get(i).whoseTurn() == 0 ? 
+							AlphaBetaPruning.maxValue(successors.get(i), alpha, beta) : 
+								AlphaBetaPruning.minValue(successors.get(i), alpha, beta))
+							:
+								(successors.get(i).whoseTurn() == 0 ? 
+										AlphaBetaPruning.maxValue(successors.get(i), alpha, beta, ply-1, h) : 
+											AlphaBetaPruning.minValue(successors.get(i), alpha, beta, ply-1, h));
+					if (current.whoseTurn()==0) {
+						if (temp > alpha) {
+							alpha = temp;
+							bestMove = i;
+						}
+					} else {
+						if (temp < beta) {
+							beta = temp;
+							bestMove = i;
+						}
+					}
+				}
+				current = successors.get(bestMove);
+			}
+		}
+		System.out.println("GAME OVER");
+		System.out.println(current);
+		double v = current.value();
+		if (v > 0.0) {
+			if (player == 0) System.out.println("Human won.  Game value = " + v);
+			else System.out.println("AI won.  Game value = " + v);
+		} else if (v < 0.0) {
+			if (player == 1) System.out.println("Human won.  Game value = " + v);
+			else System.out.println("AI won.  Game value = " + v);
+		} else {
+			System.out.println("Game is a draw.  Game value = " + v);
+		}
+		in.close();
+		if (ponderer != null) ponderer.cancel();
+		if (pool != null) pool.shutdown();
+	}
+	
+	/*
+	 * The move of the first oracle that has one for s, or -1 if none does.
+	 */
+	private int oracleMove(IncrementalGameState s) {
+		for (MoveOracle oracle : oracles) {
+			int move = oracle.move(s);
+			if (move >= 0) return move;
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,366 @@
+package gamesearch;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+/**
+ * A line-oriented socket server for a GameService.  All of the connections are served by one
+ * thread with non-blocking I/O, which never waits for the AI: a request that needs a search is
+ * answered when the search completes, while the thread goes on serving other connections.
+ *
+ * The requests, one per line, are:
+ * <pre>
+ * NEW game player [engine]   start a game of reversi or tictactoe, with the human as player 0 or 1
+ * MOVE session params...     make the human's move, such as MOVE 3 2 4 for row 2, column 4
+ * SHOW session               look at a game
+ * CLOSE session              end a game
+ * STATS                      the numbers of sessions, waiting searches and refused requests
+ * QUIT                       end the connection
+ * </pre>
+ * Each response ends with a line holding only a period, and starts with OK, ERR or BUSY.  BUSY
+ * means that too many searches are waiting, and the request may be sent again later.  A response
+ * about a game is followed by the board, with any line that starts with a period given another.
+ * The requests of a connection are answered in order, one at a time; requests sent while one is
+ * being answered wait, up to a limit, beyond which the server stops reading from the connection.
+ * A line longer than the longest request is answered with ERR, after the requests before it,
+ * and ends the connection, discarding anything sent after it.  A connection's games end with it.
+ *
+ * Run from the command line as:
+ * java gamesearch.GameServer port [searchThreads] [queueCapacity]
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class GameServer {
+
+	// the longest request line, and the most requests a connection may have waiting
+	private static final int MAX_LINE = 1024;
+	private static final int MAX_PENDING = 16;
+
+	private final GameService service;
+	private final ServerSocketChannel server;
+	private final Selector selector;
+	// work handed back to the I/O thread by the threads that complete responses
+	private final ConcurrentLinkedQueue<Runnable> completions = new ConcurrentLinkedQueue<Runnable>();
+	private volatile boolean running = true;
+
+	/**
+	 * Initializes a server, listening on a port.
+	 *
+	 * @param service The games.
+	 * @param address Where to listen.
+	 *
+	 * @throws IOException If the port cannot be opened.
+	 */
+	public GameServer(GameService service, InetSocketAddress address) throws IOException {
+		this.service = service;
+		selector = Selector.open();
+		server = ServerSocketChannel.open();
+		server.bind(address);
+		server.configureBlocking(false);
+		server.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: java gamesearch.GameServer port [searchThreads] [queueCapacity]");
+			return;
+		}
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int capacity = args.length > 2 ? Integer.parseInt(args[2]) : 64 * threads;
+		GameService service = new GameService(threads, capacity);
+		GameServer server = new GameServer(service, new InetSocketAddress(Integer.parseInt(args[0])));
+		System.out.println("Listening on port " + server.port());
+		server.serve();
+	}
+
+	/**
+	 * Accesses the port the server listens on.
+	 *
+	 * @return The port.
+	 *
+	 * @throws IOException If the server's socket has failed.
+	 */
+	public int port() throws IOException {
+		return ((InetSocketAddress)server.getLocalAddress()).getPort();
+	}
+
+	/**
+	 * Serves connections until stop() is called.
+	 *
+	 * @throws IOException If the server's socket fails.
+	 */
+	public void serve() throws IOException {
+		try {
+			while (running) {
+				selector.select();
+				Runnable r;
+				while ((r = completions.poll()) != null) {
+					r.run();
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid()) continue;
+					if (key.isAcceptable()) {
+						accept();
+						continue;
+					}
+					Connection c = (Connection)key.attachment();
+					try {
+						if (key.isReadable()) c.read();
+						if (key.isValid() && key.isWritable()) c.write();
+					} catch (IOException e) {
+						c.close();
+					}
+				}
+			}
+		} finally {
+			for (SelectionKey key : selector.keys()) {
+				if (key.attachment() instanceof Connection) ((Connection)key.attachment()).close();
+			}
+			selector.close();
+			server.close();
+		}
+	}
+
+	/**
+	 * Makes serve() return, closing every connection.  May be called from any thread.
+	 */
+	public void stop() {
+		running = false;
+		selector.wakeup();
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel = server.accept();
+		if (channel == null) return;
+		channel.configureBlocking(false);
+		Connection c = new Connection(channel);
+		c.key = channel.register(selector, SelectionKey.OP_READ, c);
+	}
+
+	/*
+	 * A client, used only by the I/O thread.
+	 */
+	private final class Connection {
+		final SocketChannel channel;
+		SelectionKey key;
+		final ByteBuffer in = ByteBuffer.allocate(4096);
+		final byte[] line = new byte[MAX_LINE];
+		int lineLength;
+		final ArrayDeque<String> pending = new ArrayDeque<String>();
+		final ArrayDeque<ByteBuffer> out = new ArrayDeque<ByteBuffer>();
+		final Set<Long> sessions = new HashSet<Long>();
+		// whether a response is being computed
+		boolean answering;
+		boolean quitting;
+		// whether a line too long to be a request has been received
+		boolean overlong;
+
+		Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		void read() throws IOException {
+			int n = channel.read(in);
+			if (n < 0) {
+				close();
+				return;
+			}
+			process();
+		}
+
+		/*
+		 * Splits the input read so far into requests, until the most requests that may wait are
+		 * waiting, or a line is too long.  The rest of the input stays in the buffer until then.
+		 */
+		void parse() {
+			in.flip();
+			while (in.hasRemaining() && pending.size() < MAX_PENDING && !overlong) {
+				byte b = in.get();
+				if (b == '\n') {
+					pending.add(new String(line, 0, lineLength, StandardCharsets.UTF_8).trim());
+					lineLength = 0;
+				} else if (lineLength == MAX_LINE) {
+					overlong = true;
+				} else {
+					line[lineLength++] = b;
+				}
+			}
+			in.compact();
+		}
+
+		/*
+		 * Answers the waiting requests in order, until one has to wait for the AI, and then
+		 * rejects a line that was too long, once the requests before it are answered.
+		 */
+		void process() {
+			while (true) {
+				parse();
+				if (answering || quitting || pending.isEmpty()) break;
+				handle(pending.poll());
+			}
+			if (overlong && !answering && !quitting && pending.isEmpty()) {
+				respond("ERR Request too long", null);
+				quitting = true;
+			}
+			updateInterest();
+		}
+
+		void write() throws IOException {
+			while (!out.isEmpty()) {
+				ByteBuffer b = out.peek();
+				channel.write(b);
+				if (b.hasRemaining()) break;
+				out.poll();
+			}
+			if (out.isEmpty() && quitting) {
+				close();
+				return;
+			}
+			updateInterest();
+		}
+
+		/*
+		 * Reads only while few requests are waiting, and writes only while there is output.
+		 */
+		void updateInterest() {
+			if (!key.isValid()) return;
+			int ops = 0;
+			if (!quitting && !overlong && pending.size() < MAX_PENDING) ops |= SelectionKey.OP_READ;
+			if (!out.isEmpty() || quitting) ops |= SelectionKey.OP_WRITE;
+			key.interestOps(ops);
+		}
+
+		void respond(String status, String board) {
+			StringBuilder b = new StringBuilder(status).append('\n');
+			if (board != null) {
+				for (String l : board.split("\n")) {
+					if (l.startsWith(".")) b.append('.');
+					b.append(l).append('\n');
+				}
+			}
+			b.append(".\n");
+			out.add(ByteBuffer.wrap(b.toString().getBytes(StandardCharsets.UTF_8)));
+		}
+
+		void respond(GameService.Reply r) {
+			String status = r.over ? "OK " + r.session + " over " + r.value : "OK " + r.session + " turn " + r.whoseTurn;
+			respond(status, r.over ? r.board : r.board + r.instructions);
+		}
+
+		void handle(String request) {
+			StringTokenizer tokens = new StringTokenizer(request);
+			if (!tokens.hasMoreTokens()) return;
+			String command = tokens.nextToken().toUpperCase();
+			try {
+				if (command.equals("NEW")) {
+					if (tokens.countTokens() < 2) throw new IllegalArgumentException("Usage: NEW game player [engine]");
+					String game = tokens.nextToken();
+					int player = Integer.parseInt(tokens.nextToken());
+					String engine = tokens.hasMoreTokens() ? tokens.nextToken() : null;
+					await(service.newGame(game, player, engine), true);
+				} else if (command.equals("MOVE")) {
+					long id = session(tokens);
+					int[] params = new int[tokens.countTokens()];
+					for (int i = 0; i < params.length; i++) {
+						params[i] = Integer.parseInt(tokens.nextToken());
+					}
+					await(service.move(id, params), false);
+				} else if (command.equals("SHOW")) {
+					respond(service.board(session(tokens)));
+				} else if (command.equals("CLOSE")) {
+					long id = session(tokens);
+					sessions.remove(id);
+					service.close(id);
+					respond("OK", null);
+				} else if (command.equals("STATS")) {
+					respond("OK " + service.sessions() + " sessions " + service.queuedSearches() + " queued "
+							+ service.rejected() + " rejected", null);
+				} else if (command.equals("QUIT")) {
+					respond("OK", null);
+					quitting = true;
+				} else {
+					respond("ERR Unknown request " + command, null);
+				}
+			} catch (RejectedExecutionException e) {
+				respond("BUSY", null);
+			} catch (NumberFormatException e) {
+				respond("ERR Not a number: " + e.getMessage(), null);
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				respond("ERR " + e.getMessage(), null);
+			}
+		}
+
+		/*
+		 * A session of this connection, given as the next token.
+		 */
+		long session(StringTokenizer tokens) {
+			if (!tokens.hasMoreTokens()) throw new IllegalArgumentException("No session given");
+			long id = Long.parseLong(tokens.nextToken());
+			if (!sessions.contains(id)) throw new IllegalArgumentException("No session " + id);
+			return id;
+		}
+
+		/*
+		 * Responds when a reply completes, on the I/O thread.
+		 */
+		void await(CompletableFuture<GameService.Reply> reply, final boolean newSession) {
+			answering = true;
+			reply.whenComplete(new BiConsumer<GameService.Reply, Throwable>() {
+				@Override
+				public void accept(final GameService.Reply r, final Throwable failure) {
+					completions.add(new Runnable() {
+						@Override
+						public void run() {
+							answering = false;
+							if (!channel.isOpen()) {
+								if (r != null) service.close(r.session);
+								return;
+							}
+							if (r != null) {
+								if (newSession) sessions.add(r.session);
+								respond(r);
+							} else {
+								Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+								respond("ERR " + cause, null);
+							}
+							process();
+						}
+					});
+					selector.wakeup();
+				}
+			});
+		}
+
+		void close() {
+			for (long id : sessions) {
+				service.close(id);
+			}
+			sessions.clear();
+			key.cancel();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// nothing more to do with the connection
+			}
+		}
+	}
+}
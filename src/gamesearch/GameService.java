@@ -0,0 +1,342 @@
+package gamesearch;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Many independent games between humans and the AI, hosted by one JVM: the session-oriented
+ * equivalent of GameLoop, which takes a human's move and answers with the AI's reply, without
+ * any I/O of its own.  GameServer makes a service available over a socket.
+ *
+ * The AI's searches run on a fixed number of search threads with a bounded queue of waiting
+ * searches.  When the queue is full, a move is refused with a RejectedExecutionException, and the
+ * session is left unchanged so that the move may be sent again later, rather than letting
+ * searches pile up without limit.  Each search thread keeps its own engine, with its own
+ * transposition table, for each of the engine configurations it used most recently, which is
+ * shared by all of the sessions it searches for.  A session stores only its game state, so
+ * thousands of sessions are cheap.
+ *
+ * Since the engine of a game is chosen by whoever starts it, engines are limited to what the
+ * service can afford to run for a stranger: they may not name files, which the service would
+ * read, and their depth, time per move, or number of playouts is bounded.
+ *
+ * A session handles one request at a time: a move sent while the AI is still replying to the
+ * previous one is refused with an IllegalStateException.  Looking at a session never waits for
+ * the AI, so it may be done from an I/O thread.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class GameService {
+
+	/** The deepest search an engine may ask for, which is deep enough to solve TicTacToe. */
+	public static final int MAX_DEPTH = 9;
+
+	/** The longest time per move an engine may ask for, in milliseconds. */
+	public static final long MAX_MILLIS = 10000;
+
+	/** The most playouts per move a Monte Carlo engine may ask for. */
+	public static final int MAX_PLAYOUTS = 1000000;
+
+	// the most engines a search thread keeps, since each has a transposition table
+	private static final int MAX_ENGINES = 4;
+
+	private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<Long, Session>();
+	private final AtomicLong nextId = new AtomicLong(1);
+	private final AtomicLong rejected = new AtomicLong();
+	private final ThreadPoolExecutor executor;
+	// each search thread's most recently used engines, by game and engine configuration
+	private final ThreadLocal<Map<String, Tournament.Engine>> engines = new ThreadLocal<Map<String, Tournament.Engine>>() {
+		@Override
+		protected Map<String, Tournament.Engine> initialValue() {
+			return new LinkedHashMap<String, Tournament.Engine>(2 * MAX_ENGINES, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Tournament.Engine> eldest) {
+					return size() > MAX_ENGINES;
+				}
+			};
+		}
+	};
+
+	/**
+	 * A snapshot of a session.
+	 */
+	public static final class Reply {
+		/** The id of the session. */
+		public final long session;
+		/** The board, as given by the game state's toString(). */
+		public final String board;
+		/** The player whose turn it is. */
+		public final int whoseTurn;
+		/** Whether the game is over. */
+		public final boolean over;
+		/** The game-theoretic value of the game if it is over, and otherwise 0. */
+		public final double value;
+		/** The turn instructions of the game, for the human. */
+		public final String instructions;
+
+		private Reply(Session s) {
+			session = s.id;
+			board = s.state.toString();
+			whoseTurn = s.state.whoseTurn();
+			over = s.state.isTerminalState();
+			value = over ? s.state.value() : 0;
+			instructions = s.state.turnInstructions();
+		}
+	}
+
+	/*
+	 * One game.  Its searching flag is guarded by its lock, and while the flag is set, only the
+	 * search thread replying for it touches its state.
+	 */
+	private static final class Session {
+		final long id;
+		final String game;
+		final IncrementalGameState state;
+		final int human;
+		final Tournament.EngineSpec engine;
+		boolean searching;
+		// the state as of the end of the last request, readable while the AI searches
+		volatile Reply last;
+
+		Session(long id, String game, IncrementalGameState state, int human, Tournament.EngineSpec engine) {
+			this.id = id;
+			this.game = game;
+			this.state = state;
+			this.human = human;
+			this.engine = engine;
+			last = new Reply(this);
+		}
+	}
+
+	/**
+	 * Initializes a service.
+	 *
+	 * @param searchThreads The number of AI searches run at once.
+	 * @param queueCapacity The number of AI searches that may wait for a search thread.
+	 */
+	public GameService(int searchThreads, int queueCapacity) {
+		executor = new ThreadPoolExecutor(searchThreads, searchThreads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(Math.max(1, queueCapacity)));
+	}
+
+	/**
+	 * The engine a game uses when none is given.
+	 *
+	 * @param game reversi or tictactoe.
+	 *
+	 * @return The engine, as for Tournament.
+	 */
+	public static String defaultEngine(String game) {
+		return game.equals("reversi") ? "alphabeta:6:corners:endgame" : "alphabeta:9";
+	}
+
+	/**
+	 * Starts a game.  If the AI moves first, its move is made before the reply completes.
+	 *
+	 * @param game reversi or tictactoe.
+	 * @param human The player, 0 or 1, that the human plays.
+	 * @param engine The AI, written as for Tournament, such as pvs:6:corners, or null for the
+	 * 			game's default.  It may not name files, and its limit may not exceed MAX_DEPTH,
+	 * 			MAX_MILLIS or MAX_PLAYOUTS.
+	 *
+	 * @return The game after the AI's first move, if any.
+	 *
+	 * @throws IllegalArgumentException If the game, player or engine is not recognized, or the
+	 * 			engine is not allowed.
+	 * @throws RejectedExecutionException If the AI moves first and too many searches are waiting.
+	 */
+	public CompletableFuture<Reply> newGame(String game, int human, String engine) {
+		if (human < 0 || human > 1) throw new IllegalArgumentException("Player must be 0 or 1");
+		GameState start = Perft.startState(game);
+		if (!(start instanceof IncrementalGameState)) {
+			throw new IllegalArgumentException("The service requires a game that supports IncrementalGameState");
+		}
+		Tournament.EngineSpec spec = engineSpec(engine == null ? defaultEngine(game) : engine, game);
+		final Session s = new Session(nextId.getAndIncrement(), game, (IncrementalGameState)start, human, spec);
+		if (s.state.whoseTurn() == human) {
+			sessions.put(s.id, s);
+			return CompletableFuture.completedFuture(s.last);
+		}
+		s.searching = true;
+		CompletableFuture<Reply> reply = submit(s, new Supplier<Reply>() {
+			@Override
+			public Reply get() {
+				return reply(s, null);
+			}
+		});
+		sessions.put(s.id, s);
+		return reply;
+	}
+
+	/**
+	 * Makes a human's move, followed by the AI's reply, and by further AI moves while the human
+	 * has to pass.
+	 *
+	 * @param id The session.
+	 * @param params The move, in the form of the game's applyMove, as described by its turn
+	 * 			instructions.
+	 *
+	 * @return The game after the AI's reply.
+	 *
+	 * @throws IllegalArgumentException If there is no such session, or the move is illegal.
+	 * @throws IllegalStateException If the AI is still replying to the previous move, or the
+	 * 			game is over.
+	 * @throws RejectedExecutionException If too many searches are waiting.  The move is not made.
+	 */
+	public CompletableFuture<Reply> move(long id, final int[] params) {
+		final Session s = session(id);
+		synchronized (s) {
+			if (s.searching) throw new IllegalStateException("The AI is still moving");
+			if (s.state.isTerminalState()) throw new IllegalStateException("The game is over");
+			if (s.state.whoseTurn() != s.human) throw new IllegalStateException("It is not the human's turn");
+			if (!s.state.isLegalMove(params)) throw new IllegalArgumentException("Illegal move");
+			s.searching = true;
+		}
+		return submit(s, new Supplier<Reply>() {
+			@Override
+			public Reply get() {
+				return reply(s, params);
+			}
+		});
+	}
+
+	/**
+	 * Looks at a session, without waiting for the AI.
+	 *
+	 * @param id The session.
+	 *
+	 * @return The game as of the end of the last move, or of the AI's reply if it has finished.
+	 *
+	 * @throws IllegalArgumentException If there is no such session.
+	 */
+	public Reply board(long id) {
+		return session(id).last;
+	}
+
+	/**
+	 * Ends a session.  A search already running for it still completes.
+	 *
+	 * @param id The session.
+	 *
+	 * @return true if the session existed.
+	 */
+	public boolean close(long id) {
+		return sessions.remove(id) != null;
+	}
+
+	/**
+	 * Accesses the number of open sessions.
+	 *
+	 * @return The number of sessions.
+	 */
+	public int sessions() {
+		return sessions.size();
+	}
+
+	/**
+	 * Accesses the number of searches waiting for a search thread.
+	 *
+	 * @return The length of the queue.
+	 */
+	public int queuedSearches() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Accesses the number of moves refused because the queue was full.
+	 *
+	 * @return The number of rejections since the service started.
+	 */
+	public long rejected() {
+		return rejected.get();
+	}
+
+	/**
+	 * Stops the search threads, after the searches already submitted.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/*
+	 * Parses an engine, refusing options that name files and limits beyond the maximums.
+	 */
+	private static Tournament.EngineSpec engineSpec(String engine, String game) {
+		if (engine.indexOf('=') >= 0) throw new IllegalArgumentException("Engines may not name files");
+		Tournament.EngineSpec spec = Tournament.EngineSpec.parse(engine, game);
+		boolean allowed;
+		if (spec.millis != 0) allowed = spec.millis > 0 && spec.millis <= MAX_MILLIS;
+		else if (spec.algorithm == null) allowed = spec.playouts > 0 && spec.playouts <= MAX_PLAYOUTS;
+		else allowed = spec.depth > 0 && spec.depth <= MAX_DEPTH;
+		if (!allowed || spec.quiescence > MAX_DEPTH) {
+			throw new IllegalArgumentException("Engines are limited to " + MAX_DEPTH + " ply, " + MAX_MILLIS + "ms or "
+					+ MAX_PLAYOUTS + " playouts");
+		}
+		return spec;
+	}
+
+	private Session session(long id) {
+		Session s = sessions.get(id);
+		if (s == null) throw new IllegalArgumentException("No session " + id);
+		return s;
+	}
+
+	/*
+	 * Runs a search on the executor, clearing the session's searching flag if it is refused.
+	 */
+	private CompletableFuture<Reply> submit(Session s, Supplier<Reply> search) {
+		try {
+			return CompletableFuture.supplyAsync(search, executor);
+		} catch (RejectedExecutionException e) {
+			rejected.incrementAndGet();
+			synchronized (s) {
+				s.searching = false;
+			}
+			throw e;
+		}
+	}
+
+	/*
+	 * Makes the human's move, if any, and then the AI's moves, on a search thread.
+	 */
+	private Reply reply(Session s, int[] params) {
+		// the searching flag, rather than the lock, keeps other requests away from the state
+		try {
+			if (params != null) s.state.applyMove(params);
+			if (!s.state.isTerminalState() && s.state.whoseTurn() != s.human) {
+				Tournament.Engine engine = engine(s);
+				while (!s.state.isTerminalState() && s.state.whoseTurn() != s.human) {
+					s.state.makeMove(engine.move(s.state));
+				}
+			}
+			s.last = new Reply(s);
+			return s.last;
+		} finally {
+			synchronized (s) {
+				s.searching = false;
+			}
+		}
+	}
+
+	private Tournament.Engine engine(Session s) {
+		Map<String, Tournament.Engine> mine = engines.get();
+		String key = s.game + " " + s.engine.name;
+		Tournament.Engine e = mine.get(key);
+		if (e == null) {
+			e = s.engine.create();
+			mine.put(key, e);
+		}
+		return e;
+	}
+}
@@ -20,6 +20,8 @@
  * 
  */
 
+package gamesearch;
+
 import java.util.ArrayList;
 
 /**
@@ -0,0 +1,353 @@
+package gamesearch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fits the weights of PatternHeuristic to positions from self-play, in three steps, each of which
+ * reads and writes PositionFiles, so the data sets may be much larger than memory.
+ *
+ * selfplay plays games between copies of an engine (as in Tournament), each from an opening of
+ * random moves, and writes every position of the games, which are played in batches so that
+ * only the positions of one batch are held at once.  label finds the value of each position, in
+ * parallel: exactly with EndgameSolver once few squares are empty, and otherwise by searching
+ * to a fixed depth, so that the heuristic learns to predict what a deeper search would say.  The
+ * values are written as the labels of a labeled position file.  train fits the weights by
+ * stochastic gradient descent on the squared difference between the heuristic and the labels (as
+ * in Texel tuning, where the labels are the results of games), streaming over the file once per
+ * epoch.  Positions are shuffled within a bounded buffer, and every tenth position is held out to
+ * measure the error on positions the weights were not fitted to.  The weights are saved after
+ * each epoch to a file that PatternHeuristic loads, which may then drive the next round of
+ * self-play.
+ *
+ * Run from the command line as:
+ * java gamesearch.HeuristicTuner selfplay positions games [engine=spec] [plies=N] [seed=N] [threads=N]
+ * java gamesearch.HeuristicTuner label positions labeled [depth=N] [heuristic=name] [exact=N] [threads=N]
+ * java gamesearch.HeuristicTuner train labeled weights [epochs=N] [rate=R] [seed=N]
+ * The engine (default alphabeta:4:patterns) is written as for Tournament, and the heuristic of
+ * label (default patterns) is named as for Tournament.  Positions with at most exact (default 14)
+ * empty squares are solved.  train starts from the weights in its output file, if there are any,
+ * and otherwise from the default weights.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public final class HeuristicTuner {
+
+	// the games played at a time, the positions labeled at a time, and the positions shuffled
+	// together in training
+	private static final int PLAY_BATCH = 256;
+	private static final int LABEL_BATCH = 4096;
+	private static final int SHUFFLE_BUFFER = 1 << 16;
+	// one position in this many is held out of training
+	private static final int HOLDOUT = 10;
+	// memory budget of each labeling thread's transposition table
+	private static final int TRANSPOSITION_TABLE_MB = 16;
+
+	private HeuristicTuner() {}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 3) {
+			System.out.println("Usage: java gamesearch.HeuristicTuner selfplay positions games "
+					+ "[engine=spec] [plies=N] [seed=N] [threads=N]");
+			System.out.println("   or: java gamesearch.HeuristicTuner label positions labeled "
+					+ "[depth=N] [heuristic=name] [exact=N] [threads=N]");
+			System.out.println("   or: java gamesearch.HeuristicTuner train labeled weights [epochs=N] [rate=R] [seed=N]");
+			return;
+		}
+		String engine = "alphabeta:4:patterns";
+		String heuristic = "patterns";
+		int plies = 10;
+		int depth = 6;
+		int exact = 14;
+		int epochs = 10;
+		double rate = 0.002;
+		long seed = 1;
+		int threads = Runtime.getRuntime().availableProcessors();
+		for (int i = 3; i < args.length; i++) {
+			int eq = args[i].indexOf('=');
+			String key = eq < 0 ? args[i] : args[i].substring(0, eq);
+			String value = eq < 0 ? "" : args[i].substring(eq + 1);
+			if (key.equals("engine")) engine = value;
+			else if (key.equals("heuristic")) heuristic = value;
+			else if (key.equals("plies")) plies = Integer.parseInt(value);
+			else if (key.equals("depth")) depth = Integer.parseInt(value);
+			else if (key.equals("exact")) exact = Integer.parseInt(value);
+			else if (key.equals("epochs")) epochs = Integer.parseInt(value);
+			else if (key.equals("rate")) rate = Double.parseDouble(value);
+			else if (key.equals("seed")) seed = Long.parseLong(value);
+			else if (key.equals("threads")) threads = Integer.parseInt(value);
+			else throw new IllegalArgumentException("Unknown option " + args[i]);
+		}
+		long start = System.nanoTime();
+		if (args[0].equals("selfplay")) {
+			long n = selfPlay(Paths.get(args[1]), Integer.parseInt(args[2]), engine, plies, seed, threads);
+			System.out.printf("Wrote %d positions in %.1f s%n", n, (System.nanoTime() - start) / 1e9);
+		} else if (args[0].equals("label")) {
+			long n = label(Paths.get(args[1]), Paths.get(args[2]), depth, heuristic, exact, threads);
+			System.out.printf("Labeled %d positions in %.1f s%n", n, (System.nanoTime() - start) / 1e9);
+		} else if (args[0].equals("train")) {
+			train(Paths.get(args[1]), Paths.get(args[2]), epochs, rate, seed);
+		} else {
+			throw new IllegalArgumentException("Unknown step " + args[0]);
+		}
+	}
+
+	/**
+	 * Plays games between copies of an engine, writing their positions.
+	 *
+	 * @param file The position file to write.
+	 * @param games The number of games.
+	 * @param engine The engine, as algorithm:limit[:heuristic][:endgame][:qN][:probcut].
+	 * @param plies The number of random moves from the start position to each opening.
+	 * @param seed The seed of the random openings.
+	 * @param threads The number of games played at once.
+	 *
+	 * @return The number of positions written, which excludes the final position of each game.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 * @throws InterruptedException If interrupted while waiting for the games.
+	 */
+	public static long selfPlay(Path file, int games, String engine, final int plies, long seed, int threads)
+			throws IOException, InterruptedException {
+		final Tournament.EngineSpec spec = Tournament.EngineSpec.parse(engine, "reversi");
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+		// each thread's engine, which it reuses from game to game
+		final ThreadLocal<Tournament.Engine> engines = new ThreadLocal<Tournament.Engine>() {
+			@Override
+			protected Tournament.Engine initialValue() {
+				return spec.create();
+			}
+		};
+		try (PositionFile.Writer out = PositionFile.Writer.open(file, PositionCodec.REVERSI)) {
+			List<Future<List<GameState>>> futures = new ArrayList<Future<List<GameState>>>(PLAY_BATCH);
+			SplittableRandom random = new SplittableRandom(seed);
+			// only the positions of a batch of games are held at once
+			for (int first = 0; first < games; first += PLAY_BATCH) {
+				futures.clear();
+				for (int i = first; i < games && i < first + PLAY_BATCH; i++) {
+					final SplittableRandom gameRandom = random.split();
+					futures.add(pool.submit(new Callable<List<GameState>>() {
+						@Override
+						public List<GameState> call() {
+							return playGame(engines.get(), plies, gameRandom);
+						}
+					}));
+				}
+				for (int i = 0; i < futures.size(); i++) {
+					for (GameState s : get(futures.get(i))) {
+						out.write(s);
+					}
+					futures.set(i, null);
+				}
+			}
+			return out.count();
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/*
+	 * The positions of a game, from the end of its opening until just before its end.
+	 */
+	private static List<GameState> playGame(Tournament.Engine engine, int plies, SplittableRandom random) {
+		engine.newGame();
+		IncrementalGameState s = new BitboardReversiState();
+		int[] moves = new int[s.maxMoves()];
+		for (int i = 0; i < plies && !s.isTerminalState(); i++) {
+			s.makeMove(moves[random.nextInt(s.generateMoves(moves))]);
+		}
+		List<GameState> positions = new ArrayList<GameState>(60);
+		while (!s.isTerminalState()) {
+			positions.add(s.copy());
+			s.makeMove(engine.move(s));
+		}
+		return positions;
+	}
+
+	/**
+	 * Labels each position of a file with its value, in parallel.
+	 *
+	 * @param in The position file of Reversi positions.
+	 * @param out The labeled position file to write.
+	 * @param depth The depth of the searches.
+	 * @param heuristic The heuristic of the searches, named as for Tournament.
+	 * @param exact The most empty squares of a position that is solved exactly.
+	 * @param threads The number of positions labeled at once.
+	 *
+	 * @return The number of positions labeled.
+	 *
+	 * @throws IOException If a file cannot be read or written.
+	 * @throws InterruptedException If interrupted while waiting for the labels.
+	 */
+	public static long label(Path in, Path out, final int depth, final String heuristic, final int exact, int threads)
+			throws IOException, InterruptedException {
+		Tournament.EngineSpec.heuristic(heuristic);  // rejects unknown names early
+		threads = Math.max(1, threads);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		// each thread's searcher and solver
+		final ThreadLocal<Labeler> labelers = new ThreadLocal<Labeler>() {
+			@Override
+			protected Labeler initialValue() {
+				return new Labeler(Tournament.EngineSpec.heuristic(heuristic), depth, exact);
+			}
+		};
+		final BitboardReversiState[] batch = new BitboardReversiState[LABEL_BATCH];
+		final float[] labels = new float[LABEL_BATCH];
+		try (PositionFile.Reader reader = PositionFile.Reader.open(in, PositionCodec.REVERSI);
+				PositionFile.Writer writer = PositionFile.Writer.open(out, PositionCodec.REVERSI, true)) {
+			while (true) {
+				int n = 0;
+				for (GameState s; n < LABEL_BATCH && (s = reader.read()) != null; n++) {
+					batch[n] = (BitboardReversiState)s;
+				}
+				if (n == 0) break;
+				List<Future<Void>> futures = new ArrayList<Future<Void>>(threads);
+				for (int t = 0; t < threads; t++) {
+					final int from = t * n / threads;
+					final int to = (t + 1) * n / threads;
+					futures.add(pool.submit(new Callable<Void>() {
+						@Override
+						public Void call() {
+							Labeler labeler = labelers.get();
+							for (int i = from; i < to; i++) {
+								labels[i] = (float)labeler.label(batch[i]);
+							}
+							return null;
+						}
+					}));
+				}
+				for (Future<Void> f : futures) {
+					get(f);
+				}
+				for (int i = 0; i < n; i++) {
+					writer.write(batch[i], labels[i]);
+				}
+			}
+			return writer.count();
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/*
+	 * Finds values of positions, for one thread.
+	 */
+	private static final class Labeler {
+		private final AlphaBetaSearcher searcher;
+		private final EndgameSolver solver = new EndgameSolver(0, false);
+		private final int depth;
+		private final int exact;
+
+		Labeler(GameHeuristic h, int depth, int exact) {
+			searcher = new AlphaBetaSearcher(h);
+			searcher.setTranspositionTable(new TranspositionTable(TRANSPOSITION_TABLE_MB));
+			searcher.setMoveOrderer(new KillerHistoryMoveOrderer(h, GameLoop.PRESORT_DEPTH));
+			searcher.setAlgorithm(AlphaBetaSearcher.Algorithm.PVS);
+			this.depth = depth;
+			this.exact = exact;
+		}
+
+		double label(BitboardReversiState s) {
+			if (s.isTerminalState()) return s.value();
+			if (64 - Long.bitCount(s.discs0() | s.discs1()) <= exact) return solver.value(s);
+			searcher.bestMove(s, depth);
+			return searcher.bestValue();
+		}
+	}
+
+	/**
+	 * Fits the weights of PatternHeuristic to a labeled position file, printing the mean squared
+	 * error of each epoch on the positions trained on and on those held out.
+	 *
+	 * @param in The labeled position file of Reversi positions.
+	 * @param weights The weight file to write after each epoch, whose weights, if it exists, are
+	 * 			the starting point.
+	 * @param epochs The number of passes over the positions.
+	 * @param rate The learning rate, the step taken for each weight of a position.
+	 * @param seed The seed of the shuffling.
+	 *
+	 * @return The heuristic with the fitted weights.
+	 *
+	 * @throws IOException If a file cannot be read or written, or the positions are not labeled.
+	 */
+	public static PatternHeuristic train(Path in, Path weights, int epochs, double rate, long seed) throws IOException {
+		PatternHeuristic h = Files.exists(weights) ? PatternHeuristic.load(weights) : new PatternHeuristic();
+		float[] w = h.weights();
+		int[] features = new int[PatternHeuristic.features()];
+		long[] discs0 = new long[SHUFFLE_BUFFER];
+		long[] discs1 = new long[SHUFFLE_BUFFER];
+		float[] labels = new float[SHUFFLE_BUFFER];
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int epoch = 1; epoch <= epochs; epoch++) {
+			double trainError = 0;
+			double testError = 0;
+			long trained = 0;
+			long tested = 0;
+			try (PositionFile.Reader reader = PositionFile.Reader.open(in, PositionCodec.REVERSI)) {
+				if (!reader.labeled()) throw new IOException(in + " is not labeled");
+				while (true) {
+					int n = 0;
+					for (GameState s; n < SHUFFLE_BUFFER && (s = reader.read()) != null; ) {
+						BitboardReversiState r = (BitboardReversiState)s;
+						if (reader.count() % HOLDOUT == 0) {
+							double e = Math.tanh(h.sum(r.discs0(), r.discs1())) - reader.label();
+							testError += e * e;
+							tested++;
+						} else {
+							discs0[n] = r.discs0();
+							discs1[n] = r.discs1();
+							labels[n++] = reader.label();
+						}
+					}
+					if (n == 0) break;
+					for (int i = n - 1; i >= 0; i--) {
+						int j = random.nextInt(i + 1);
+						long d0 = discs0[j];
+						long d1 = discs1[j];
+						float label = labels[j];
+						discs0[j] = discs0[i];
+						discs1[j] = discs1[i];
+						labels[j] = labels[i];
+						h.features(d0, d1, features);
+						float sum = 0;
+						for (int f : features) {
+							sum += w[f];
+						}
+						double p = Math.tanh(sum);
+						double e = p - label;
+						trainError += e * e;
+						// the derivative of the squared error (halved) with respect to each weight
+						float step = (float)(rate * e * (1 - p * p));
+						for (int f : features) {
+							w[f] -= step;
+						}
+					}
+					trained += n;
+				}
+			}
+			h.save(weights);
+			System.out.printf("Epoch %d: mean squared error %.5f on %d positions, %.5f on %d held out%n", epoch,
+					trainError / Math.max(1, trained), trained, testError / Math.max(1, tested), tested);
+		}
+		return h;
+	}
+
+	private static <T> T get(Future<T> f) throws InterruptedException {
+		try {
+			return f.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A task failed", e.getCause());
+		}
+	}
+}
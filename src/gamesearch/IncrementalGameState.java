@@ -0,0 +1,69 @@
+package gamesearch;
+
+/**
+ * Optional extension of the GameState interface for games that can make and unmake moves
+ * in place.  Moves are encoded as small non-negative ints whose meaning is game dependent
+ * (e.g., row*8+col for Reversi).  Searching through this interface visits every node of the
+ * game tree with a single mutable state object instead of one deep copy per successor.
+ *
+ * As with GameState, the player who moves next is given by whoseTurn(), which is not necessarily
+ * the other player after a move is made, and a game implementing this interface must generate
+ * its moves in the same order that getSuccessors() generates the corresponding successors.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public interface IncrementalGameState extends GameState {
+
+	/**
+	 * An upper bound on the number of moves in any state of the game, which is the smallest
+	 * array length that can safely be passed to generateMoves.
+	 *
+	 * @return The maximum number of legal moves in any state.
+	 */
+	int maxMoves();
+
+	/**
+	 * Generates the legal moves of the player whose turn it is.
+	 *
+	 * @param moves An array of length at least maxMoves() into which the moves are written,
+	 * 			in the same order as the successors given by getSuccessors().
+	 *
+	 * @return The number of moves written, which is 0 for a terminal state.
+	 */
+	int generateMoves(int[] moves);
+
+	/**
+	 * Makes a move in place, updating this game state to the successor.  Behavior is undefined
+	 * if the move is not one of the moves given by generateMoves.
+	 *
+	 * @param move The move to make.
+	 *
+	 * @return Undo information that unmakeMove needs to restore the state prior to the move.
+	 */
+	long makeMove(int move);
+
+	/**
+	 * Unmakes the most recently made move, restoring this game state to what it was before
+	 * the call to makeMove.
+	 *
+	 * @param move The move to unmake.
+	 * @param undo The value returned by the call to makeMove that made the move.
+	 */
+	void unmakeMove(int move, long undo);
+
+	/**
+	 * Computes a Zobrist hash key of the state, for use with a TranspositionTable.  States
+	 * with the same board and player to move have the same key.
+	 *
+	 * @return The Zobrist key of the state.
+	 */
+	long zobristKey();
+
+	/**
+	 * Copies the state, so that it can be searched by another thread.
+	 *
+	 * @return An independent copy of this game state.
+	 */
+	IncrementalGameState copy();
+}
@@ -0,0 +1,140 @@
+package gamesearch;
+
+import java.util.Arrays;
+
+/**
+ * A MoveOrderer that combines the standard ordering techniques:
+ * (1) the hash move, e.g. the best move recorded in the transposition table, is searched first;
+ * (2) then the killer moves of the ply, the two most recent moves that caused a cutoff at the
+ *     same distance from the root;
+ * (3) then the remaining moves, by their history score, which increases by depth squared each
+ *     time the move causes a cutoff for the player; and
+ * (4) optionally, when the remaining depth is at least a threshold, the remaining moves are
+ *     instead sorted by a heuristic's value of the successor.
+ * Moves that score the same keep the order in which they were generated.
+ *
+ * Moves are used as indexes into the history table, which suits games, like Reversi and
+ * TicTacToe, whose moves are square numbers.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class KillerHistoryMoveOrderer implements MoveOrderer {
+
+	private static final double HASH_SCORE = Double.MAX_VALUE;
+	private static final double KILLER_SCORE = 1e12;
+
+	private final GameHeuristic presort;
+	private final int presortDepth;
+	private int[][] killers;
+	private double[][] history;
+	private double[] scores;
+
+	/**
+	 * Initializes an orderer that uses hash moves, killer moves, and history.
+	 */
+	public KillerHistoryMoveOrderer() {
+		this(null, 0);
+	}
+
+	/**
+	 * Initializes an orderer that uses hash moves, killer moves, history, and heuristic presorting.
+	 *
+	 * @param presort The heuristic by which to presort moves, or null to not presort.
+	 * @param presortDepth The minimum remaining depth at which to presort, since the heuristic costs
+	 * 			a make, an evaluation, and an unmake per move.
+	 */
+	public KillerHistoryMoveOrderer(GameHeuristic presort, int presortDepth) {
+		this.presort = presort;
+		this.presortDepth = presortDepth;
+		killers = new int[0][];
+		history = new double[2][64];
+		scores = new double[64];
+	}
+
+	@Override
+	public void newSearch() {
+		for (int[] k : killers) {
+			k[0] = k[1] = -1;
+		}
+		for (double[] hist : history) {
+			for (int i = 0; i < hist.length; i++) {
+				hist[i] /= 2;
+			}
+		}
+	}
+
+	@Override
+	public void reset() {
+		for (int[] k : killers) {
+			k[0] = k[1] = -1;
+		}
+		for (double[] hist : history) {
+			Arrays.fill(hist, 0);
+		}
+	}
+
+	@Override
+	public void order(IncrementalGameState s, int[] moves, int n, int hashMove, int ply, int depth) {
+		if (n > scores.length) scores = new double[Math.max(n, 2 * scores.length)];
+		int[] k = killers(ply);
+		int player = s.whoseTurn();
+		boolean useHeuristic = presort != null && depth >= presortDepth;
+		for (int i = 0; i < n; i++) {
+			int m = moves[i];
+			double score;
+			if (m == hashMove) score = HASH_SCORE;
+			else if (m == k[0]) score = KILLER_SCORE + 1;
+			else if (m == k[1]) score = KILLER_SCORE;
+			else if (useHeuristic) {
+				long undo = s.makeMove(m);
+				double v = s.isTerminalState() ? s.value() : presort.h(s);
+				s.unmakeMove(m, undo);
+				score = player == 0 ? v : -v;
+			} else {
+				score = history(player, m);
+			}
+			scores[i] = score;
+		}
+		// insertion sort, which is stable and fast for the short lists of moves of a state
+		for (int i = 1; i < n; i++) {
+			int m = moves[i];
+			double score = scores[i];
+			int j = i - 1;
+			for ( ; j >= 0 && scores[j] < score; j--) {
+				moves[j + 1] = moves[j];
+				scores[j + 1] = scores[j];
+			}
+			moves[j + 1] = m;
+			scores[j + 1] = score;
+		}
+	}
+
+	@Override
+	public void cutoff(int player, int move, int ply, int depth) {
+		int[] k = killers(ply);
+		if (k[0] != move) {
+			k[1] = k[0];
+			k[0] = move;
+		}
+		if (move >= history[player].length) {
+			history[player] = Arrays.copyOf(history[player], Math.max(move + 1, 2 * history[player].length));
+		}
+		history[player][move] += (double)depth * depth;
+	}
+
+	private double history(int player, int move) {
+		return move < history[player].length ? history[player][move] : 0;
+	}
+
+	private int[] killers(int ply) {
+		if (ply >= killers.length) {
+			int old = killers.length;
+			killers = Arrays.copyOf(killers, Math.max(ply + 1, 2 * old));
+			for (int i = old; i < killers.length; i++) {
+				killers[i] = new int[] {-1, -1};
+			}
+		}
+		return killers[ply];
+	}
+}
@@ -0,0 +1,487 @@
+package gamesearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo tree search (UCT), an alternative to alpha beta pruning that needs no heuristic:
+ * the value of a move is estimated by the average result of random games (playouts) played
+ * from it, and the search tree grows towards the moves that look best, while still exploring
+ * moves that have been tried less often.  It works for any GameState, through getSuccessors(),
+ * isTerminalState() and value(), and faster for an IncrementalGameState, whose moves it makes in
+ * place on one copy of the state rather than creating successors, unmaking them to return to the
+ * root after each playout.
+ *
+ * The nodes of each tree live in a pool of parallel arrays, allocated when the search is
+ * created, rather than in one object per node, and the children of a node are consecutive.
+ * When the pool is full, the tree stops growing and later iterations only add playouts.  For an
+ * IncrementalGameState, the subtree of the position reached after the AI's move and the
+ * opponent's reply is kept for the next search, by copying it to the front of the pool; it is
+ * found by Zobrist key among the nodes near the previous root.  For other games, each search
+ * starts a new tree.
+ *
+ * With more than one tree, the trees are searched in parallel on a ForkJoinPool with their own
+ * pools and random numbers (root parallelization), and the visits of their root moves are added
+ * up to choose the move.  Since the trees share nothing, no locking or virtual loss is needed.
+ *
+ * A search stops when it has used its budget of iterations (playouts) or of time, whichever comes
+ * first, and chooses the move that was visited most.  A search is not thread safe.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class MonteCarloTreeSearch {
+
+	/** The default exploration constant of UCT, about the square root of 2 times half the range of value(). */
+	public static final double DEFAULT_EXPLORATION = 1.4;
+
+	// a pool always has room for the root and its children
+	private static final int MIN_NODES = 1024;
+
+	// how many levels below the previous root to look for the new root when reusing a tree
+	private static final int REUSE_DEPTH = 3;
+
+	private final Tree[] trees;
+	private final ForkJoinPool pool;
+	private double exploration;
+	private long iterations;
+	private double bestValue;
+	private long elapsedNanos;
+
+	/**
+	 * Initializes a search with a single tree.
+	 *
+	 * @param maxNodes The size of the tree's node pool, which is at least 1024.
+	 * @param seed The seed of the random playouts.
+	 */
+	public MonteCarloTreeSearch(int maxNodes, long seed) {
+		this(maxNodes, seed, null, 1);
+	}
+
+	/**
+	 * Initializes a search with trees searched in parallel.
+	 *
+	 * @param maxNodes The size of each tree's node pool, which is at least 1024.
+	 * @param seed The seed of the random playouts.
+	 * @param pool The threads that search, or null to search the trees one after another.
+	 * @param trees The number of trees.
+	 */
+	public MonteCarloTreeSearch(int maxNodes, long seed, ForkJoinPool pool, int trees) {
+		this.pool = pool;
+		this.trees = new Tree[Math.max(1, trees)];
+		SplittableRandom seeds = new SplittableRandom(seed);
+		for (int i = 0; i < this.trees.length; i++) {
+			this.trees[i] = new Tree(Math.max(maxNodes, MIN_NODES), seeds.split());
+		}
+		exploration = DEFAULT_EXPLORATION;
+	}
+
+	/**
+	 * Sets the exploration constant of UCT, which weighs trying less visited moves against
+	 * the moves with the best average result.
+	 *
+	 * @param c The exploration constant.
+	 */
+	public void setExploration(double c) {
+		exploration = c;
+	}
+
+	/**
+	 * Selects a move for the player whose turn it is.
+	 *
+	 * @param s The game state, which is not modified.  Must not be terminal.
+	 * @param millis The time limit in milliseconds, or 0 for none.
+	 * @param maxIterations The number of playouts, over all trees, or 0 for no limit.  At least
+	 * 			one of the limits must be positive.
+	 *
+	 * @return The best move, or -1 if s has no moves.
+	 */
+	public int bestMove(IncrementalGameState s, long millis, int maxIterations) {
+		int i = search(s, millis, maxIterations);
+		if (i < 0) return -1;
+		int[] moves = new int[s.maxMoves()];
+		s.generateMoves(moves);
+		return moves[i];
+	}
+
+	/**
+	 * Selects a successor of a state for the player whose turn it is.
+	 *
+	 * @param s The game state, which is not modified.  Must not be terminal.
+	 * @param millis The time limit in milliseconds, or 0 for none.
+	 * @param maxIterations The number of playouts, over all trees, or 0 for no limit.  At least
+	 * 			one of the limits must be positive.
+	 *
+	 * @return The index of the best successor in s.getSuccessors(), or -1 if s has none.
+	 */
+	public int bestSuccessor(GameState s, long millis, int maxIterations) {
+		return search(s, millis, maxIterations);
+	}
+
+	/**
+	 * Accesses the estimated value of the move chosen by the most recent search.
+	 *
+	 * @return The average result, to player 0, of the playouts through the chosen move.
+	 */
+	public double bestValue() {
+		return bestValue;
+	}
+
+	/**
+	 * Accesses the number of playouts of the most recent search.
+	 *
+	 * @return The number of iterations, over all trees.
+	 */
+	public long iterations() {
+		return iterations;
+	}
+
+	/**
+	 * Accesses the size of the search tree.
+	 *
+	 * @return The number of nodes in use, over all trees.
+	 */
+	public long treeSize() {
+		long size = 0;
+		for (Tree t : trees) {
+			size += t.size;
+		}
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		double seconds = elapsedNanos / 1e9;
+		return String.format("%d playouts in %.3f s (%.0f playouts/s), %d tree nodes, value %.3f",
+				iterations, seconds, iterations / seconds, treeSize(), bestValue);
+	}
+
+	/*
+	 * Searches every tree, and returns the index of the most visited root move, or -1.
+	 */
+	private int search(GameState s, long millis, int maxIterations) {
+		long start = System.nanoTime();
+		final long deadline = millis > 0 ? start + millis * 1000000L : Long.MAX_VALUE;
+		final long limit = maxIterations > 0 ? Math.max(1, maxIterations / trees.length) : Long.MAX_VALUE;
+		for (Tree t : trees) {
+			t.setRoot(s);
+		}
+		if (pool == null || trees.length == 1) {
+			for (Tree t : trees) {
+				t.run(limit, deadline);
+			}
+		} else {
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					ArrayList<RecursiveAction> tasks = new ArrayList<RecursiveAction>(trees.length);
+					for (final Tree t : trees) {
+						tasks.add(new RecursiveAction() {
+							private static final long serialVersionUID = 1L;
+
+							@Override
+							protected void compute() {
+								t.run(limit, deadline);
+							}
+						});
+					}
+					invokeAll(tasks);
+				}
+			});
+		}
+		// the trees' roots have the same moves in the same order
+		int best = -1;
+		long bestVisits = -1;
+		double bestTotal = 0;
+		iterations = 0;
+		for (Tree t : trees) {
+			iterations += t.iterations;
+		}
+		int n = trees[0].childCount[0];
+		for (int i = 0; i < n; i++) {
+			long visits = 0;
+			double total = 0;
+			for (Tree t : trees) {
+				if (t.childCount[0] == n) {
+					visits += t.visits[t.firstChild[0] + i];
+					total += t.total[t.firstChild[0] + i];
+				}
+			}
+			if (visits > bestVisits) {
+				best = i;
+				bestVisits = visits;
+				bestTotal = total;
+			}
+		}
+		bestValue = bestVisits > 0 ? bestTotal / bestVisits : 0;
+		elapsedNanos = System.nanoTime() - start;
+		return best;
+	}
+
+	/*
+	 * A search tree, in a node pool of parallel arrays indexed by node, with the root at 0.
+	 */
+	private final class Tree {
+		// the number of nodes of a node's subtree that playouts have passed through
+		final int[] visits;
+		// the sum of the results, to player 0, of those playouts
+		final double[] total;
+		// the index of a node's first child, whose siblings follow it
+		final int[] firstChild;
+		// the number of children, or -1 if the node has not been expanded
+		final int[] childCount;
+		final int[] parent;
+		// the move that leads to a node, for an IncrementalGameState
+		final int[] move;
+		// the state of a node, for other games, allocated on first use
+		GameState[] state;
+		// spare arrays into which a reused subtree is copied, allocated on first use
+		int[] spareVisits;
+		double[] spareTotal;
+		int[] spareFirstChild;
+		int[] spareChildCount;
+		int[] spareParent;
+		int[] spareMove;
+		int[] order;
+
+		final SplittableRandom random;
+		int size;
+		long iterations;
+		IncrementalGameState root;  // null for other games
+		int[] moves;
+		// the moves an iteration has made from the root, and their undo information
+		int[] made = new int[64];
+		long[] undo = new long[64];
+		int madeCount;
+
+		Tree(int capacity, SplittableRandom random) {
+			visits = new int[capacity];
+			total = new double[capacity];
+			firstChild = new int[capacity];
+			childCount = new int[capacity];
+			parent = new int[capacity];
+			move = new int[capacity];
+			this.random = random;
+		}
+
+		/*
+		 * Makes s the root, reusing the subtree of the previous search that it is in, if any.
+		 */
+		void setRoot(GameState s) {
+			iterations = 0;
+			if (s instanceof IncrementalGameState) {
+				IncrementalGameState is = (IncrementalGameState)s;
+				if (moves == null || moves.length < is.maxMoves()) moves = new int[is.maxMoves()];
+				int reused = root == null || size == 0 ? -1 : find(root, 0, is.zobristKey(), REUSE_DEPTH);
+				root = is.copy();
+				if (reused > 0) {
+					reroot(reused);
+				} else if (reused < 0) {
+					clear();
+				}
+				if (childCount[0] < 0) expand(0, root, null);
+			} else {
+				root = null;
+				if (state == null) state = new GameState[visits.length];
+				clear();
+				state[0] = s;
+				expand(0, null, s);
+			}
+		}
+
+		private void clear() {
+			size = 1;
+			visits[0] = 0;
+			total[0] = 0;
+			childCount[0] = -1;
+			parent[0] = -1;
+		}
+
+		/*
+		 * Finds the node of the position with the given key within the given depth below a
+		 * node, whose position is s, or -1.
+		 */
+		private int find(IncrementalGameState s, int node, long key, int depth) {
+			if (s.zobristKey() == key) return node;
+			if (depth == 0 || childCount[node] <= 0) return -1;
+			for (int c = firstChild[node]; c < firstChild[node] + childCount[node]; c++) {
+				long undo = s.makeMove(move[c]);
+				int found = find(s, c, key, depth - 1);
+				s.unmakeMove(move[c], undo);
+				if (found >= 0) return found;
+			}
+			return -1;
+		}
+
+		/*
+		 * Copies the subtree of a node to the front of the pool, breadth first so that
+		 * siblings stay consecutive, and discards the rest of the tree.
+		 */
+		private void reroot(int node) {
+			if (spareVisits == null) {
+				int capacity = visits.length;
+				spareVisits = new int[capacity];
+				spareTotal = new double[capacity];
+				spareFirstChild = new int[capacity];
+				spareChildCount = new int[capacity];
+				spareParent = new int[capacity];
+				spareMove = new int[capacity];
+				order = new int[capacity];
+			}
+			order[0] = node;
+			spareParent[0] = -1;
+			int n = 1;
+			for (int i = 0; i < n; i++) {
+				int old = order[i];
+				spareVisits[i] = visits[old];
+				spareTotal[i] = total[old];
+				spareMove[i] = move[old];
+				spareChildCount[i] = childCount[old];
+				if (childCount[old] > 0) {
+					spareFirstChild[i] = n;
+					for (int c = 0; c < childCount[old]; c++) {
+						order[n] = firstChild[old] + c;
+						spareParent[n] = i;
+						n++;
+					}
+				}
+			}
+			System.arraycopy(spareVisits, 0, visits, 0, n);
+			System.arraycopy(spareTotal, 0, total, 0, n);
+			System.arraycopy(spareFirstChild, 0, firstChild, 0, n);
+			System.arraycopy(spareChildCount, 0, childCount, 0, n);
+			System.arraycopy(spareParent, 0, parent, 0, n);
+			System.arraycopy(spareMove, 0, move, 0, n);
+			size = n;
+		}
+
+		/*
+		 * Allocates the children of a node, whose position is s (or g for other games), if the
+		 * pool has room for them.  A terminal node is expanded with no children.
+		 */
+		private void expand(int node, IncrementalGameState s, GameState g) {
+			if (s != null) {
+				int n = s.isTerminalState() ? 0 : s.generateMoves(moves);
+				if (size + n > visits.length) return;
+				for (int i = 0; i < n; i++) {
+					newNode(size + i, node);
+					move[size + i] = moves[i];
+				}
+				firstChild[node] = size;
+				childCount[node] = n;
+				size += n;
+			} else {
+				ArrayList<GameState> successors = g.isTerminalState() ? new ArrayList<GameState>(0) : g.getSuccessors();
+				int n = successors.size();
+				if (size + n > visits.length) return;
+				for (int i = 0; i < n; i++) {
+					newNode(size + i, node);
+					state[size + i] = successors.get(i);
+				}
+				firstChild[node] = size;
+				childCount[node] = n;
+				size += n;
+			}
+		}
+
+		private void newNode(int node, int parentNode) {
+			visits[node] = 0;
+			total[node] = 0;
+			childCount[node] = -1;
+			parent[node] = parentNode;
+		}
+
+		/*
+		 * Runs iterations until either limit is reached, checking the clock every 64 iterations.
+		 */
+		void run(long limit, long deadline) {
+			if (childCount[0] <= 0) return;
+			while (iterations < limit) {
+				iterate();
+				iterations++;
+				if ((iterations & 63) == 0 && System.nanoTime() >= deadline) break;
+			}
+		}
+
+		/*
+		 * One iteration: selects a path down the tree by UCT, expands the node at its end, plays
+		 * out a random game from there, and adds the result to the nodes of the path.
+		 */
+		private void iterate() {
+			IncrementalGameState s = root;
+			GameState g = root == null ? state[0] : null;
+			int node = 0;
+			while (true) {
+				if (childCount[node] < 0) {
+					expand(node, s, g);
+					if (childCount[node] < 0) break;  // the pool is full
+				}
+				if (childCount[node] == 0) break;
+				node = select(node, s != null ? s.whoseTurn() : g.whoseTurn());
+				if (s != null) make(s, move[node]);
+				else g = state[node];
+				if (visits[node] == 0) break;
+			}
+			double result = s != null ? playout(s) : playout(g);
+			for (int n = node; n >= 0; n = parent[n]) {
+				visits[n]++;
+				total[n] += result;
+			}
+			// back to the root
+			while (madeCount > 0) {
+				madeCount--;
+				s.unmakeMove(made[madeCount], undo[madeCount]);
+			}
+		}
+
+		private void make(IncrementalGameState s, int m) {
+			if (madeCount == made.length) {
+				made = Arrays.copyOf(made, 2 * madeCount);
+				undo = Arrays.copyOf(undo, 2 * madeCount);
+			}
+			undo[madeCount] = s.makeMove(m);
+			made[madeCount++] = m;
+		}
+
+		/*
+		 * Chooses the child of a node with the best upper confidence bound for the player to move,
+		 * or the first child that has not been visited.
+		 */
+		private int select(int node, int player) {
+			double logVisits = Math.log(Math.max(1, visits[node]));
+			double sign = player == 0 ? 1 : -1;
+			int best = -1;
+			double bestBound = Double.NEGATIVE_INFINITY;
+			for (int c = firstChild[node]; c < firstChild[node] + childCount[node]; c++) {
+				if (visits[c] == 0) return c;
+				double bound = sign * total[c] / visits[c] + exploration * Math.sqrt(logVisits / visits[c]);
+				if (bound > bestBound) {
+					bestBound = bound;
+					best = c;
+				}
+			}
+			return best;
+		}
+
+		private double playout(IncrementalGameState s) {
+			while (!s.isTerminalState()) {
+				int n = s.generateMoves(moves);
+				make(s, moves[random.nextInt(n)]);
+			}
+			return s.value();
+		}
+
+		private double playout(GameState g) {
+			while (!g.isTerminalState()) {
+				ArrayList<GameState> successors = g.getSuccessors();
+				g = successors.get(random.nextInt(successors.size()));
+			}
+			return g.value();
+		}
+	}
+}
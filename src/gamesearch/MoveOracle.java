@@ -0,0 +1,23 @@
+package gamesearch;
+
+/**
+ * A source of moves that need no search, such as a table of solved positions or an opening book.
+ * Before searching, the AI asks its oracles, in the order they were added to the GameLoop, for a
+ * move, and plays the first move it is given.  An oracle that does not know a state declines it,
+ * and the AI then searches as usual.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public interface MoveOracle {
+
+	/**
+	 * Looks up the move to play in a state.
+	 *
+	 * @param s The state, which must be unchanged when this method returns.  It need not be a
+	 * 			state of the game the oracle knows, in which case the oracle declines it.
+	 *
+	 * @return A legal move of s, or -1 if the oracle has no move for s.
+	 */
+	int move(IncrementalGameState s);
+}
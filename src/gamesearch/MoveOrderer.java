@@ -0,0 +1,46 @@
+package gamesearch;
+
+/**
+ * A move ordering stage for search over the IncrementalGameState interface.  Alpha beta pruning
+ * prunes the most when the best move of each state is searched first, so a searcher passes the
+ * moves it generates through a MoveOrderer before recursing, and reports back which moves caused
+ * cutoffs so that the orderer can learn from them.  An orderer belongs to a single searcher.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public interface MoveOrderer {
+
+	/**
+	 * Called at the start of each search, which may age or clear what was learned in earlier searches.
+	 */
+	void newSearch();
+
+	/**
+	 * Forgets everything learned in earlier searches, such as before the searcher plays a new game.
+	 */
+	void reset();
+
+	/**
+	 * Reorders the moves of a state, best first.
+	 *
+	 * @param s The state, which must be unchanged when this method returns.
+	 * @param moves The moves of s, as generated.
+	 * @param n The number of moves.
+	 * @param hashMove A move to search first (e.g., the best move recorded in a transposition table),
+	 * 			or -1 if none.
+	 * @param ply The distance of s from the root of the search.
+	 * @param depth The remaining search depth at s.
+	 */
+	void order(IncrementalGameState s, int[] moves, int n, int hashMove, int ply, int depth);
+
+	/**
+	 * Reports that a move caused a cutoff.
+	 *
+	 * @param player The player who made the move.
+	 * @param move The move.
+	 * @param ply The distance from the root of the state in which the move was made.
+	 * @param depth The remaining search depth at that state.
+	 */
+	void cutoff(int player, int move, int ply, int depth);
+}
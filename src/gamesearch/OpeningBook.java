@@ -0,0 +1,214 @@
+package gamesearch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An opening book for Reversi: the best move, found by a deep search, of the positions that
+ * commonly arise in the first moves of a game.  Every game starts from the same position, so
+ * without a book the AI repeats the same searches in every game.
+ *
+ * A book is generated offline by running this class, and stored in a binary file of 16 byte
+ * records (a position's Zobrist key, its score as a float, and its best move as an int), sorted
+ * by key, after an 8 byte header (a magic number and the number of records).  The file is
+ * memory-mapped read-only and searched in place by binary search, so opening a book reads nothing
+ * up front, and several processes using the same book share it through the page cache.
+ *
+ * Positions are identified by BitboardReversiState.zobristKey(), so a book is only valid for
+ * the Zobrist random numbers it was generated with.
+ *
+ * To generate a book, run from the command line as:
+ * java gamesearch.OpeningBook file plies breadth depth [pieces|corners]
+ * which searches the start position and each position reached by playing one of the breadth best
+ * moves of each player, up to plies moves into the game, to the given depth with the given
+ * heuristic (corners by default).  The number of positions grows as breadth^plies.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class OpeningBook implements MoveOracle {
+
+	/** The file that ReversiGame uses as its book, if it exists. */
+	public static final String DEFAULT_FILE = "reversi.book";
+
+	private static final int MAGIC = 0x52424F4B;  // "RBOK"
+	private static final int HEADER_BYTES = 8;
+	private static final int RECORD_BYTES = 16;
+
+	private final ByteBuffer records;
+	private final int size;
+
+	private OpeningBook(ByteBuffer records) throws IOException {
+		if (records.capacity() < HEADER_BYTES || records.getInt(0) != MAGIC) {
+			throw new IOException("Not an opening book");
+		}
+		size = records.getInt(4);
+		if (size < 0 || records.capacity() != HEADER_BYTES + (long)size * RECORD_BYTES) {
+			throw new IOException("Opening book is truncated");
+		}
+		this.records = records;
+	}
+
+	/**
+	 * Opens a book file.
+	 *
+	 * @param file The file.
+	 *
+	 * @return The book, which is backed by a read-only mapping of the file.
+	 *
+	 * @throws IOException If the file cannot be read or is not a book.
+	 */
+	public static OpeningBook open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			// the mapping stays valid after the channel is closed
+			MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new OpeningBook(map);
+		}
+	}
+
+	/**
+	 * Accesses the number of positions in the book.
+	 *
+	 * @return The number of positions.
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int move(IncrementalGameState s) {
+		if (!(s instanceof BitboardReversiState)) return -1;
+		int i = find(s.zobristKey());
+		if (i < 0) return -1;
+		int move = records.getInt(HEADER_BYTES + i * RECORD_BYTES + 12);
+		// guards against a key collision or a book made with other Zobrist keys
+		if (move < 0 || move >= 64 || (((BitboardReversiState)s).legalMoves() & 1L << move) == 0) return -1;
+		return move;
+	}
+
+	/**
+	 * Looks up the score of a position, which is its value to player 0 as estimated by the search
+	 * that generated the book.
+	 *
+	 * @param s The position.
+	 *
+	 * @return The score, or NaN if the position is not in the book.
+	 */
+	public double score(BitboardReversiState s) {
+		int i = find(s.zobristKey());
+		return i < 0 ? Double.NaN : records.getFloat(HEADER_BYTES + i * RECORD_BYTES + 8);
+	}
+
+	/*
+	 * Binary search for the record with the given key, using only absolute reads so that
+	 * concurrent lookups are safe.
+	 */
+	private int find(long key) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long k = records.getLong(HEADER_BYTES + mid * RECORD_BYTES);
+			if (k < key) low = mid + 1;
+			else if (k > key) high = mid - 1;
+			else return mid;
+		}
+		return -1;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 4) {
+			System.out.println("Usage: java gamesearch.OpeningBook file plies breadth depth [pieces|corners]");
+			return;
+		}
+		Path file = Paths.get(args[0]);
+		int plies = Integer.parseInt(args[1]);
+		int breadth = Integer.parseInt(args[2]);
+		int depth = Integer.parseInt(args[3]);
+		GameHeuristic h = args.length > 4 && args[4].equals("pieces") ?
+				new BitboardReversiState.PieceCountHeuristic() : new BitboardReversiState.CornersHeuristic();
+		Generator g = new Generator(h, depth, breadth);
+		long start = System.nanoTime();
+		g.expand(new BitboardReversiState(), plies);
+		g.write(file);
+		System.out.printf("Wrote %d positions to %s in %.1f s%n", g.entries.size(), file, (System.nanoTime() - start) / 1e9);
+	}
+
+	/*
+	 * Generates a book by searching each position of the book tree in turn.
+	 */
+	private static final class Generator {
+		private final AlphaBetaSearcher searcher;
+		private final int depth;
+		private final int breadth;
+		// book entries by key, in key order, as {move, score bits}
+		private final TreeMap<Long, long[]> entries = new TreeMap<Long, long[]>();
+
+		Generator(GameHeuristic h, int depth, int breadth) {
+			searcher = new AlphaBetaSearcher(h);
+			searcher.setTranspositionTable(new TranspositionTable(GameLoop.TRANSPOSITION_TABLE_MB));
+			searcher.setMoveOrderer(new KillerHistoryMoveOrderer(h, GameLoop.PRESORT_DEPTH));
+			this.depth = depth;
+			this.breadth = breadth;
+		}
+
+		/*
+		 * Adds s to the book, scoring each of its moves by a search, and expands its best moves.
+		 */
+		void expand(BitboardReversiState s, int plies) {
+			if (s.isTerminalState() || entries.containsKey(s.zobristKey())) return;
+			int[] moves = new int[s.maxMoves()];
+			int n = s.generateMoves(moves);
+			double[] scores = new double[n];
+			boolean max = s.whoseTurn() == 0;
+			for (int i = 0; i < n; i++) {
+				long undo = s.makeMove(moves[i]);
+				scores[i] = s.whoseTurn() == 0 ?
+						searcher.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth - 1) :
+						searcher.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth - 1);
+				s.unmakeMove(moves[i], undo);
+			}
+			// best first, keeping the earlier of equally good moves first as the search would
+			for (int i = 1; i < n; i++) {
+				int m = moves[i];
+				double v = scores[i];
+				int j = i - 1;
+				for ( ; j >= 0 && (max ? scores[j] < v : scores[j] > v); j--) {
+					moves[j + 1] = moves[j];
+					scores[j + 1] = scores[j];
+				}
+				moves[j + 1] = m;
+				scores[j + 1] = v;
+			}
+			entries.put(s.zobristKey(), new long[] {moves[0], Float.floatToIntBits((float)scores[0])});
+			if (plies <= 0) return;
+			for (int i = 0; i < n && i < breadth; i++) {
+				long undo = s.makeMove(moves[i]);
+				expand(s, plies - 1);
+				s.unmakeMove(moves[i], undo);
+			}
+		}
+
+		void write(Path file) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + entries.size() * RECORD_BYTES);
+			buffer.putInt(MAGIC).putInt(entries.size());
+			for (Map.Entry<Long, long[]> e : entries.entrySet()) {
+				buffer.putLong(e.getKey()).putInt((int)e.getValue()[1]).putInt((int)e.getValue()[0]);
+			}
+			buffer.flip();
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,321 @@
+package gamesearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Alpha beta pruning that splits the search at the root across the threads of a ForkJoinPool.
+ * The first move is searched alone to establish a bound, and then the remaining moves are
+ * searched concurrently, each by an AlphaBetaSearcher of the worker thread running it.  The
+ * value of the best move found so far is shared between the workers through an atomic
+ * reference, updated by compare-and-set, so a move searched after a good move has been found
+ * is still pruned against it.  A worker searches the children of its move one at a time,
+ * reading the shared value again before each, so a better move found by another worker while
+ * this one is searching narrows the rest of its search too.  The workers' searchers also run any
+ * quiescence search beyond the depth limit, and any ProbCut, including at the moves' own states.
+ *
+ * The move chosen does not depend on the order in which the workers finish: of the equally
+ * valued best moves, the first in search order is chosen, just as AlphaBetaSearcher.bestMove
+ * chooses.  To make that possible, a move that precedes the best move found so far is searched
+ * with a bound just below that move's value, so a tie with it is detected.
+ *
+ * The workers may share a TranspositionTable.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class ParallelRootSearch {
+
+	private final GameHeuristic h;
+	private final TranspositionTable tt;
+	private final ForkJoinPool pool;
+	private final ThreadLocal<Worker> workers;
+	private final List<Worker> allWorkers = new ArrayList<Worker>();
+	private final SearchStatistics stats = new SearchStatistics();
+
+	private final AtomicReference<Best> best = new AtomicReference<Best>();
+	private int player;
+	private double bestValue;
+	private volatile AlphaBetaSearcher.Algorithm algorithm = AlphaBetaSearcher.Algorithm.ALPHA_BETA;
+	private volatile TacticalMoveFilter tactical;
+	private volatile int quiescenceDepth;
+	private volatile ProbCut probCut;
+
+	/*
+	 * The best move found so far, by its index in the search order.
+	 */
+	private static final class Best {
+		final double value;
+		final int index;
+
+		Best(double value, int index) {
+			this.value = value;
+			this.index = index;
+		}
+	}
+
+	/**
+	 * Initializes a parallel searcher.
+	 *
+	 * @param h A heuristic to estimate the game theoretic value of states at the depth limit.
+	 * 			If h is null, then the search isn't limited by depth.
+	 * @param tt A transposition table shared by the workers, or null for none.
+	 * @param pool The threads that search.
+	 */
+	public ParallelRootSearch(GameHeuristic h, TranspositionTable tt, ForkJoinPool pool) {
+		this.h = h;
+		this.tt = tt;
+		this.pool = pool;
+		workers = new ThreadLocal<Worker>() {
+			@Override
+			protected Worker initialValue() {
+				Worker w = new Worker(new AlphaBetaSearcher(ParallelRootSearch.this.h));
+				w.searcher.setTranspositionTable(ParallelRootSearch.this.tt);
+				synchronized (allWorkers) {
+					allWorkers.add(w);
+				}
+				return w;
+			}
+		};
+	}
+
+	/**
+	 * Selects a move for the player whose turn it is.
+	 *
+	 * @param s The game state, which is not modified.  Must not be terminal.
+	 * @param searchDepth The depth, in ply, to limit the search, counting the move itself.
+	 * 			Ignored if the heuristic is null.
+	 *
+	 * @return The best move, or -1 if s has no moves.
+	 */
+	public int bestMove(IncrementalGameState s, int searchDepth) {
+		final int depth = h == null ? AlphaBetaSearcher.UNLIMITED_DEPTH : searchDepth;
+		final int[] moves = new int[s.maxMoves()];
+		final int n = s.generateMoves(moves);
+		if (n == 0) return -1;
+		orderTableMoveFirst(s, moves, n);
+		startStatistics();
+		stats.node(0);
+		player = s.whoseTurn();
+		best.set(new Best(player == 0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY, -1));
+
+		// the eldest move establishes a bound for the rest
+		final IncrementalGameState root = s.copy();
+		pool.invoke(new MoveTask(root, moves[0], 0, depth));
+		if (n > 1) {
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					ArrayList<MoveTask> tasks = new ArrayList<MoveTask>(n - 1);
+					for (int i = 1; i < n; i++) {
+						tasks.add(new MoveTask(root, moves[i], i, depth));
+					}
+					invokeAll(tasks);
+				}
+			});
+		}
+		Best b = best.get();
+		bestValue = b.value;
+		stopStatistics(depth);
+		if (tt != null) {
+			tt.store(s.zobristKey(), bestValue, depth, TranspositionTable.EXACT, moves[b.index]);
+		}
+		return moves[b.index];
+	}
+
+	/**
+	 * Sets the algorithm of the sequential searches of later searches.  The default is ALPHA_BETA.
+	 *
+	 * @param algorithm The algorithm.
+	 */
+	public void setAlgorithm(AlphaBetaSearcher.Algorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Enables quiescence search in later searches (see AlphaBetaSearcher.setQuiescence), or
+	 * disables it.  Ignored if the heuristic is null.
+	 *
+	 * @param tactical The moves to search beyond the depth limit, or null to disable quiescence search.
+	 * @param maxDepth The most ply to search beyond the depth limit.
+	 */
+	public void setQuiescence(TacticalMoveFilter tactical, int maxDepth) {
+		this.tactical = maxDepth > 0 ? tactical : null;
+		quiescenceDepth = maxDepth;
+	}
+
+	/**
+	 * Sets the ProbCut models of later searches (see AlphaBetaSearcher.setProbCut).  Ignored if
+	 * the heuristic is null.
+	 *
+	 * @param probCut The models, or null to prune nothing.
+	 */
+	public void setProbCut(ProbCut probCut) {
+		this.probCut = probCut;
+	}
+
+	/**
+	 * Accesses the statistics of the most recent search, totaled over all of the threads.
+	 *
+	 * @return The statistics.
+	 */
+	public SearchStatistics getStatistics() {
+		return stats;
+	}
+
+	/**
+	 * Accesses the value of the move chosen by the most recent call to bestMove.
+	 *
+	 * @return The estimated game-theoretic value of the chosen move.
+	 */
+	public double bestValue() {
+		return bestValue;
+	}
+
+	/*
+	 * Searches one move of the root, and records it if it is the best so far.
+	 */
+	private final class MoveTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final IncrementalGameState root;
+		private final int move;
+		private final int index;
+		private final int depth;
+
+		MoveTask(IncrementalGameState root, int move, int index, int depth) {
+			this.root = root;
+			this.move = move;
+			this.index = index;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			IncrementalGameState s = root.copy();
+			s.makeMove(move);
+			Worker w = workers.get();
+			w.searcher.setAlgorithm(algorithm);
+			w.searcher.setQuiescence(tactical, quiescenceDepth);
+			w.searcher.setProbCut(probCut);
+			double bound = bound(index);
+			double v;
+			if (s.isTerminalState() || depth <= 1) {
+				v = search(w, s, player == 0 ? bound : Double.NEGATIVE_INFINITY,
+						player == 0 ? Double.POSITIVE_INFINITY : bound, depth - 1, 1);
+			} else {
+				// the children are searched one at a time, each with the bound as it is when it starts
+				w.total.node(1);
+				boolean max = s.whoseTurn() == 0;
+				int[] moves = new int[s.maxMoves()];
+				int n = s.generateMoves(moves);
+				orderTableMoveFirst(s, moves, n);
+				v = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+				int cut = 0;
+				if (h != null && probCut != null) {
+					// as in the sequential search, ProbCut may prune the state before its children
+					double alpha = player == 0 ? bound : Double.NEGATIVE_INFINITY;
+					double beta = player == 0 ? Double.POSITIVE_INFINITY : bound;
+					cut = w.searcher.probCut(s, alpha, beta, depth - 1);
+					w.total.add(w.searcher.getStatistics(), 1);
+					if (cut != 0) v = cut > 0 ? beta : alpha;
+				}
+				for (int i = 0; i < n && cut == 0; i++) {
+					bound = bound(index);
+					double alpha = player == 0 ? bound : Double.NEGATIVE_INFINITY;
+					double beta = player == 0 ? Double.POSITIVE_INFINITY : bound;
+					if (max) alpha = Math.max(alpha, v);
+					else beta = Math.min(beta, v);
+					if (alpha >= beta) break;
+					long undo = s.makeMove(moves[i]);
+					double c = search(w, s, alpha, beta, depth - 2, 2);
+					s.unmakeMove(moves[i], undo);
+					v = max ? Math.max(v, c) : Math.min(v, c);
+				}
+			}
+			// a value that fails to beat the bound it was last searched with is only a bound itself
+			if (player == 0 ? v <= bound && bound > Double.NEGATIVE_INFINITY : v >= bound && bound < Double.POSITIVE_INFINITY) return;
+			Best mine = new Best(v, index);
+			while (true) {
+				Best current = best.get();
+				boolean better = current.index < 0 || (player == 0 ?
+						v > current.value || v == current.value && index < current.index :
+						v < current.value || v == current.value && index < current.index);
+				if (!better || best.compareAndSet(current, mine)) return;
+			}
+		}
+	}
+
+	/*
+	 * The bound, for the player to move at the root, of the search of the move of the given index:
+	 * the value of the best move so far, or just beyond it if that move comes later in the search
+	 * order, so that a tie with it is detected.  The bound only tightens as the search proceeds.
+	 */
+	private double bound(int index) {
+		Best current = best.get();
+		if (current.index <= index) return current.value;
+		return player == 0 ? Math.nextDown(current.value) : Math.nextUp(current.value);
+	}
+
+	/*
+	 * Evaluates s with a worker's searcher, adding its statistics at the given ply.
+	 */
+	private static double search(Worker w, IncrementalGameState s, double alpha, double beta, int depth, int ply) {
+		double v = s.whoseTurn() == 0 ?
+				w.searcher.maxValue(s, alpha, beta, depth) :
+				w.searcher.minValue(s, alpha, beta, depth);
+		w.total.add(w.searcher.getStatistics(), ply);
+		return v;
+	}
+
+	/*
+	 * Moves the transposition table's best move of s, if any, to the front of its moves.
+	 */
+	private void orderTableMoveFirst(IncrementalGameState s, int[] moves, int n) {
+		if (tt == null) return;
+		TranspositionTable.Probe probe = new TranspositionTable.Probe();
+		if (!tt.probe(s.zobristKey(), probe)) return;
+		for (int i = 1; i < n; i++) {
+			if (moves[i] == probe.move) {
+				System.arraycopy(moves, 0, moves, 1, i);
+				moves[0] = probe.move;
+				return;
+			}
+		}
+	}
+
+	/*
+	 * A thread's searcher, and the statistics of its searches during the current parallel search.
+	 */
+	private static final class Worker {
+		final AlphaBetaSearcher searcher;
+		final SearchStatistics total = new SearchStatistics();
+
+		Worker(AlphaBetaSearcher searcher) {
+			this.searcher = searcher;
+		}
+	}
+
+	private void startStatistics() {
+		synchronized (allWorkers) {
+			for (Worker w : allWorkers) {
+				w.total.start();
+			}
+		}
+		stats.start();
+	}
+
+	private void stopStatistics(int depth) {
+		stats.stop(depth);
+		synchronized (allWorkers) {
+			for (Worker w : allWorkers) {
+				stats.add(w.total);
+			}
+		}
+	}
+}
@@ -0,0 +1,359 @@
+package gamesearch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A Reversi heuristic built from patterns: lines, diagonals and corner regions of the board,
+ * each of whose configurations (every square empty, player 0's or player 1's) has a weight of
+ * its own in a table.  The weights of the configurations on the board are added up, so the
+ * heuristic can learn, for example, that an X-square is bad only while its corner is empty,
+ * which hand-coded heuristics such as CornersHeuristic only approximate.
+ *
+ * Each pattern is read from the board in all 8 of its symmetries (rotations and reflections),
+ * which share its table.  A pattern's squares are gathered into consecutive bits of each
+ * player's mask with shifts and multiplications, and converted to a base 3 table index with a
+ * precomputed table, so evaluation is a few dozen array reads with no branches on the contents
+ * of the board.  The game is divided into stages by the number of discs, each with tables of its
+ * own.  The sum is mapped into (-1, 1), the range of the game's values, by the hyperbolic
+ * tangent, so that the heuristic estimates the expected result of the game for player 0.
+ *
+ * Weights are loaded from a binary file, as written by save(): a magic number, the number of
+ * stages, the number of patterns and each pattern's number of squares, and then the weights of
+ * each stage, as floats: a bias, followed by each pattern's table.  Without a file, the weights
+ * are derived from a classic table of the value of each square, which is playable but not tuned.
+ *
+ * Works only with BitboardReversiState.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class PatternHeuristic implements GameHeuristic {
+
+	/** The file of weights that ReversiGame loads, if it exists. */
+	public static final String DEFAULT_FILE = "reversi.weights";
+
+	/** The number of stages of the default weights. */
+	public static final int DEFAULT_STAGES = 6;
+
+	private static final int MAGIC = 0x52504154;  // "RPAT"
+
+	// the largest value, short of a win
+	private static final double MAX_VALUE = 0.999;
+
+	/*
+	 * The squares of each pattern, as read from the top left of the board, in the order of their
+	 * base 3 digits: the edge with the two X-squares, the next 3 rows, the 5 diagonals of length
+	 * at least 4, and the 3x3 and 2x5 corner regions.
+	 */
+	private static final int[][] SQUARES = {
+		{0, 1, 2, 3, 4, 5, 6, 7, 9, 14},
+		{8, 9, 10, 11, 12, 13, 14, 15},
+		{16, 17, 18, 19, 20, 21, 22, 23},
+		{24, 25, 26, 27, 28, 29, 30, 31},
+		{0, 9, 18, 27, 36, 45, 54, 63},
+		{1, 10, 19, 28, 37, 46, 55},
+		{2, 11, 20, 29, 38, 47},
+		{3, 12, 21, 30, 39},
+		{4, 13, 22, 31},
+		{0, 1, 2, 8, 9, 10, 16, 17, 18},
+		{0, 1, 2, 3, 4, 8, 9, 10, 11, 12}
+	};
+
+	/** The number of patterns. */
+	static final int PATTERNS = SQUARES.length;
+
+	// the diagonal from the top left corner, and the multiplier that gathers a diagonal's bits into the top byte
+	private static final long DIAGONAL = 0x8040201008040201L;
+	private static final long GATHER = 0x0101010101010101L;
+
+	// the base 3 number whose digits are the bits of each 10 bit number
+	private static final int[] BASE_3 = new int[1 << 10];
+	// the start of each pattern's table within a stage, and the number of weights in a stage
+	private static final int[] OFFSET = new int[PATTERNS];
+	static final int STAGE_WEIGHTS;
+	static {
+		for (int b = 1; b < BASE_3.length; b++) {
+			int low = Integer.numberOfTrailingZeros(b);
+			BASE_3[b] = BASE_3[b & (b - 1)] + pow3(low);
+		}
+		// the bias comes first
+		int offset = 1;
+		for (int p = 0; p < PATTERNS; p++) {
+			OFFSET[p] = offset;
+			offset += pow3(SQUARES[p].length);
+		}
+		STAGE_WEIGHTS = offset;
+	}
+
+	private final int stages;
+	private final float[] weights;
+
+	/**
+	 * Initializes the heuristic with the default weights.
+	 */
+	public PatternHeuristic() {
+		this(DEFAULT_STAGES);
+		int[] coverage = new int[64];
+		for (int square = 0; square < 64; square++) {
+			for (int k = 0; k < 8; k++) {
+				for (int p = 0; p < PATTERNS; p++) {
+					coverage[square] += Integer.bitCount(gather(p, symmetry(1L << square, k)));
+				}
+			}
+		}
+		float[] stage = new float[STAGE_WEIGHTS];
+		for (int p = 0; p < PATTERNS; p++) {
+			int[] squares = SQUARES[p];
+			for (int index = 0; index < pow3(squares.length); index++) {
+				float w = 0;
+				for (int i = 0, digits = index; i < squares.length; i++, digits /= 3) {
+					// each square's value is shared by the pattern instances that read it
+					float v = SQUARE_VALUES[squares[i]] / (float)coverage[squares[i]];
+					if (digits % 3 == 1) w += v;
+					else if (digits % 3 == 2) w -= v;
+				}
+				stage[OFFSET[p] + index] = w;
+			}
+		}
+		for (int s = 0; s < stages; s++) {
+			System.arraycopy(stage, 0, weights, s * STAGE_WEIGHTS, STAGE_WEIGHTS);
+		}
+	}
+
+	/**
+	 * Initializes the heuristic with every weight 0, for tuning.
+	 *
+	 * @param stages The number of stages.
+	 */
+	PatternHeuristic(int stages) {
+		this.stages = stages;
+		weights = new float[stages * STAGE_WEIGHTS];
+	}
+
+	// a classic table of the value of each square, in units of the tangent's argument
+	private static final float[] SQUARE_VALUES = new float[64];
+	static {
+		int[] quadrant = {
+			100, -20, 10, 5,
+			-20, -50, -2, -2,
+			10, -2, -1, -1,
+			5, -2, -1, -1
+		};
+		for (int r = 0; r < 8; r++) {
+			for (int c = 0; c < 8; c++) {
+				SQUARE_VALUES[r * 8 + c] = quadrant[4 * Math.min(r, 7 - r) + Math.min(c, 7 - c)] / 200f;
+			}
+		}
+	}
+
+	/**
+	 * Loads weights from a file.
+	 *
+	 * @param file The file, as written by save().
+	 *
+	 * @return The heuristic.
+	 *
+	 * @throws IOException If the file cannot be read, or is not a weight file of these patterns.
+	 */
+	public static PatternHeuristic load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer b = ByteBuffer.allocate((int)Math.min(channel.size(), Integer.MAX_VALUE));
+			while (b.hasRemaining() && channel.read(b) >= 0) {
+				// read until full
+			}
+			b.flip();
+			if (b.remaining() < 12 || b.getInt() != MAGIC) throw new IOException("Not a pattern weight file");
+			int stages = b.getInt();
+			if (b.getInt() != PATTERNS) throw new IOException("The weight file has other patterns");
+			if (b.remaining() < 4 * PATTERNS) throw new IOException("Pattern weight file is truncated");
+			for (int p = 0; p < PATTERNS; p++) {
+				if (b.getInt() != SQUARES[p].length) throw new IOException("The weight file has other patterns");
+			}
+			if (stages <= 0 || b.remaining() != 4L * stages * STAGE_WEIGHTS) throw new IOException("Pattern weight file is truncated");
+			PatternHeuristic h = new PatternHeuristic(stages);
+			b.asFloatBuffer().get(h.weights);
+			return h;
+		}
+	}
+
+	/**
+	 * Writes the weights to a file.
+	 *
+	 * @param file The file, which is replaced if it exists.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(Path file) throws IOException {
+		ByteBuffer b = ByteBuffer.allocate(12 + 4 * PATTERNS + 4 * weights.length);
+		b.putInt(MAGIC).putInt(stages).putInt(PATTERNS);
+		for (int p = 0; p < PATTERNS; p++) {
+			b.putInt(SQUARES[p].length);
+		}
+		b.asFloatBuffer().put(weights);
+		b.position(b.capacity());
+		b.flip();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			while (b.hasRemaining()) {
+				channel.write(b);
+			}
+		}
+	}
+
+	@Override
+	public double h(GameState s) {
+		BitboardReversiState r = (BitboardReversiState)s;
+		double v = Math.tanh(sum(r.discs0(), r.discs1()));
+		return Math.max(-MAX_VALUE, Math.min(MAX_VALUE, v));
+	}
+
+	/**
+	 * Adds up the weights of a position, before the mapping into (-1, 1).
+	 *
+	 * @param discs0 Player 0's pieces.
+	 * @param discs1 Player 1's pieces.
+	 *
+	 * @return The sum.
+	 */
+	double sum(long discs0, long discs1) {
+		int base = stage(discs0, discs1) * STAGE_WEIGHTS;
+		long t0 = transpose(discs0);
+		long t1 = transpose(discs1);
+		long f0 = Long.reverseBytes(discs0);
+		long f1 = Long.reverseBytes(discs1);
+		long ft0 = Long.reverseBytes(t0);
+		long ft1 = Long.reverseBytes(t1);
+		return weights[base] + patterns(base, discs0, discs1) + patterns(base, t0, t1)
+				+ patterns(base, f0, f1) + patterns(base, ft0, ft1)
+				+ patterns(base, mirror(discs0), mirror(discs1)) + patterns(base, mirror(t0), mirror(t1))
+				+ patterns(base, mirror(f0), mirror(f1)) + patterns(base, mirror(ft0), mirror(ft1));
+	}
+
+	/*
+	 * The sum of the weights of the patterns of one symmetric image of a position.
+	 */
+	private float patterns(int base, long a, long b) {
+		float sum = 0;
+		for (int p = 0; p < PATTERNS; p++) {
+			sum += weights[base + OFFSET[p] + BASE_3[gather(p, a)] + 2 * BASE_3[gather(p, b)]];
+		}
+		return sum;
+	}
+
+	/**
+	 * Finds the weights of a position: the bias of its stage, and the weight of each pattern
+	 * in each symmetry, by their indexes in weights().  The sum is the sum of those weights.
+	 *
+	 * @param discs0 Player 0's pieces.
+	 * @param discs1 Player 1's pieces.
+	 * @param indexes An array of length at least features(), for the indexes.
+	 */
+	void features(long discs0, long discs1, int[] indexes) {
+		int base = stage(discs0, discs1) * STAGE_WEIGHTS;
+		indexes[0] = base;
+		int n = 1;
+		for (int k = 0; k < 8; k++) {
+			long a = symmetry(discs0, k);
+			long b = symmetry(discs1, k);
+			for (int p = 0; p < PATTERNS; p++) {
+				indexes[n++] = base + OFFSET[p] + BASE_3[gather(p, a)] + 2 * BASE_3[gather(p, b)];
+			}
+		}
+	}
+
+	/**
+	 * The number of weights that make up the value of a position.
+	 *
+	 * @return The length of the array filled in by features.
+	 */
+	static int features() {
+		return 1 + 8 * PATTERNS;
+	}
+
+	/**
+	 * Accesses the weights, stage after stage, for tuning.
+	 *
+	 * @return The weights, which are not copied.
+	 */
+	float[] weights() {
+		return weights;
+	}
+
+	/**
+	 * Accesses the number of stages.
+	 *
+	 * @return The number of stages the game is divided into.
+	 */
+	int stages() {
+		return stages;
+	}
+
+	private int stage(long discs0, long discs1) {
+		return Math.min(stages - 1, (Long.bitCount(discs0 | discs1) - 4) * stages / 61);
+	}
+
+	/*
+	 * One of the 8 symmetric images of a mask: bit 0 of k transposes it, bit 1 flips the rows,
+	 * and bit 2 mirrors the columns.
+	 */
+	private static long symmetry(long x, int k) {
+		if ((k & 1) != 0) x = transpose(x);
+		if ((k & 2) != 0) x = Long.reverseBytes(x);
+		if ((k & 4) != 0) x = mirror(x);
+		return x;
+	}
+
+	/*
+	 * Swaps rows and columns.
+	 */
+	private static long transpose(long x) {
+		long t = 0x0F0F0F0F00000000L & (x ^ (x << 28));
+		x ^= t ^ (t >>> 28);
+		t = 0x3333000033330000L & (x ^ (x << 14));
+		x ^= t ^ (t >>> 14);
+		t = 0x5500550055005500L & (x ^ (x << 7));
+		x ^= t ^ (t >>> 7);
+		return x;
+	}
+
+	/*
+	 * Reverses the order of the columns.
+	 */
+	private static long mirror(long x) {
+		x = (x >>> 1) & 0x5555555555555555L | (x & 0x5555555555555555L) << 1;
+		x = (x >>> 2) & 0x3333333333333333L | (x & 0x3333333333333333L) << 2;
+		x = (x >>> 4) & 0x0F0F0F0F0F0F0F0FL | (x & 0x0F0F0F0F0F0F0F0FL) << 4;
+		return x;
+	}
+
+	/*
+	 * Gathers the squares of a pattern, in the order of SQUARES, into the low bits.
+	 */
+	private static int gather(int pattern, long x) {
+		switch (pattern) {
+			case 0: return (int)(x & 0xFF | x >>> 1 & 0x100 | x >>> 5 & 0x200);
+			case 1: return (int)(x >>> 8 & 0xFF);
+			case 2: return (int)(x >>> 16 & 0xFF);
+			case 3: return (int)(x >>> 24 & 0xFF);
+			case 4: return (int)((x & DIAGONAL) * GATHER >>> 56);
+			case 5: return (int)((x >>> 1 & DIAGONAL >>> 9) * GATHER >>> 56);
+			case 6: return (int)((x >>> 2 & DIAGONAL >>> 18) * GATHER >>> 56);
+			case 7: return (int)((x >>> 3 & DIAGONAL >>> 27) * GATHER >>> 56);
+			case 8: return (int)((x >>> 4 & DIAGONAL >>> 36) * GATHER >>> 56);
+			case 9: return (int)(x & 7 | x >>> 5 & 0x38 | x >>> 10 & 0x1C0);
+			default: return (int)(x & 0x1F | x >>> 3 & 0x3E0);
+		}
+	}
+
+	private static int pow3(int n) {
+		int p = 1;
+		for (int i = 0; i < n; i++) {
+			p *= 3;
+		}
+		return p;
+	}
+}
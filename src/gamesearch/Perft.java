@@ -0,0 +1,168 @@
+package gamesearch;
+
+import java.util.ArrayList;
+
+/**
+ * Perft: counts the leaves of a game tree to a fixed depth, for checking move generation (two
+ * implementations of a game must agree on every count) and for timing it.  A state at the depth
+ * limit is a leaf, and so is a terminal state above it.
+ *
+ * Reversi's pass rule makes counting ply ambiguous.  By default a ply is a state transition as
+ * given by getSuccessors, so a move after which the opponent must pass is a single ply.
+ * Conventional Othello perft counts instead treat the forced pass as a ply of its own, in which
+ * the opponent's only move is to pass; perft does the same if passes are counted as ply.
+ *
+ * In divide mode, the count is also broken down by the first move, which narrows a disagreement
+ * between two implementations down to a single line of play.  Each move is printed as the row
+ * and column of its square, and for Reversi also in Othello's notation, such as d3.
+ *
+ * Run from the command line as:
+ * java gamesearch.Perft game depth [divide] [passes]
+ * where game is reversi, reversi-array (the ReversiState implementation), or tictactoe.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class Perft {
+
+	private Perft() {}
+
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.out.println("Usage: java gamesearch.Perft reversi|reversi-array|tictactoe depth [divide] [passes]");
+			return;
+		}
+		GameState s = startState(args[0]);
+		int depth = Integer.parseInt(args[1]);
+		boolean divide = false;
+		boolean passAsPly = false;
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].equals("divide")) divide = true;
+			else if (args[i].equals("passes")) passAsPly = true;
+			else throw new IllegalArgumentException("Unknown option " + args[i]);
+		}
+		long start = System.nanoTime();
+		long leaves;
+		if (divide) {
+			leaves = 0;
+			long[] counts = divide(s, depth, passAsPly);
+			ArrayList<GameState> successors = s.getSuccessors();
+			for (int i = 0; i < counts.length; i++) {
+				System.out.println(move(args[0], s, successors.get(i)) + ": " + counts[i]);
+				leaves += counts[i];
+			}
+		} else {
+			leaves = perft(s, depth, passAsPly);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("perft(%d) = %d in %.3f s (%.0f leaves/s)%n", depth, leaves, seconds, leaves / seconds);
+	}
+
+	/**
+	 * Creates the start state of a game by name.
+	 *
+	 * @param game reversi, reversi-array, or tictactoe.
+	 *
+	 * @return The start state of the game.
+	 */
+	static GameState startState(String game) {
+		if (game.equals("reversi")) return new BitboardReversiState();
+		if (game.equals("reversi-array")) return ReversiGame.arrayState();
+		if (game.equals("tictactoe")) return TicTacToeGame.startState();
+		throw new IllegalArgumentException("Unknown game " + game);
+	}
+
+	/*
+	 * The move from s to one of its successors, as the row and column of the square where the
+	 * piece was placed, as a human enters it, followed for Reversi by the square in Othello's
+	 * notation, the column's letter and the row's number.
+	 */
+	private static String move(String game, GameState s, GameState successor) {
+		int square = Long.numberOfTrailingZeros(occupied(game, successor) & ~occupied(game, s));
+		if (game.equals("tictactoe")) return square / 3 + " " + square % 3;
+		return square / 8 + " " + square % 8 + " (" + (char)('a' + square % 8) + (square / 8 + 1) + ")";
+	}
+
+	/*
+	 * The mask of the occupied squares of a state of a game, with bit row*8+col of each square
+	 * for Reversi and bit row*3+col for TicTacToe.
+	 */
+	private static long occupied(String game, GameState s) {
+		if (game.equals("reversi")) {
+			BitboardReversiState r = (BitboardReversiState)s;
+			return r.discs0() | r.discs1();
+		}
+		if (game.equals("reversi-array")) return ReversiGame.discs(s, 0) | ReversiGame.discs(s, 1);
+		return TicTacToeGame.squares(s, 0) | TicTacToeGame.squares(s, 1);
+	}
+
+	/**
+	 * Counts the leaves of the game tree.
+	 *
+	 * @param s The root of the tree, which is restored before returning.
+	 * @param depth The depth of the tree, in ply.
+	 * @param passAsPly If true, a forced pass counts as a ply.
+	 *
+	 * @return The number of leaves.
+	 */
+	public static long perft(GameState s, int depth, boolean passAsPly) {
+		if (s instanceof IncrementalGameState) {
+			IncrementalGameState is = (IncrementalGameState)s;
+			return perft(is, depth, passAsPly, new int[Math.max(depth, 1)][is.maxMoves()]);
+		}
+		if (depth == 0 || s.isTerminalState()) return 1;
+		long leaves = 0;
+		for (GameState successor : s.getSuccessors()) {
+			leaves += afterMove(successor, s.whoseTurn(), depth - 1, passAsPly);
+		}
+		return leaves;
+	}
+
+	/**
+	 * Counts the leaves of the game tree below each successor of its root.
+	 *
+	 * @param s The root of the tree, which is restored before returning.
+	 * @param depth The depth of the tree, in ply.
+	 * @param passAsPly If true, a forced pass counts as a ply.
+	 *
+	 * @return The number of leaves below each successor, in the order of getSuccessors().
+	 */
+	public static long[] divide(GameState s, int depth, boolean passAsPly) {
+		if (depth == 0 || s.isTerminalState()) return new long[0];
+		ArrayList<GameState> successors = s.getSuccessors();
+		long[] counts = new long[successors.size()];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = afterMove(successors.get(i), s.whoseTurn(), depth - 1, passAsPly);
+		}
+		return counts;
+	}
+
+	/*
+	 * Counts the leaves below a successor, charging a ply for the opponent's pass if the player
+	 * who moved moves again.
+	 */
+	private static long afterMove(GameState successor, int mover, int depth, boolean passAsPly) {
+		if (passAsPly && depth > 0 && successor.whoseTurn() == mover && !successor.isTerminalState()) {
+			return perft(successor, depth - 1, true);
+		}
+		return perft(successor, depth, passAsPly);
+	}
+
+	private static long perft(IncrementalGameState s, int depth, boolean passAsPly, int[][] moves) {
+		if (depth == 0 || s.isTerminalState()) return 1;
+		int[] m = moves[depth - 1];
+		int n = s.generateMoves(m);
+		int mover = s.whoseTurn();
+		long leaves = 0;
+		for (int i = 0; i < n; i++) {
+			long undo = s.makeMove(m[i]);
+			if (passAsPly && depth > 1 && s.whoseTurn() == mover && !s.isTerminalState()) {
+				leaves += perft(s, depth - 2, true, moves);
+			} else {
+				leaves += perft(s, depth - 1, passAsPly, moves);
+			}
+			s.unmakeMove(m[i], undo);
+		}
+		return leaves;
+	}
+}
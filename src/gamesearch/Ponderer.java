@@ -0,0 +1,205 @@
+package gamesearch;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Pondering: searching on the opponent's time.  While the human thinks about a move, a
+ * background thread searches the position after the reply that the AI's own search predicted,
+ * which is the best move recorded in the transposition table for the human's position.  If the
+ * human plays the predicted reply (a ponder hit), that search simply continues, and its result
+ * is the AI's move, so the time the human spent thinking is time the AI has already searched.
+ * Otherwise (a ponder miss) the search is abandoned, but the transposition table entries it
+ * stored remain to speed up the AI's real search.
+ *
+ * When the table predicts no reply, the human's position itself is searched, which fills the
+ * table for all of the replies, and every move is a miss.
+ *
+ * The pondering search shares the AI's transposition table, which is safe for concurrent use,
+ * but has a searcher and move orderer of its own.  A ponderer is used by one thread, whose
+ * calls start and stop the background search.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class Ponderer {
+
+	private final TranspositionTable tt;
+	private final AlphaBetaSearcher searcher;
+	private final TranspositionTable.Probe probe = new TranspositionTable.Probe();
+
+	private Thread thread;
+	// the key of the position being pondered, with the AI to move, or 0 if the reply was not predicted
+	private long ponderKey;
+	private volatile boolean cancelled;
+	// System.nanoTime() at which a timed search that was hit stops, or 0 for not yet
+	private volatile long stopAt;
+	private long startNanos;
+	private int move;
+	private boolean hit;
+
+	/**
+	 * Initializes a ponderer.
+	 *
+	 * @param h The AI's heuristic, or null if the AI doesn't limit its search by depth.
+	 * @param tt The AI's transposition table, which must not be null since it is both the
+	 * 			source of predictions and where a missed search leaves its work.
+	 * @param algorithm The AI's search algorithm.
+	 */
+	public Ponderer(GameHeuristic h, TranspositionTable tt, AlphaBetaSearcher.Algorithm algorithm) {
+		this.tt = tt;
+		searcher = new AlphaBetaSearcher(h);
+		searcher.setTranspositionTable(tt);
+		searcher.setMoveOrderer(new KillerHistoryMoveOrderer(h, GameLoop.PRESORT_DEPTH));
+		searcher.setAlgorithm(algorithm);
+		searcher.setAbortSignal(new BooleanSupplier() {
+			@Override
+			public boolean getAsBoolean() {
+				return cancelled || stopAt != 0 && System.nanoTime() >= stopAt;
+			}
+		});
+	}
+
+	/**
+	 * Sets the ProbCut models of the pondering search, which should be those of the AI's search.
+	 *
+	 * @param probCut The models, or null to prune nothing.
+	 */
+	public void setProbCut(ProbCut probCut) {
+		searcher.setProbCut(probCut);
+	}
+
+	/**
+	 * Sets the quiescence search of the pondering search, which should be that of the AI's search.
+	 *
+	 * @param tactical The moves to search beyond the depth limit, or null for none.
+	 * @param maxDepth The most ply to search beyond the depth limit.
+	 */
+	public void setQuiescence(TacticalMoveFilter tactical, int maxDepth) {
+		searcher.setQuiescence(tactical, maxDepth);
+	}
+
+	/**
+	 * Starts pondering, after cancelling any pondering that is still running.
+	 *
+	 * @param s The position, with the human to move, which is not modified.
+	 * @param ply The depth limit of the AI's search, used for a predicted reply when millis is 0.
+	 * @param millis The AI's time limit per move, or 0 if the AI searches to a fixed depth.
+	 */
+	public void start(IncrementalGameState s, final int ply, final long millis) {
+		cancel();
+		if (s.isTerminalState()) return;
+		final IncrementalGameState p = s.copy();
+		ponderKey = 0;
+		int predicted = predictedReply(p);
+		if (predicted >= 0) {
+			p.makeMove(predicted);
+			if (p.isTerminalState()) return;
+			ponderKey = p.zobristKey();
+		}
+		final boolean fixedDepth = ponderKey != 0 && millis <= 0;
+		cancelled = false;
+		stopAt = 0;
+		move = -1;
+		hit = false;
+		startNanos = System.nanoTime();
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				// without a deadline, iterative deepening goes on until it is stopped
+				int m = fixedDepth ? searcher.bestMove(p, ply) : searcher.timedBestMove(p, 0, Integer.MAX_VALUE);
+				if (!fixedDepth || !searcher.wasAborted()) move = m;
+			}
+		}, "ponder");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Finishes pondering once the human has moved.  On a hit, waits for the pondering search: to
+	 * finish, if the AI searches to a fixed depth, or else until the time limit has passed since
+	 * pondering started, so the time the human took counts towards the AI's time.  On a miss,
+	 * cancels it.
+	 *
+	 * @param s The position after the human's move, with the AI to move.
+	 * @param millis The AI's time limit per move, or 0 if the AI searches to a fixed depth.
+	 *
+	 * @return The AI's move, or -1 if the pondering missed (or found no move), in which case the
+	 * 			AI must search.
+	 */
+	public int finish(IncrementalGameState s, long millis) {
+		if (thread == null) return -1;
+		if (ponderKey == 0 || s.zobristKey() != ponderKey) {
+			cancel();
+			return -1;
+		}
+		hit = true;
+		if (millis > 0) stopAt = Math.max(startNanos + millis * 1000000L, System.nanoTime());
+		join();
+		return move;
+	}
+
+	/**
+	 * Abandons pondering, if it is running, and waits for the background search to stop.
+	 */
+	public void cancel() {
+		if (thread == null) return;
+		hit = false;
+		cancelled = true;
+		join();
+	}
+
+	/**
+	 * Checks whether the most recent call to finish was a ponder hit.
+	 *
+	 * @return true if the human played the predicted reply.
+	 */
+	public boolean wasHit() {
+		return hit;
+	}
+
+	/**
+	 * Accesses the depth of the deepest completed iteration of a timed pondering search.
+	 *
+	 * @return The depth, in ply.
+	 */
+	public int completedDepth() {
+		return searcher.completedDepth();
+	}
+
+	/**
+	 * Accesses the statistics of the most recent pondering search, which include the time spent
+	 * while the human was thinking.
+	 *
+	 * @return The statistics.
+	 */
+	public SearchStatistics getStatistics() {
+		return searcher.getStatistics();
+	}
+
+	/*
+	 * The best move recorded in the table for s, if it is legal, or -1.
+	 */
+	private int predictedReply(IncrementalGameState s) {
+		if (!tt.probe(s.zobristKey(), probe) || probe.move < 0) return -1;
+		int[] moves = new int[s.maxMoves()];
+		int n = s.generateMoves(moves);
+		for (int i = 0; i < n; i++) {
+			if (moves[i] == probe.move) return probe.move;
+		}
+		return -1;
+	}
+
+	private void join() {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				thread.join();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		thread = null;
+		if (interrupted) Thread.currentThread().interrupt();
+	}
+}
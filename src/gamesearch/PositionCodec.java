@@ -0,0 +1,168 @@
+package gamesearch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encodings of game positions, each a fixed number of bytes, for storing and
+ * streaming positions (see PositionFile) without formatting and parsing text.
+ *
+ * A Reversi position is 17 bytes: the masks of player 0's and player 1's pieces as big-endian
+ * longs, with bit row*8+col for each square, and then the player to move.  Both implementations
+ * of Reversi use the same encoding, so a position written from one may be read as the other.
+ * A position that play cannot reach, in which the player to move has to pass, is refused, since
+ * the states take a player to move who has no move to mean that the game is over.
+ * A TicTacToe position is 3 bytes: a big-endian 24-bit number holding the mask of X's squares
+ * in bits 0-8, with bit row*3+col for each square, the mask of O's squares in bits 9-17, and
+ * the player to move in bit 18.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public enum PositionCodec {
+
+	/** BitboardReversiState. */
+	REVERSI(1, 17) {
+		@Override
+		public void encode(GameState s, ByteBuffer out) {
+			BitboardReversiState r = (BitboardReversiState)s;
+			encodeReversi(r.discs0(), r.discs1(), r.whoseTurn(), out);
+		}
+
+		@Override
+		public GameState decode(ByteBuffer in) {
+			long discs0 = in.getLong();
+			long discs1 = in.getLong();
+			return new BitboardReversiState(discs0, discs1, reversiPlayer(discs0, discs1, in.get()));
+		}
+	},
+
+	/** ReversiState, in the same encoding as REVERSI. */
+	REVERSI_ARRAY(1, 17) {
+		@Override
+		public void encode(GameState s, ByteBuffer out) {
+			encodeReversi(ReversiGame.discs(s, 0), ReversiGame.discs(s, 1), s.whoseTurn(), out);
+		}
+
+		@Override
+		public GameState decode(ByteBuffer in) {
+			long discs0 = in.getLong();
+			long discs1 = in.getLong();
+			return ReversiGame.arrayState(discs0, discs1, reversiPlayer(discs0, discs1, in.get()));
+		}
+	},
+
+	/** TicTacToeState. */
+	TICTACTOE(2, 3) {
+		@Override
+		public void encode(GameState s, ByteBuffer out) {
+			int bits = TicTacToeGame.squares(s, 0) | TicTacToeGame.squares(s, 1) << 9 | s.whoseTurn() << 18;
+			out.put((byte)(bits >>> 16)).putShort((short)bits);
+		}
+
+		@Override
+		public GameState decode(ByteBuffer in) {
+			int bits = (in.get() & 0xFF) << 16 | in.getShort() & 0xFFFF;
+			int x = bits & 0777;
+			int o = bits >>> 9 & 0777;
+			if ((x & o) != 0 || bits >>> 19 != 0) throw new IllegalArgumentException("Corrupt TicTacToe position");
+			return TicTacToeGame.state(x, o, bits >>> 18);
+		}
+	};
+
+	private final int format;
+	private final int bytes;
+
+	private PositionCodec(int format, int bytes) {
+		this.format = format;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Writes a position at the buffer's position, advancing it.
+	 *
+	 * @param s The position, of the codec's class.
+	 * @param out The buffer, with at least recordBytes() remaining.
+	 */
+	public abstract void encode(GameState s, ByteBuffer out);
+
+	/**
+	 * Reads a position at the buffer's position, advancing it.
+	 *
+	 * @param in The buffer, with at least recordBytes() remaining.
+	 *
+	 * @return The position, of the codec's class.
+	 *
+	 * @throws IllegalArgumentException If the bytes are not a valid position.
+	 */
+	public abstract GameState decode(ByteBuffer in);
+
+	/**
+	 * Accesses the size of an encoded position.
+	 *
+	 * @return The number of bytes.
+	 */
+	public int recordBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Accesses the number that identifies the encoding in a file.  Codecs of different
+	 * implementations of the same game have the same format.
+	 *
+	 * @return The format number.
+	 */
+	public int format() {
+		return format;
+	}
+
+	/**
+	 * Finds the codec of a game by the name that Perft uses for it.
+	 *
+	 * @param game reversi, reversi-array, or tictactoe.
+	 *
+	 * @return The codec.
+	 *
+	 * @throws IllegalArgumentException If the game is not recognized.
+	 */
+	public static PositionCodec forGame(String game) {
+		if (game.equals("reversi")) return REVERSI;
+		if (game.equals("reversi-array")) return REVERSI_ARRAY;
+		if (game.equals("tictactoe")) return TICTACTOE;
+		throw new IllegalArgumentException("Unknown game " + game);
+	}
+
+	/**
+	 * Finds the default codec of a format.
+	 *
+	 * @param format The format number.
+	 *
+	 * @return The first codec with that format.
+	 *
+	 * @throws IllegalArgumentException If there is no such format.
+	 */
+	public static PositionCodec forFormat(int format) {
+		for (PositionCodec c : values()) {
+			if (c.format == format) return c;
+		}
+		throw new IllegalArgumentException("Unknown position format " + format);
+	}
+
+	private static void encodeReversi(long discs0, long discs1, int player, ByteBuffer out) {
+		out.putLong(discs0).putLong(discs1).put((byte)player);
+	}
+
+	/*
+	 * The player to move of a Reversi position, checking that the position is one that play can
+	 * reach: the players' pieces don't overlap, and the player to move has a move unless neither
+	 * player has one, since play passes the turn only to a player who can move.
+	 */
+	private static int reversiPlayer(long discs0, long discs1, byte player) {
+		if ((discs0 & discs1) != 0 || (player & ~1) != 0) throw new IllegalArgumentException("Corrupt Reversi position");
+		long own = player == 0 ? discs0 : discs1;
+		long opp = player == 0 ? discs1 : discs0;
+		if (BitboardReversiState.legalMoves(own, opp) == 0 && BitboardReversiState.legalMoves(opp, own) != 0) {
+			throw new IllegalArgumentException("Reversi position where the player to move must pass");
+		}
+		return player;
+	}
+}
@@ -0,0 +1,442 @@
+package gamesearch;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+/**
+ * A file format for large sets of positions, such as test suites, benchmark positions and
+ * training data, which are written and read as streams over NIO channels, so a file of millions
+ * of positions is never held in memory.
+ *
+ * A file is a 12 byte header (a magic number, the format version, the PositionCodec format of the
+ * positions, and the size of each encoded position), followed by chunks of positions.  Each chunk
+ * is its number of positions and the CRC-32 of its positions, followed by the positions, so a
+ * file can be written without knowing in advance how many positions it will hold, and damage is
+ * detected when it is read.  All numbers are big-endian.  A file may be labeled, in which case
+ * each position is followed by a float, such as its value for training a heuristic (see
+ * HeuristicTuner), and the size in the header is the size of a position and its label.
+ *
+ * To generate a file of random positions, or to check and count the positions of a file, run
+ * from the command line as:
+ * java gamesearch.PositionFile generate game file count plies [seed]
+ * java gamesearch.PositionFile check file [game]
+ * where game is reversi, reversi-array, or tictactoe, and each generated position is reached
+ * from the start position by up to plies random moves.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public final class PositionFile {
+
+	/** The number of positions in each full chunk that a Writer writes. */
+	public static final int DEFAULT_CHUNK_POSITIONS = 4096;
+
+	private static final int MAGIC = 0x52504F53;  // "RPOS"
+	private static final short VERSION = 1;
+	private static final int HEADER_BYTES = 12;
+	private static final int CHUNK_HEADER_BYTES = 8;
+	private static final int LABEL_BYTES = 4;
+
+	private PositionFile() {}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length >= 5 && args[0].equals("generate")) {
+			PositionCodec codec = PositionCodec.forGame(args[1]);
+			long count = Long.parseLong(args[3]);
+			int plies = Integer.parseInt(args[4]);
+			SplittableRandom random = new SplittableRandom(args.length > 5 ? Long.parseLong(args[5]) : 1);
+			long start = System.nanoTime();
+			try (Writer w = Writer.open(Paths.get(args[2]), codec)) {
+				for (long i = 0; i < count; i++) {
+					w.write(randomPosition(args[1], random.nextInt(plies + 1), random));
+				}
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("Wrote %d positions in %.3f s (%.0f positions/s)%n", count, seconds, count / seconds);
+		} else if (args.length >= 2 && args[0].equals("check")) {
+			long start = System.nanoTime();
+			long count = 0;
+			long terminal = 0;
+			try (Reader r = args.length > 2 ? Reader.open(Paths.get(args[1]), PositionCodec.forGame(args[2])) : Reader.open(Paths.get(args[1]))) {
+				for (GameState s = r.read(); s != null; s = r.read()) {
+					count++;
+					if (s.isTerminalState()) terminal++;
+				}
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("Read %d positions (%d terminal) in %.3f s (%.0f positions/s)%n", count, terminal, seconds, count / seconds);
+		} else {
+			System.out.println("Usage: java gamesearch.PositionFile generate reversi|reversi-array|tictactoe file count plies [seed]");
+			System.out.println("   or: java gamesearch.PositionFile check file [reversi|reversi-array|tictactoe]");
+		}
+	}
+
+	/*
+	 * Plays random moves from the start position, stopping early at the end of the game.
+	 */
+	private static GameState randomPosition(String game, int plies, SplittableRandom random) {
+		GameState s = Perft.startState(game);
+		int[] moves = s instanceof IncrementalGameState ? new int[((IncrementalGameState)s).maxMoves()] : null;
+		for (int i = 0; i < plies && !s.isTerminalState(); i++) {
+			if (s instanceof IncrementalGameState) {
+				IncrementalGameState is = (IncrementalGameState)s;
+				is.makeMove(moves[random.nextInt(is.generateMoves(moves))]);
+			} else {
+				ArrayList<GameState> successors = s.getSuccessors();
+				s = successors.get(random.nextInt(successors.size()));
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Writes a position file, one chunk at a time.  A writer is not thread safe.
+	 */
+	public static final class Writer implements Closeable {
+		private final WritableByteChannel channel;
+		private final PositionCodec codec;
+		private final ByteBuffer chunk;
+		private final CRC32 crc = new CRC32();
+		private final int chunkPositions;
+		private final boolean labeled;
+		private int positions;
+		private long count;
+
+		/**
+		 * Initializes a writer, writing the file header.
+		 *
+		 * @param channel Where to write, which the writer closes when it is closed.
+		 * @param codec The encoding of the positions.
+		 * @param chunkPositions The number of positions in each full chunk.
+		 *
+		 * @throws IOException If the header cannot be written.
+		 */
+		public Writer(WritableByteChannel channel, PositionCodec codec, int chunkPositions) throws IOException {
+			this(channel, codec, chunkPositions, false);
+		}
+
+		/**
+		 * Initializes a writer, writing the file header.
+		 *
+		 * @param channel Where to write, which the writer closes when it is closed.
+		 * @param codec The encoding of the positions.
+		 * @param chunkPositions The number of positions in each full chunk.
+		 * @param labeled Whether each position has a label, which must then be written with it.
+		 *
+		 * @throws IOException If the header cannot be written.
+		 */
+		public Writer(WritableByteChannel channel, PositionCodec codec, int chunkPositions, boolean labeled) throws IOException {
+			this.channel = channel;
+			this.codec = codec;
+			this.chunkPositions = Math.max(1, chunkPositions);
+			this.labeled = labeled;
+			int recordBytes = codec.recordBytes() + (labeled ? LABEL_BYTES : 0);
+			chunk = ByteBuffer.allocateDirect(CHUNK_HEADER_BYTES + this.chunkPositions * recordBytes);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(MAGIC).putShort(VERSION).putShort((short)codec.format()).putInt(recordBytes);
+			header.flip();
+			writeFully(header);
+			chunk.position(CHUNK_HEADER_BYTES);
+		}
+
+		/**
+		 * Creates a file, replacing any file of the same name.
+		 *
+		 * @param file The file.
+		 * @param codec The encoding of the positions.
+		 *
+		 * @return A writer with chunks of DEFAULT_CHUNK_POSITIONS positions.
+		 *
+		 * @throws IOException If the file cannot be created.
+		 */
+		public static Writer open(Path file, PositionCodec codec) throws IOException {
+			return open(file, codec, false);
+		}
+
+		/**
+		 * Creates a file, replacing any file of the same name.
+		 *
+		 * @param file The file.
+		 * @param codec The encoding of the positions.
+		 * @param labeled Whether each position has a label.
+		 *
+		 * @return A writer with chunks of DEFAULT_CHUNK_POSITIONS positions.
+		 *
+		 * @throws IOException If the file cannot be created.
+		 */
+		public static Writer open(Path file, PositionCodec codec, boolean labeled) throws IOException {
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			try {
+				return new Writer(channel, codec, DEFAULT_CHUNK_POSITIONS, labeled);
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		/**
+		 * Adds a position, writing a chunk if it is full.
+		 *
+		 * @param s The position, of the codec's class.
+		 *
+		 * @throws IOException If the chunk cannot be written.
+		 */
+		public void write(GameState s) throws IOException {
+			if (labeled) throw new IllegalStateException("The positions of a labeled file need labels");
+			codec.encode(s, chunk);
+			count++;
+			if (++positions == chunkPositions) flush();
+		}
+
+		/**
+		 * Adds a position and its label, writing a chunk if it is full.
+		 *
+		 * @param s The position, of the codec's class.
+		 * @param label The label.
+		 *
+		 * @throws IOException If the chunk cannot be written.
+		 */
+		public void write(GameState s, float label) throws IOException {
+			if (!labeled) throw new IllegalStateException("The file is not labeled");
+			codec.encode(s, chunk);
+			chunk.putFloat(label);
+			count++;
+			if (++positions == chunkPositions) flush();
+		}
+
+		/**
+		 * Accesses the number of positions written.
+		 *
+		 * @return The number of positions.
+		 */
+		public long count() {
+			return count;
+		}
+
+		/*
+		 * Writes the positions added since the last chunk as a chunk.
+		 */
+		private void flush() throws IOException {
+			if (positions == 0) return;
+			chunk.flip();
+			chunk.position(CHUNK_HEADER_BYTES);
+			crc.reset();
+			crc.update(chunk);
+			chunk.putInt(0, positions).putInt(4, (int)crc.getValue());
+			chunk.position(0);
+			writeFully(chunk);
+			chunk.clear();
+			chunk.position(CHUNK_HEADER_BYTES);
+			positions = 0;
+		}
+
+		private void writeFully(ByteBuffer b) throws IOException {
+			while (b.hasRemaining()) {
+				channel.write(b);
+			}
+		}
+
+		/**
+		 * Writes the last chunk, and closes the channel.
+		 *
+		 * @throws IOException If the chunk cannot be written.
+		 */
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads a position file, one chunk at a time.  A reader is not thread safe.
+	 */
+	public static final class Reader implements Closeable {
+		private final ReadableByteChannel channel;
+		private final PositionCodec codec;
+		private final int recordBytes;
+		private final boolean labeled;
+		private float label;
+		private ByteBuffer chunk;
+		private final ByteBuffer chunkHeader = ByteBuffer.allocate(CHUNK_HEADER_BYTES);
+		private final CRC32 crc = new CRC32();
+		private long count;
+
+		/**
+		 * Initializes a reader, reading the file header.
+		 *
+		 * @param channel Where to read, which the reader closes when it is closed.
+		 * @param codec The codec to decode the positions with, which must have the format of the
+		 * 			file, or null for the default codec of the file's format.
+		 *
+		 * @throws IOException If the header cannot be read, is not a position file header,
+		 * 			or does not match the codec.
+		 */
+		public Reader(ReadableByteChannel channel, PositionCodec codec) throws IOException {
+			this.channel = channel;
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			if (!readFully(header)) throw new IOException("Not a position file");
+			header.flip();
+			if (header.getInt() != MAGIC) throw new IOException("Not a position file");
+			if (header.getShort() != VERSION) throw new IOException("Unsupported position file version");
+			int format = header.getShort();
+			recordBytes = header.getInt();
+			try {
+				this.codec = codec != null ? codec : PositionCodec.forFormat(format);
+			} catch (IllegalArgumentException e) {
+				throw new IOException(e.getMessage());
+			}
+			labeled = recordBytes == this.codec.recordBytes() + LABEL_BYTES;
+			if (this.codec.format() != format || this.codec.recordBytes() != recordBytes && !labeled) {
+				throw new IOException("The positions are not in the format of " + this.codec);
+			}
+			chunk = ByteBuffer.allocateDirect(DEFAULT_CHUNK_POSITIONS * recordBytes);
+			chunk.limit(0);
+		}
+
+		/**
+		 * Opens a file, decoding its positions with the default codec of its format.
+		 *
+		 * @param file The file.
+		 *
+		 * @return The reader.
+		 *
+		 * @throws IOException If the file cannot be opened or is not a position file.
+		 */
+		public static Reader open(Path file) throws IOException {
+			return open(file, null);
+		}
+
+		/**
+		 * Opens a file.
+		 *
+		 * @param file The file.
+		 * @param codec The codec to decode the positions with, or null for the default.
+		 *
+		 * @return The reader.
+		 *
+		 * @throws IOException If the file cannot be opened, is not a position file, or does not
+		 * 			match the codec.
+		 */
+		public static Reader open(Path file, PositionCodec codec) throws IOException {
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+			try {
+				return new Reader(channel, codec);
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		/**
+		 * Accesses the codec of the positions.
+		 *
+		 * @return The codec.
+		 */
+		public PositionCodec codec() {
+			return codec;
+		}
+
+		/**
+		 * Reads the next position.
+		 *
+		 * @return The position, or null at the end of the file.
+		 *
+		 * @throws IOException If the file cannot be read, or is truncated or damaged.
+		 */
+		public GameState read() throws IOException {
+			if (!chunk.hasRemaining() && !nextChunk()) return null;
+			try {
+				GameState s = codec.decode(chunk);
+				if (labeled) label = chunk.getFloat();
+				count++;
+				return s;
+			} catch (IllegalArgumentException e) {
+				throw new IOException(e.getMessage() + " at position " + count);
+			}
+		}
+
+		/**
+		 * Checks whether the positions have labels.
+		 *
+		 * @return true if the file is labeled.
+		 */
+		public boolean labeled() {
+			return labeled;
+		}
+
+		/**
+		 * Accesses the label of the position most recently read.
+		 *
+		 * @return The label, or 0 if the file is not labeled.
+		 */
+		public float label() {
+			return label;
+		}
+
+		/**
+		 * Accesses the number of positions read.
+		 *
+		 * @return The number of positions.
+		 */
+		public long count() {
+			return count;
+		}
+
+		/*
+		 * Reads and checks a chunk, returning false at the end of the file.
+		 */
+		private boolean nextChunk() throws IOException {
+			chunkHeader.clear();
+			if (!readFully(chunkHeader)) return false;
+			int positions = chunkHeader.getInt(0);
+			int checksum = chunkHeader.getInt(4);
+			if (positions <= 0 || positions > Integer.MAX_VALUE / recordBytes) throw new IOException("Damaged position file");
+			if (chunk.capacity() < positions * recordBytes) chunk = ByteBuffer.allocateDirect(positions * recordBytes);
+			chunk.clear();
+			chunk.limit(positions * recordBytes);
+			if (!readFully(chunk)) throw new EOFException("Truncated position file");
+			chunk.flip();
+			crc.reset();
+			crc.update(chunk);
+			if ((int)crc.getValue() != checksum) throw new IOException("Damaged position file");
+			chunk.rewind();
+			return true;
+		}
+
+		/*
+		 * Fills the buffer, returning false if the file ends before anything is read, and
+		 * throwing if it ends part way.
+		 */
+		private boolean readFully(ByteBuffer b) throws IOException {
+			int start = b.position();
+			while (b.hasRemaining()) {
+				if (channel.read(b) < 0) {
+					if (b.position() == start) return false;
+					throw new EOFException("Truncated position file");
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
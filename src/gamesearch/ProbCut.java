@@ -0,0 +1,185 @@
+package gamesearch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The parameters of ProbCut, a forward pruning of alpha beta search (see
+ * AlphaBetaSearcher.setProbCut).  In games such as Reversi, the value of a shallow search is a
+ * good predictor of the value of a deep search of the same state, which is modeled as
+ * deep = a * shallow + b + e, where the error e is roughly normal with standard deviation sigma.
+ * Before searching a state to a depth that has a model, the searcher runs a null window search
+ * to the model's shallow depth, checking whether the deep value is very likely (by threshold
+ * standard deviations) to be at least beta, or at most alpha, and if so prunes the state without
+ * searching it deeply.  A larger threshold prunes less often and errs less often.
+ *
+ * The models are fitted by ProbCutCalibrator, and stored in a text file, so they may be read or
+ * edited, with a line "depth shallowDepth a b sigma" for each depth that has a model.  Blank
+ * lines and lines starting with # are ignored.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class ProbCut {
+
+	/** The file that ReversiGame loads, if it exists. */
+	public static final String DEFAULT_FILE = "reversi.probcut";
+
+	/** The default threshold, in standard deviations. */
+	public static final double DEFAULT_THRESHOLD = 1.5;
+
+	private double threshold;
+	// the model of each depth, where shallowDepth[d] is 0 if depth d has none
+	private int[] shallowDepth = new int[0];
+	private double[] a = new double[0];
+	private double[] b = new double[0];
+	private double[] sigma = new double[0];
+
+	/**
+	 * Initializes parameters with no models, which prune nothing until models are added.
+	 *
+	 * @param threshold The number of standard deviations by which a prediction must clear the
+	 * 			window.
+	 */
+	public ProbCut(double threshold) {
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Adds, or replaces, the model of a depth.
+	 *
+	 * @param depth The remaining depth of the states to prune.
+	 * @param shallowDepth The depth of the shallow search, which is less than depth.
+	 * @param a The slope of the prediction of the deep value from the shallow value.
+	 * @param b The intercept of the prediction.
+	 * @param sigma The standard deviation of the error of the prediction.
+	 */
+	public void set(int depth, int shallowDepth, double a, double b, double sigma) {
+		if (shallowDepth <= 0 || shallowDepth >= depth) throw new IllegalArgumentException("The shallow depth must be between 0 and " + depth);
+		if (a <= 0 || sigma < 0) throw new IllegalArgumentException("The slope must be positive and sigma not negative");
+		if (depth >= this.shallowDepth.length) {
+			this.shallowDepth = Arrays.copyOf(this.shallowDepth, depth + 1);
+			this.a = Arrays.copyOf(this.a, depth + 1);
+			this.b = Arrays.copyOf(this.b, depth + 1);
+			this.sigma = Arrays.copyOf(this.sigma, depth + 1);
+		}
+		this.shallowDepth[depth] = shallowDepth;
+		this.a[depth] = a;
+		this.b[depth] = b;
+		this.sigma[depth] = sigma;
+	}
+
+	/**
+	 * Sets the threshold.
+	 *
+	 * @param threshold The number of standard deviations by which a prediction must clear the window.
+	 */
+	public void setThreshold(double threshold) {
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Accesses the threshold.
+	 *
+	 * @return The number of standard deviations by which a prediction must clear the window.
+	 */
+	public double threshold() {
+		return threshold;
+	}
+
+	/**
+	 * Accesses the shallow depth of a depth's model.
+	 *
+	 * @param depth The remaining depth of a state.
+	 *
+	 * @return The depth of the shallow search, or 0 if the depth has no model.
+	 */
+	public int shallowDepth(int depth) {
+		return depth < shallowDepth.length ? shallowDepth[depth] : 0;
+	}
+
+	/**
+	 * Computes the shallow value above which the deep value is likely to be at least beta.
+	 *
+	 * @param depth A depth with a model.
+	 * @param beta The bound.
+	 *
+	 * @return The bound of the shallow search.
+	 */
+	double highBound(int depth, double beta) {
+		return (beta + threshold * sigma[depth] - b[depth]) / a[depth];
+	}
+
+	/**
+	 * Computes the shallow value below which the deep value is likely to be at most alpha.
+	 *
+	 * @param depth A depth with a model.
+	 * @param alpha The bound.
+	 *
+	 * @return The bound of the shallow search.
+	 */
+	double lowBound(int depth, double alpha) {
+		return (alpha - threshold * sigma[depth] - b[depth]) / a[depth];
+	}
+
+	/**
+	 * Reads models from a file.
+	 *
+	 * @param file The file, as written by save().
+	 * @param threshold The number of standard deviations by which a prediction must clear the window.
+	 *
+	 * @return The parameters.
+	 *
+	 * @throws IOException If the file cannot be read or is malformed.
+	 */
+	public static ProbCut load(Path file, double threshold) throws IOException {
+		ProbCut p = new ProbCut(threshold);
+		try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			int lineNumber = 0;
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) continue;
+				String[] fields = line.split("\\s+");
+				try {
+					if (fields.length != 5) throw new IllegalArgumentException("Expected 5 fields");
+					p.set(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Double.parseDouble(fields[2]),
+							Double.parseDouble(fields[3]), Double.parseDouble(fields[4]));
+				} catch (IllegalArgumentException e) {
+					throw new IOException(file + " line " + lineNumber + ": " + e.getMessage());
+				}
+			}
+		}
+		return p;
+	}
+
+	/**
+	 * Writes the models to a file.
+	 *
+	 * @param file The file, which is replaced if it exists.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(Path file) throws IOException {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+			out.print(this);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("# depth shallowDepth a b sigma\n");
+		for (int d = 0; d < shallowDepth.length; d++) {
+			if (shallowDepth[d] > 0) {
+				s.append(String.format(Locale.ROOT, "%d %d %.6f %.6f %.6f%n", d, shallowDepth[d], a[d], b[d], sigma[d]));
+			}
+		}
+		return s.toString();
+	}
+}
@@ -0,0 +1,262 @@
+package gamesearch;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fits the models of ProbCut from sample positions: each position is searched to each deep depth
+ * and to its shallow depth, and the deep values are regressed on the shallow values by least
+ * squares, giving the slope a, intercept b and standard deviation sigma of the error of each
+ * depth's model.  Positions are searched in parallel.  Values of won or lost positions (1 or -1)
+ * are left out, since they are exact rather than estimates, and so are positions with too few
+ * empty squares for the deepest search.
+ *
+ * Run from the command line as:
+ * java gamesearch.ProbCutCalibrator positions file [heuristic=name] [depths=from-to] [reduction=N]
+ * [count=N] [threads=N]
+ * where positions is a position file of Reversi positions (such as one written by PositionFile
+ * generate or HeuristicTuner selfplay), and file is where the models are written.  The heuristic
+ * (default corners) is named as for Tournament, and must be the one the models will be used with.
+ * Each depth from and to (default 4-8) is modeled with a shallow search of about half the depth,
+ * with the same parity, since heuristic values tend to alternate with whose turn it is at the
+ * depth limit, or of the depth less reduction if given.  Up to count (default 2000) positions are used.
+ * The number of samples and the correlation of each depth are printed along with the models.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public final class ProbCutCalibrator {
+
+	// memory budget of each thread's transposition table
+	private static final int TRANSPOSITION_TABLE_MB = 16;
+
+	private ProbCutCalibrator() {}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 2) {
+			System.out.println("Usage: java gamesearch.ProbCutCalibrator positions file [heuristic=name] "
+					+ "[depths=from-to] [reduction=N] [count=N] [threads=N]");
+			return;
+		}
+		String heuristic = "corners";
+		int from = 4;
+		int to = 8;
+		int reduction = 0;
+		int count = 2000;
+		int threads = Runtime.getRuntime().availableProcessors();
+		for (int i = 2; i < args.length; i++) {
+			int eq = args[i].indexOf('=');
+			String key = eq < 0 ? args[i] : args[i].substring(0, eq);
+			String value = eq < 0 ? "" : args[i].substring(eq + 1);
+			if (key.equals("heuristic")) heuristic = value;
+			else if (key.equals("depths")) {
+				int dash = value.indexOf('-');
+				from = Integer.parseInt(dash < 0 ? value : value.substring(0, dash));
+				to = Integer.parseInt(dash < 0 ? value : value.substring(dash + 1));
+			}
+			else if (key.equals("reduction")) reduction = Integer.parseInt(value);
+			else if (key.equals("count")) count = Integer.parseInt(value);
+			else if (key.equals("threads")) threads = Integer.parseInt(value);
+			else throw new IllegalArgumentException("Unknown option " + args[i]);
+		}
+		int[] shallow = new int[to + 1];
+		for (int d = Math.max(2, from); d <= to; d++) {
+			// values alternate with whose turn it is at the depth limit, so by default the depths have the same parity
+			int half = d / 2 - (d - d / 2) % 2;
+			shallow[d] = Math.max(1, reduction > 0 ? d - reduction : half);
+		}
+		List<BitboardReversiState> positions = new ArrayList<BitboardReversiState>();
+		try (PositionFile.Reader in = PositionFile.Reader.open(Paths.get(args[0]), PositionCodec.REVERSI)) {
+			for (GameState s = in.read(); s != null && positions.size() < count; s = in.read()) {
+				BitboardReversiState r = (BitboardReversiState)s;
+				// the deepest search must not reach the end of the game
+				if (64 - Long.bitCount(r.discs0() | r.discs1()) > to && !r.isTerminalState()) positions.add(r);
+			}
+		}
+		long start = System.nanoTime();
+		Fit fit = calibrate(positions, heuristic, shallow, threads);
+		System.out.printf("Calibrated on %d positions in %.1f s%n", positions.size(), (System.nanoTime() - start) / 1e9);
+		System.out.print(fit);
+		System.out.print(fit.models());
+		fit.models().save(Paths.get(args[1]));
+	}
+
+	/**
+	 * Fits the models.
+	 *
+	 * @param positions The positions, none of them terminal.
+	 * @param heuristic The heuristic, named as for Tournament.
+	 * @param shallow The shallow depth for each depth to model, or 0 for depths not to model.
+	 * @param threads The number of positions searched at once.
+	 *
+	 * @return The models, with the default threshold, omitting depths with too few samples, and
+	 * 			the samples and correlation of each depth.
+	 *
+	 * @throws InterruptedException If interrupted while waiting for the searches.
+	 */
+	public static Fit calibrate(final List<BitboardReversiState> positions, final String heuristic,
+			final int[] shallow, int threads) throws InterruptedException {
+		Tournament.EngineSpec.heuristic(heuristic);  // rejects unknown names early
+		threads = Math.max(1, threads);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<double[][]>> futures = new ArrayList<Future<double[][]>>(threads);
+			for (int t = 0; t < threads; t++) {
+				final int first = t * positions.size() / threads;
+				final int last = (t + 1) * positions.size() / threads;
+				futures.add(pool.submit(new Callable<double[][]>() {
+					@Override
+					public double[][] call() {
+						return sums(positions.subList(first, last), Tournament.EngineSpec.heuristic(heuristic), shallow);
+					}
+				}));
+			}
+			double[][] sums = new double[shallow.length][6];
+			for (Future<double[][]> f : futures) {
+				double[][] part;
+				try {
+					part = f.get();
+				} catch (ExecutionException e) {
+					throw new IllegalStateException("A search failed", e.getCause());
+				}
+				for (int d = 0; d < sums.length; d++) {
+					for (int i = 0; i < 6; i++) {
+						sums[d][i] += part[d][i];
+					}
+				}
+			}
+			Fit fit = new Fit(shallow);
+			for (int d = 0; d < shallow.length; d++) {
+				double n = sums[d][0];
+				fit.samples[d] = (long)n;
+				if (shallow[d] == 0 || n < 10) continue;
+				double meanX = sums[d][1] / n;
+				double meanY = sums[d][2] / n;
+				double varX = sums[d][3] / n - meanX * meanX;
+				double covXY = sums[d][4] / n - meanX * meanY;
+				double varY = sums[d][5] / n - meanY * meanY;
+				if (varX <= 0 || covXY <= 0) continue;
+				double a = covXY / varX;
+				double b = meanY - a * meanX;
+				// the variance of the residuals of the fitted line
+				double residual = Math.max(0, varY - a * covXY) * n / (n - 2);
+				fit.models.set(d, shallow[d], a, b, Math.sqrt(residual));
+				fit.correlation[d] = covXY / Math.sqrt(varX * varY);
+			}
+			return fit;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * The models fitted by calibrate, and how well the shallow values of each depth predicted
+	 * its deep values.
+	 */
+	public static final class Fit {
+		private final ProbCut models = new ProbCut(ProbCut.DEFAULT_THRESHOLD);
+		private final int[] shallow;
+		private final long[] samples;
+		private final double[] correlation;
+
+		private Fit(int[] shallow) {
+			this.shallow = shallow.clone();
+			samples = new long[shallow.length];
+			correlation = new double[shallow.length];
+			Arrays.fill(correlation, Double.NaN);
+		}
+
+		/**
+		 * Accesses the models.
+		 *
+		 * @return The models, with the default threshold.
+		 */
+		public ProbCut models() {
+			return models;
+		}
+
+		/**
+		 * Accesses the number of positions a depth was fitted on.
+		 *
+		 * @param depth The depth.
+		 *
+		 * @return The number of positions whose shallow and deep values were both estimates, or
+		 * 			0 if the depth was not modeled.
+		 */
+		public long samples(int depth) {
+			return depth < samples.length ? samples[depth] : 0;
+		}
+
+		/**
+		 * Accesses the correlation of the shallow and deep values of a depth.
+		 *
+		 * @param depth The depth.
+		 *
+		 * @return The correlation, or NaN if the depth has no model.
+		 */
+		public double correlation(int depth) {
+			return depth < correlation.length ? correlation[depth] : Double.NaN;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder b = new StringBuilder();
+			for (int d = 0; d < shallow.length; d++) {
+				if (shallow[d] == 0) continue;
+				b.append(String.format(Locale.ROOT, "depth %d from %d: %d samples, ", d, shallow[d], samples[d]));
+				b.append(Double.isNaN(correlation[d]) ? String.format("no model%n") :
+					String.format(Locale.ROOT, "correlation %.3f%n", correlation[d]));
+			}
+			return b.toString();
+		}
+	}
+
+	/*
+	 * For each modeled depth, the count of samples and the sums of the shallow values x, the deep
+	 * values y, x*x, x*y and y*y.  The depths are searched shallowest first, after clearing the
+	 * table, so no search takes values from a deeper one.
+	 */
+	private static double[][] sums(List<BitboardReversiState> positions, GameHeuristic h, int[] shallow) {
+		AlphaBetaSearcher searcher = new AlphaBetaSearcher(h);
+		TranspositionTable tt = new TranspositionTable(TRANSPOSITION_TABLE_MB);
+		searcher.setTranspositionTable(tt);
+		searcher.setMoveOrderer(new KillerHistoryMoveOrderer(h, GameLoop.PRESORT_DEPTH));
+		boolean[] searched = new boolean[shallow.length];
+		for (int d = 0; d < shallow.length; d++) {
+			if (shallow[d] > 0) searched[d] = searched[shallow[d]] = true;
+		}
+		double[][] sums = new double[shallow.length][6];
+		double[] values = new double[shallow.length];
+		for (BitboardReversiState s : positions) {
+			tt.clear();
+			for (int d = 1; d < shallow.length; d++) {
+				if (!searched[d]) continue;
+				values[d] = s.whoseTurn() == 0 ?
+						searcher.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, d) :
+						searcher.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, d);
+			}
+			for (int d = 1; d < shallow.length; d++) {
+				if (shallow[d] == 0) continue;
+				double x = values[shallow[d]];
+				double y = values[d];
+				if (Math.abs(x) >= 1 || Math.abs(y) >= 1) continue;
+				sums[d][0]++;
+				sums[d][1] += x;
+				sums[d][2] += y;
+				sums[d][3] += x * x;
+				sums[d][4] += x * y;
+				sums[d][5] += y * y;
+			}
+		}
+		return sums;
+	}
+}
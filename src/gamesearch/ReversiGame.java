@@ -20,8 +20,16 @@
  * 
  */
 
+package gamesearch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Simple console Reversi, also known as Othello, for use in testing
@@ -34,15 +42,111 @@ import java.util.Scanner;
  * @version 3.15.2018
  */
 public class ReversiGame {
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 		@SuppressWarnings("resource")
 		Scanner scan = new Scanner(System.in);
-		System.out.println("Enter 0 for simple piece count heuristic, or 1 for weighted corners heuristic");
+		System.out.println("Enter 0 for simple piece count heuristic, 1 for weighted corners heuristic, "
+				+ "2 for pattern heuristic, or 3 for mobility heuristic");
 		int which = scan.nextInt();
 		scan.nextLine();
-		GameLoop game = new GameLoop(new ReversiState());
-		game.consolePlay(which == 0 ? 
-				new ReversiState.PieceCountHeuristic() : new ReversiState.CornersHeuristic());
+		System.out.println("Enter 0 for alpha beta search, 1 for principal variation search, 2 for MTD(f), "
+				+ "or 3 for Monte Carlo tree search");
+		int algorithm = scan.nextInt();
+		scan.nextLine();
+		GameLoop game = new GameLoop(new BitboardReversiState());
+		int threads = Runtime.getRuntime().availableProcessors();
+		ForkJoinPool pool = null;
+		if (algorithm == 3) {
+			pool = new ForkJoinPool(threads);
+			game.setMonteCarlo(new MonteCarloTreeSearch(GameLoop.MONTE_CARLO_NODES / threads, System.nanoTime(),
+					pool, threads));
+		} else {
+			game.setAlgorithm(AlphaBetaSearcher.Algorithm.values()[algorithm]);
+			System.out.println("Enter 1 for the AI to think during your turns (pondering), or 0 not to");
+			game.setPondering(scan.nextInt() == 1);
+			scan.nextLine();
+			System.out.println("Enter how many ply beyond the depth limit the AI searches corner captures and moves "
+					+ "that force a pass (quiescence search), or 0 for none");
+			int quiescence = scan.nextInt();
+			scan.nextLine();
+			if (quiescence > 0) game.setQuiescence(new BitboardReversiState.CornerAndPassMoves(), quiescence);
+			if (threads > 1) {
+				System.out.println("Enter 1 for the AI to split a search limited by depth between its threads only at the root, "
+						+ "or 0 to split it at every node");
+				game.setRootSplitting(scan.nextInt() == 1);
+				scan.nextLine();
+			}
+		}
+		game.setSearchThreads(threads);
+		Path book = Paths.get(OpeningBook.DEFAULT_FILE);
+		if (Files.exists(book)) {
+			OpeningBook opening = OpeningBook.open(book);
+			System.out.println("Using opening book " + book + " of " + opening.size() + " positions.");
+			game.addOracle(opening);
+		}
+		game.addOracle(new EndgameSolver(EndgameSolver.DEFAULT_EMPTIES, false));
+		GameHeuristic heuristic;
+		if (which == 0) heuristic = new BitboardReversiState.PieceCountHeuristic();
+		else if (which == 1) heuristic = new BitboardReversiState.CornersHeuristic();
+		else if (which == 3) heuristic = new BitboardReversiState.MobilityHeuristic();
+		else {
+			Path weights = Paths.get(PatternHeuristic.DEFAULT_FILE);
+			if (Files.exists(weights)) {
+				System.out.println("Using pattern weights " + weights + ".");
+				heuristic = PatternHeuristic.load(weights);
+			} else {
+				heuristic = new PatternHeuristic();
+			}
+		}
+		Path models = Paths.get(ProbCut.DEFAULT_FILE);
+		if (algorithm != 3 && Files.exists(models)) {
+			System.out.println("Using ProbCut models " + models + ".");
+			game.setProbCut(ProbCut.load(models, ProbCut.DEFAULT_THRESHOLD));
+		}
+		try {
+			game.consolePlay(heuristic);
+		} finally {
+			if (pool != null) pool.shutdown();
+		}
+	}
+	
+	/*
+	 * ReversiState is declared in this file, so other files reach it through these methods rather
+	 * than naming it, which javac warns about.
+	 */
+	
+	/**
+	 * Generates the start state of the array based Reversi.
+	 * 
+	 * @return The start state, a ReversiState.
+	 */
+	static GameState arrayState() {
+		return new ReversiState();
+	}
+	
+	/**
+	 * Generates a position of the array based Reversi from the squares of each player's pieces.
+	 * 
+	 * @param discs0 The mask of player 0's pieces, with bit row*8+col for each square.
+	 * @param discs1 The mask of player 1's pieces.
+	 * @param player The player whose turn it is.
+	 * 
+	 * @return The position, a ReversiState.
+	 */
+	static GameState arrayState(long discs0, long discs1, int player) {
+		return new ReversiState(discs0, discs1, player);
+	}
+	
+	/**
+	 * Computes the squares of a player's pieces in a position of the array based Reversi.
+	 * 
+	 * @param s A ReversiState.
+	 * @param player 0 or 1.
+	 * 
+	 * @return The mask of the player's pieces, with bit row*8+col for each square.
+	 */
+	static long discs(GameState s, int player) {
+		return ((ReversiState)s).discs(player);
 	}
 }
 
@@ -67,6 +171,31 @@ class ReversiState implements GameState {
 	private int player;  // 0 or 1
 	private boolean isTerminal;
 	private boolean isTerminalCalled;
+	// kept up to date as squares change owner, so the heuristics need not scan the board
+	private int[] pieces;  // number of pieces of each player
+	private int[] corners;  // bits of the CORNER_BITS squares each player owns
+	
+	/*
+	 * The bit of each square in the corners masks, or -1.  The squares around each corner form a
+	 * group of 4 bits: the corner, the X-square diagonally adjacent to it, and the two C-squares
+	 * beside it.
+	 */
+	private static final int[] CORNER_BITS = new int[64];
+	private static final int CORNER_MASK = 0x1111;
+	static {
+		Arrays.fill(CORNER_BITS, -1);
+		int[][] groups = {
+			{0, 0, 1, 1, 0, 1, 1, 0},
+			{7, 7, 6, 6, 7, 6, 6, 7},
+			{0, 7, 1, 6, 0, 6, 1, 7},
+			{7, 0, 6, 1, 7, 1, 6, 0}
+		};
+		for (int g = 0; g < 4; g++) {
+			for (int i = 0; i < 4; i++) {
+				CORNER_BITS[groups[g][2*i]*8 + groups[g][2*i+1]] = 4*g + i;
+			}
+		}
+	}
 	
 	/**
 	 * Generates the start state for Reversi (also known as Othello).
@@ -81,6 +210,31 @@ class ReversiState implements GameState {
 		board[3][3] = board[4][4] = 0;
 		board[3][4] = board[4][3] = 1;
 		player = 0;
+		pieces = new int[] {2, 2};
+		corners = new int[2];
+	}
+	
+	/**
+	 * Generates a position from the squares of each player's pieces, as stored by PositionCodec.
+	 * 
+	 * @param discs0 The mask of player 0's pieces, with bit row*8+col for each square.
+	 * @param discs1 The mask of player 1's pieces.
+	 * @param player The player whose turn it is.
+	 */
+	ReversiState(long discs0, long discs1, int player) {
+		board = new int[8][8];
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+				board[i][j] = -1;
+			}
+		}
+		this.player = player;
+		pieces = new int[2];
+		corners = new int[2];
+		for (int square = 0; square < 64; square++) {
+			if ((discs0 & 1L << square) != 0) set(square / 8, square % 8, 0);
+			else if ((discs1 & 1L << square) != 0) set(square / 8, square % 8, 1);
+		}
 	}
 	
 	private ReversiState(ReversiState s, int row, int col) {
@@ -91,6 +245,8 @@ class ReversiState implements GameState {
 			}
 		}
 		player = s.player;
+		pieces = s.pieces.clone();
+		corners = s.corners.clone();
 		applyMove(new int[] {row, col});
 	}
 	
@@ -134,14 +290,8 @@ class ReversiState implements GameState {
 	@Override
 	public double value() {
 		if (!isTerminalState()) throw new IllegalStateException("Trying to compute value of non-terminal state.");
-		int[] counts = {0, 0, 0};
-		for (int i = 0; i < 8; i++) {
-			for (int j = 0; j < 8; j++) {
-				counts[board[i][j]+1]++;
-			}
-		}
-		if (counts[1] > counts[2]) return 1.0;
-		else if (counts[1] < counts[2]) return -1.0;
+		if (pieces[0] > pieces[1]) return 1.0;
+		else if (pieces[0] < pieces[1]) return -1.0;
 		else return 0;
 	}
 
@@ -219,7 +369,7 @@ class ReversiState implements GameState {
 			for ( ; j < 8 && i >= 0 && board[i][j] == otherPlayer; i--, j++);
 			if (j < 8 && i >= 0 && board[i][j] == player) fillSequence(row-1, col+1, i, j, player);
 		}
-		board[row][col] = player;
+		set(row, col, player);
 		if (hasLegalMoves(otherPlayer)) {
 			isTerminal = false;
 			isTerminalCalled = true;
@@ -246,7 +396,7 @@ class ReversiState implements GameState {
 		if (r1 < r2) {
 			int cInc = (c1==c2) ? 0 : (c2 > c1 ? 1 : -1);
 			for (int r = r1, c = c1; r <= r2; r++, c += cInc) {
-				board[r][c] = player;
+				set(r, c, player);
 			}
 		} else {
 			if (c1 > c2) {
@@ -260,12 +410,28 @@ class ReversiState implements GameState {
 			if (c1 < c2) {
 				int rInc = (r1==r2) ? 0 : (r2 > r1 ? 1 : -1);
 				for (int c = c1, r = r1; c <= c2; c++, r += rInc) {
-					board[r][c] = player;
+					set(r, c, player);
 				}
 			}
 		}
 	}
 
+	/*
+	 * Gives a square to a player, keeping the piece counts and corners masks up to date.
+	 */
+	private void set(int row, int col, int player) {
+		int previous = board[row][col];
+		if (previous == player) return;
+		board[row][col] = player;
+		pieces[player]++;
+		if (previous >= 0) pieces[previous]--;
+		int bit = CORNER_BITS[row*8 + col];
+		if (bit >= 0) {
+			corners[player] |= 1 << bit;
+			if (previous >= 0) corners[previous] &= ~(1 << bit);
+		}
+	}
+
 	@Override
 	public String turnInstructions() {
 		return "Enter row and column separated by spaces:";
@@ -273,32 +439,42 @@ class ReversiState implements GameState {
 
 	@Override
 	public String toString() {
-		String s = "   0 1 2 3 4 5 6 7\n   _______________\n";
+		StringBuilder s = new StringBuilder("   0 1 2 3 4 5 6 7\n   _______________\n");
 		for (int i = 0; i < 8; i++) {
-			s += i + " |";
+			s.append(i).append(" |");
 			for (int j = 0; j < 8; j++) {
-				if (j > 0) s += " ";
-				if (board[i][j] < 0) s += "-";
-				else s += board[i][j];
+				if (j > 0) s.append(' ');
+				if (board[i][j] < 0) s.append('-');
+				else s.append(board[i][j]);
 			}
-			s += "|\n";
+			s.append("|\n");
 		}
-		s += "   _______________\n";
-		return s;
+		s.append("   _______________\n");
+		return s.toString();
+	}
+	
+	/**
+	 * Computes the squares of a player's pieces.
+	 * 
+	 * @param player 0 or 1.
+	 * @return The mask of the player's pieces, with bit row*8+col for each square.
+	 */
+	long discs(int player) {
+		long discs = 0;
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+				if (board[i][j] == player) discs |= 1L << (i*8 + j);
+			}
+		}
+		return discs;
 	}
 	
 	static class PieceCountHeuristic implements GameHeuristic {
 
 		public double h(GameState s) {
 			ReversiState r = (ReversiState)s;
-			int[] counts = {0, 0, 0};
-			for (int i = 0; i < 8; i++) {
-				for (int j = 0; j < 8; j++) {
-					counts[r.board[i][j]+1]++;
-				}
-			}
-			double numPieces = counts[1] + counts[2];
-			return (counts[1] - counts[2]) / numPieces;
+			double numPieces = r.pieces[0] + r.pieces[1];
+			return (r.pieces[0] - r.pieces[1]) / numPieces;
 		}
 		
 	}
@@ -307,54 +483,31 @@ class ReversiState implements GameState {
 
 		public double h(GameState s) {
 			ReversiState r = (ReversiState)s;
-			int[] counts = {0, 0, 0};
-			for (int i = 0; i < 8; i++) {
-				for (int j = 0; j < 8; j++) {
-					counts[r.board[i][j]+1]++;
+			// each captured corner doubles its owner's count
+			double score0 = r.pieces[0] << Integer.bitCount(r.corners[0] & CORNER_MASK);
+			double score1 = r.pieces[1] << Integer.bitCount(r.corners[1] & CORNER_MASK);
+			int open = ~(r.corners[0] | r.corners[1]);
+			for (int g = 0; g < 16; g += 4) {
+				if ((open >>> g & 1) != 0) {
+					score0 = penalize(score0, r.corners[0] >>> g);
+					score1 = penalize(score1, r.corners[1] >>> g);
 				}
 			}
-			if (r.board[0][0] >= 0) counts[r.board[0][0]+1] *= 2;
-			if (r.board[0][7] >= 0) counts[r.board[0][7]+1] *= 2;
-			if (r.board[7][0] >= 0) counts[r.board[7][0]+1] *= 2;
-			if (r.board[7][7] >= 0) counts[r.board[7][7]+1] *= 2;
-			double score0 = counts[1];
-			double score1 = counts[2];
-			if (r.board[0][0] < 0) {
-				if (r.board[1][1] == 0) score0 *= 0.75;
-				else if (r.board[1][1] == 1) score1 *= 0.75;
-				if (r.board[0][1] == 0) score0 *= 0.9;
-				else if (r.board[0][1] == 1) score1 *= 0.9;
-				if (r.board[1][0] == 0) score0 *= 0.9;
-				else if (r.board[1][0] == 1) score1 *= 0.9;
-			}
-			if (r.board[7][7] < 0) {
-				if (r.board[6][6] == 0) score0 *= 0.75;
-				else if (r.board[6][6] == 1) score1 *= 0.75;
-				if (r.board[7][6] == 0) score0 *= 0.9;
-				else if (r.board[7][6] == 1) score1 *= 0.9;
-				if (r.board[6][7] == 0) score0 *= 0.9;
-				else if (r.board[6][7] == 1) score1 *= 0.9;
-			}
-			if (r.board[0][7] < 0) {
-				if (r.board[1][6] == 0) score0 *= 0.75;
-				else if (r.board[1][6] == 1) score1 *= 0.75;
-				if (r.board[0][6] == 0) score0 *= 0.9;
-				else if (r.board[0][6] == 1) score1 *= 0.9;
-				if (r.board[1][7] == 0) score0 *= 0.9;
-				else if (r.board[1][7] == 1) score1 *= 0.9;
-			}
-			if (r.board[7][0] < 0) {
-				if (r.board[6][1] == 0) score0 *= 0.75;
-				else if (r.board[6][1] == 1) score1 *= 0.75;
-				if (r.board[7][1] == 0) score0 *= 0.9;
-				else if (r.board[7][1] == 1) score1 *= 0.9;
-				if (r.board[6][0] == 0) score0 *= 0.9;
-				else if (r.board[6][0] == 1) score1 *= 0.9;
-			}
 				
 			double total = score0 + score1;
 			return (score0 - score1) / total;
 		}
 		
+		/*
+		 * Penalizes a score for the squares adjacent to an open corner that the player owns,
+		 * given the player's bits of the corner's group.
+		 */
+		private static double penalize(double score, int group) {
+			if ((group & 2) != 0) score *= 0.75;
+			if ((group & 4) != 0) score *= 0.9;
+			if ((group & 8) != 0) score *= 0.9;
+			return score;
+		}
+		
 	}
-}
\ No newline at end of file
+}
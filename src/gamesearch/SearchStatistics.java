@@ -0,0 +1,250 @@
+package gamesearch;
+
+import java.util.Arrays;
+
+/**
+ * Counts of what a search did, filled in by a searcher as it searches: the nodes visited,
+ * how many of them were terminal states or were evaluated by the heuristic or were searched by
+ * quiescence search beyond the depth limit, the states pruned by ProbCut, the cutoffs at
+ * each ply, and the elapsed time, from which the effective branching factor and the search
+ * speed are derived.  The counts are reset at the start of each search.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class SearchStatistics {
+
+	long nodes;
+	long terminalNodes;
+	long heuristicEvaluations;
+	long tableCutoffs;
+	long researches;
+	long quiescenceNodes;
+	long probCuts;
+	private long[] cutoffs;
+	int maxPly;
+	private int depth;
+	private long startNanos;
+	private long elapsedNanos;
+
+	/**
+	 * Initializes empty statistics.
+	 */
+	public SearchStatistics() {
+		cutoffs = new long[16];
+	}
+
+	/**
+	 * Resets the counts and starts the clock, at the start of a search.
+	 */
+	void start() {
+		nodes = terminalNodes = heuristicEvaluations = tableCutoffs = researches = quiescenceNodes = probCuts = 0;
+		Arrays.fill(cutoffs, 0);
+		maxPly = depth = 0;
+		elapsedNanos = 0;
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Stops the clock, at the end of a search.
+	 *
+	 * @param depth The depth the search completed.
+	 */
+	void stop(int depth) {
+		this.depth = depth;
+		elapsedNanos = System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Counts a node.
+	 *
+	 * @param ply The distance of the node from the root.
+	 */
+	void node(int ply) {
+		nodes++;
+		if (ply > maxPly) maxPly = ply;
+	}
+
+	/**
+	 * Counts a cutoff.
+	 *
+	 * @param ply The distance from the root of the node that was cut off.
+	 */
+	void cutoff(int ply) {
+		grow(ply);
+		cutoffs[ply]++;
+	}
+
+	private void grow(int ply) {
+		if (ply >= cutoffs.length) cutoffs = Arrays.copyOf(cutoffs, Math.max(ply + 1, 2 * cutoffs.length));
+	}
+
+	/**
+	 * Adds the counts of another search, such as one run by another thread of a parallel search.
+	 *
+	 * @param other The statistics to add.
+	 */
+	void add(SearchStatistics other) {
+		add(other, 0);
+	}
+
+	/**
+	 * Adds the counts of a search of a subtree.
+	 *
+	 * @param other The statistics to add.
+	 * @param ply The distance from the root of this search to the root of the subtree.
+	 */
+	void add(SearchStatistics other, int ply) {
+		nodes += other.nodes;
+		terminalNodes += other.terminalNodes;
+		heuristicEvaluations += other.heuristicEvaluations;
+		tableCutoffs += other.tableCutoffs;
+		researches += other.researches;
+		quiescenceNodes += other.quiescenceNodes;
+		probCuts += other.probCuts;
+		grow(other.cutoffs.length - 1 + ply);
+		for (int i = 0; i < other.cutoffs.length; i++) {
+			cutoffs[i + ply] += other.cutoffs[i];
+		}
+		maxPly = Math.max(maxPly, other.maxPly + ply);
+	}
+
+	/**
+	 * Accesses the number of nodes visited.
+	 *
+	 * @return The number of states the search visited.
+	 */
+	public long nodes() {
+		return nodes;
+	}
+
+	/**
+	 * Accesses the number of terminal nodes.
+	 *
+	 * @return The number of terminal states the search valued by the state's value() method.
+	 */
+	public long terminalNodes() {
+		return terminalNodes;
+	}
+
+	/**
+	 * Accesses the number of heuristic evaluations.
+	 *
+	 * @return The number of states the search valued with the heuristic.
+	 */
+	public long heuristicEvaluations() {
+		return heuristicEvaluations;
+	}
+
+	/**
+	 * Accesses the number of transposition table cutoffs.
+	 *
+	 * @return The number of states whose value was taken from the transposition table.
+	 */
+	public long tableCutoffs() {
+		return tableCutoffs;
+	}
+
+	/**
+	 * Accesses the number of re-searches.
+	 *
+	 * @return The number of moves that principal variation search searched a second time,
+	 * 			with the full window, after a null window search found them better, or the
+	 * 			number of null window passes of MTD(f) after the first of each search.
+	 */
+	public long researches() {
+		return researches;
+	}
+
+	/**
+	 * Accesses the number of quiescence nodes.
+	 *
+	 * @return The number of states, included in nodes(), that quiescence search visited beyond
+	 * 			the depth limit.
+	 */
+	public long quiescenceNodes() {
+		return quiescenceNodes;
+	}
+
+	/**
+	 * Accesses the number of ProbCut prunings.
+	 *
+	 * @return The number of states that ProbCut pruned after a shallow search.
+	 */
+	public long probCuts() {
+		return probCuts;
+	}
+
+	/**
+	 * Accesses the number of cutoffs at a ply.
+	 *
+	 * @param ply The distance from the root.
+	 *
+	 * @return The number of nodes at that ply whose remaining moves were pruned.
+	 */
+	public long cutoffs(int ply) {
+		return ply < cutoffs.length ? cutoffs[ply] : 0;
+	}
+
+	/**
+	 * Accesses the deepest ply reached.
+	 *
+	 * @return The largest distance from the root of any node visited.
+	 */
+	public int maxPly() {
+		return maxPly;
+	}
+
+	/**
+	 * Accesses the depth of the search.
+	 *
+	 * @return The depth the search completed.
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Accesses the time the search took.
+	 *
+	 * @return The elapsed time in seconds.
+	 */
+	public double seconds() {
+		return elapsedNanos / 1e9;
+	}
+
+	/**
+	 * Computes the search speed.
+	 *
+	 * @return The number of nodes visited per second.
+	 */
+	public double nodesPerSecond() {
+		return elapsedNanos == 0 ? 0 : nodes / seconds();
+	}
+
+	/**
+	 * Computes the effective branching factor, the branching factor of the uniform tree of the
+	 * search's depth with as many nodes as the search visited.  A search not limited by depth
+	 * (whose depth is AlphaBetaSearcher.UNLIMITED_DEPTH) is taken to be as deep as the deepest ply it
+	 * reached.
+	 *
+	 * @return The effective branching factor.
+	 */
+	public double effectiveBranchingFactor() {
+		int d = depth >= AlphaBetaSearcher.UNLIMITED_DEPTH ? maxPly : depth;
+		return d <= 0 ? 0 : Math.pow(nodes, 1.0 / d);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("depth %s (max ply %d): %d nodes, %d terminal, %d evaluated, %d quiescence, "
+				+ "%d table cutoffs, %d ProbCuts, %d re-searches, EBF %.2f, %.3f s, %.0f nodes/s%n  cutoffs by ply:",
+				depth >= AlphaBetaSearcher.UNLIMITED_DEPTH ? "unlimited" : String.valueOf(depth), maxPly, nodes, terminalNodes, heuristicEvaluations, quiescenceNodes, tableCutoffs, probCuts, researches,
+				effectiveBranchingFactor(), seconds(), nodesPerSecond()));
+		for (int i = 0; i <= maxPly && i < cutoffs.length; i++) {
+			s.append(' ').append(cutoffs[i]);
+		}
+		return s.toString();
+	}
+}
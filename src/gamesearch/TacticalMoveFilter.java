@@ -0,0 +1,24 @@
+package gamesearch;
+
+/**
+ * Selects the tactical moves of a state for quiescence search.  At its depth limit, a searcher
+ * with quiescence search enabled (see AlphaBetaSearcher.setQuiescence) does not simply trust the
+ * heuristic: it also searches the moves that could change the value of the state sharply, such
+ * as capturing a corner in Reversi, up to a bounded extra depth, so that a value just beyond the
+ * horizon is not missed.  A filter may be shared by searchers if it has no state.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public interface TacticalMoveFilter {
+
+	/**
+	 * Checks whether a move is tactical.
+	 *
+	 * @param s The state, which must be unchanged when this method returns.
+	 * @param move A legal move of s.
+	 *
+	 * @return true if the move should be searched by quiescence search.
+	 */
+	boolean isTactical(IncrementalGameState s, int move);
+}
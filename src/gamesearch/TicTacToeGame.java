@@ -0,0 +1,374 @@
+/* 
+ * Copyright (C) 2018, Vincent A. Cicirello.  All rights reserved.
+ * 
+ * License agreement:
+ * 
+ * This Java source file is licensed strictly for use in Stockton University course
+ * CSIS 4463, Artificial Intelligence.  Students who are or were enrolled in CSIS 4463 in 
+ * the Spring 2018 semester at Stockton University may:
+ * (1) use this Java source file to complete any relevant homework assignments for CSIS 4463, and
+ * (2) retain a private copy among course assignments indefinitely.
+ * 
+ * Prohibitions include the following:
+ * (a) You must not remove, or change, the copyright notice.
+ * (b) You must not remove, or change, the license agreement.
+ * (c) You must not redistribute this source file, including but not limited to
+ * 		online code repositories on GitHub or other similar sites.
+ * (d) You must not change the contents of this Java source file, including comments.
+ * 
+ * This license is non-transferable.
+ * 
+ */
+
+package gamesearch;
+
+import java.util.ArrayList;
+import java.util.Scanner;
+
+/**
+ * Simple console Tic Tac Toe game, for use in initial testing
+ * of game search algorithm implementations.  Game is small enough that complete
+ * DFS of search space through minimax search is possible in real time during game play.
+ * AI player uses Alpha Beta Pruning to select move.
+ * 
+ * @author Vincent A. Cicirello
+ * @version 3.15.2018
+ */
+public class TicTacToeGame {
+	public static void main(String[] args) {
+		@SuppressWarnings("resource")
+		Scanner scan = new Scanner(System.in);
+		System.out.println("Enter 0 for alpha beta search, 1 for perfect play from the solved game table, "
+				+ "or 2 for Monte Carlo tree search");
+		int which = scan.nextInt();
+		scan.nextLine();
+		GameLoop game = new GameLoop(new TicTacToeState());
+		if (which == 1) game.addOracle(new TicTacToeState.PerfectPlay());
+		else if (which == 2) game.setMonteCarlo(new MonteCarloTreeSearch(GameLoop.MONTE_CARLO_NODES, System.nanoTime()));
+		game.consolePlay();
+	}
+	
+	/*
+	 * TicTacToeState is declared in this file, so other files reach it through these methods
+	 * rather than naming it, which javac warns about.
+	 */
+	
+	/**
+	 * Generates the start state for TicTacToe.
+	 * 
+	 * @return The start state, a TicTacToeState.
+	 */
+	static IncrementalGameState startState() {
+		return new TicTacToeState();
+	}
+	
+	/**
+	 * Generates a position from the squares of each player.
+	 * 
+	 * @param x The mask of the squares of X, with bit row*3+col for each square.
+	 * @param o The mask of the squares of O.
+	 * @param player The player whose turn it is: 0 for X and 1 for O.
+	 * 
+	 * @return The position, a TicTacToeState.
+	 */
+	static IncrementalGameState state(int x, int o, int player) {
+		return new TicTacToeState(x, o, player);
+	}
+	
+	/**
+	 * Accesses the squares of a player.
+	 * 
+	 * @param s A TicTacToeState.
+	 * @param player 0 for X and 1 for O.
+	 * 
+	 * @return The mask of the player's squares, with bit row*3+col for each square.
+	 */
+	static int squares(GameState s, int player) {
+		TicTacToeState t = (TicTacToeState)s;
+		return player == 0 ? t.x() : t.o();
+	}
+}
+
+/**
+ * A representation of a simple game, Tic Tac Toe, for use in initial testing
+ * of game search algorithm implementations.  Game is small enough that complete
+ * DFS of search space through minimax search is possible in real time during game play.
+ * 
+ * Moves for the IncrementalGameState interface are the square index row*3+col.
+ * The board is kept as a 9-bit mask of each player's squares, and as a base 3 index
+ * (the sum over the squares of 3^square times 0 if empty, 1 for X, or 2 for O) into
+ * tables of every position's status, which are precomputed when the class is loaded.
+ * 
+ * @author Vincent A. Cicirello
+ * @version 3.15.2018
+ */
+class TicTacToeState implements IncrementalGameState {
+	
+	// Zobrist random numbers: 9 for X, 9 for O, and 1 for O to move
+	private static final long[] ZOBRIST = Zobrist.randoms(19, 0x7AC70EL);
+	
+	// the squares of each row, column and diagonal
+	private static final int[] LINES = {0007, 0070, 0700, 0111, 0222, 0444, 0421, 0124};
+	
+	private static final int[] POWERS_OF_3 = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+	
+	// the status of each position, by base 3 index
+	private static final byte IN_PROGRESS = 0;
+	private static final byte X_WON = 1;
+	private static final byte O_WON = 2;
+	private static final byte DRAWN = 3;
+	private static final byte[] STATUS = new byte[19683];
+	private static final double[] VALUE_OF_STATUS = {0, 1.0, -1.0, 0};
+	static {
+		for (int index = 0; index < STATUS.length; index++) {
+			int x = 0;
+			int o = 0;
+			for (int i = 0, digits = index; i < 9; i++, digits /= 3) {
+				if (digits % 3 == 1) x |= 1 << i;
+				else if (digits % 3 == 2) o |= 1 << i;
+			}
+			STATUS[index] = status(x, o);
+		}
+	}
+
+	private int x;  // squares of X
+	private int o;  // squares of O
+	private int index;  // base 3 index of the board
+	private int player;  // 0 for x and 1 for o
+	
+	/**
+	 * Generates the start state for TicTacToe.
+	 */
+	public TicTacToeState() {
+		player = 0;
+	}
+	
+	/**
+	 * Generates a position from the squares of each player, as stored by PositionCodec.
+	 * 
+	 * @param x The mask of the squares of X, with bit row*3+col for each square.
+	 * @param o The mask of the squares of O.
+	 * @param player The player whose turn it is: 0 for X and 1 for O.
+	 */
+	TicTacToeState(int x, int o, int player) {
+		this.x = x;
+		this.o = o;
+		this.player = player;
+		for (int i = 0; i < 9; i++) {
+			if ((x & 1 << i) != 0) index += POWERS_OF_3[i];
+			else if ((o & 1 << i) != 0) index += 2 * POWERS_OF_3[i];
+		}
+	}
+	
+	private TicTacToeState(TicTacToeState s, int square) {
+		x = s.x;
+		o = s.o;
+		index = s.index;
+		player = s.player;
+		makeMove(square);
+	}
+	
+	private static byte status(int x, int o) {
+		for (int line : LINES) {
+			if ((x & line) == line) return X_WON;
+			if ((o & line) == line) return O_WON;
+		}
+		return (x | o) == 0777 ? DRAWN : IN_PROGRESS;
+	}
+	
+	/**
+	 * Accesses the squares of X.
+	 * 
+	 * @return The mask of the squares of X, with bit row*3+col for each square.
+	 */
+	int x() {
+		return x;
+	}
+	
+	/**
+	 * Accesses the squares of O.
+	 * 
+	 * @return The mask of the squares of O, with bit row*3+col for each square.
+	 */
+	int o() {
+		return o;
+	}
+	
+	private int empty() {
+		return ~(x | o) & 0777;
+	}
+
+	@Override
+	public boolean isTerminalState() {
+		return STATUS[index] != IN_PROGRESS;
+	}
+
+	@Override
+	public double value() {
+		if (!isTerminalState()) throw new IllegalStateException("Trying to compute value of non-terminal state.");
+		return VALUE_OF_STATUS[STATUS[index]];
+	}
+
+	@Override
+	public int whoseTurn() {
+		return player;
+	}
+
+	@Override
+	public ArrayList<GameState> getSuccessors() {
+		ArrayList<GameState> successors = new ArrayList<GameState>();
+		if (!isTerminalState()) {
+			for (int e = empty(); e != 0; e &= e - 1) {
+				successors.add(new TicTacToeState(this, Integer.numberOfTrailingZeros(e)));
+			}
+		}
+		return successors;
+	}
+
+	@Override
+	public boolean applyMove(int[] params) {
+		if (!isLegalMove(params)) return false;
+		makeMove(params[0]*3 + params[1]);
+		return true;
+	}
+
+	@Override
+	public int maxMoves() {
+		return 9;
+	}
+
+	@Override
+	public int generateMoves(int[] moves) {
+		int n = 0;
+		if (!isTerminalState()) {
+			for (int e = empty(); e != 0; e &= e - 1) {
+				moves[n++] = Integer.numberOfTrailingZeros(e);
+			}
+		}
+		return n;
+	}
+
+	@Override
+	public long makeMove(int move) {
+		if (player == 0) {
+			x |= 1 << move;
+			index += POWERS_OF_3[move];
+		} else {
+			o |= 1 << move;
+			index += 2 * POWERS_OF_3[move];
+		}
+		player = player==0 ? 1 : 0;
+		return 0;
+	}
+
+	@Override
+	public void unmakeMove(int move, long undo) {
+		player = player==0 ? 1 : 0;
+		if (player == 0) {
+			x &= ~(1 << move);
+			index -= POWERS_OF_3[move];
+		} else {
+			o &= ~(1 << move);
+			index -= 2 * POWERS_OF_3[move];
+		}
+	}
+
+	@Override
+	public long zobristKey() {
+		long key = player == 0 ? 0 : ZOBRIST[18];
+		for (int b = x; b != 0; b &= b - 1) {
+			key ^= ZOBRIST[Integer.numberOfTrailingZeros(b)];
+		}
+		for (int b = o; b != 0; b &= b - 1) {
+			key ^= ZOBRIST[9 + Integer.numberOfTrailingZeros(b)];
+		}
+		return key;
+	}
+
+	@Override
+	public TicTacToeState copy() {
+		TicTacToeState s = new TicTacToeState();
+		s.x = x;
+		s.o = o;
+		s.index = index;
+		s.player = player;
+		return s;
+	}
+
+	@Override
+	public boolean isLegalMove(int[] params) {
+		return !isTerminalState() && params[0] >= 0 && params[0] < 3 && params[1] >= 0 && params[1] < 3
+				&& (empty() & 1 << (params[0]*3 + params[1])) != 0;
+	}
+	
+	private char at(int square) {
+		if ((x & 1 << square) != 0) return 'X';
+		if ((o & 1 << square) != 0) return 'O';
+		return ' ';
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < 3; i++) {
+			s.append(at(i*3));
+			for (int j = 1; j < 3; j++) {
+				s.append(" | ").append(at(i*3 + j));
+			}
+			s.append('\n');
+			if (i<2) s.append("--+---+--\n");
+		}
+		return s.toString();
+	}
+
+	@Override
+	public String turnInstructions() {
+		return "Enter row and column separated by spaces (top row is 0, left column is 0):";
+	}
+	
+	/**
+	 * Perfect play, looked up in a table of the solved game that holds a best move of every
+	 * reachable position.  The table is built by a complete minimax search when this class is
+	 * first used, so a game that does not use it does not pay for it.  Of equally good moves,
+	 * the table holds the first in square order, which is the move alpha beta pruning chooses.
+	 */
+	static final class PerfectPlay implements MoveOracle {
+		
+		private static final byte[] BEST_MOVE = new byte[STATUS.length];
+		static {
+			solve(new TicTacToeState(), new byte[STATUS.length], new boolean[STATUS.length]);
+		}
+		
+		/*
+		 * Computes the value of s, -1, 0 or 1, and the best moves of the positions reachable from s.
+		 */
+		private static int solve(TicTacToeState s, byte[] values, boolean[] solved) {
+			if (solved[s.index]) return values[s.index];
+			int best;
+			if (s.isTerminalState()) {
+				best = (int)s.value();
+			} else {
+				best = s.player == 0 ? -2 : 2;
+				for (int e = s.empty(); e != 0; e &= e - 1) {
+					int move = Integer.numberOfTrailingZeros(e);
+					s.makeMove(move);
+					int v = solve(s, values, solved);
+					s.unmakeMove(move, 0);
+					if (s.player == 0 ? v > best : v < best) {
+						best = v;
+						BEST_MOVE[s.index] = (byte)move;
+					}
+				}
+			}
+			solved[s.index] = true;
+			values[s.index] = (byte)best;
+			return best;
+		}
+		
+		@Override
+		public int move(IncrementalGameState s) {
+			if (!(s instanceof TicTacToeState) || s.isTerminalState()) return -1;
+			return BEST_MOVE[((TicTacToeState)s).index];
+		}
+	}
+}
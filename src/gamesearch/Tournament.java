@@ -0,0 +1,675 @@
+package gamesearch;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A headless match between two AI engines, for evaluating heuristics and search algorithms and
+ * for measuring throughput, without the console I/O of GameLoop.  Each opening, reached from the
+ * start position by random moves, is played twice, with each engine moving first once, and the
+ * games are played concurrently on a thread pool.  Each thread of the pool has engines of its
+ * own, which it reuses from game to game, clearing their transposition tables and move ordering
+ * history at the start of each game so the games stay independent.  The time of every move is recorded in a latency
+ * histogram per engine, along with the nodes searched.
+ *
+ * Run from the command line as:
+ * java gamesearch.Tournament game engine0 engine1 openings [option=value ...]
+ * where game is reversi or tictactoe, and an engine is written as
+ * algorithm:limit[:heuristic][:endgame][:qN][:probcut]
+ * with algorithm one of alphabeta, pvs, mtdf or mcts, and limit a search depth in ply, or a
+ * time per move such as 100ms.  For mcts, a limit without ms is a number of playouts, which are
+ * counted as its nodes, and there is no heuristic.  The heuristic of a Reversi engine is pieces,
+ * corners (the default), mobility, or patterns, whose weights are read from reversi.weights if it exists,
+ * or from another file given as patterns=file.  Endgame adds the exact endgame solver, and qN
+ * adds quiescence search of corner captures and moves that force a pass, up to N ply beyond
+ * the depth limit.  probcut prunes with the ProbCut models of reversi.probcut, or of another file
+ * given as probcut=file.  The options are
+ * threads (default: the number of processors), plies (random opening moves, default 4),
+ * seed (default 1), csv (a file for one line per game) and json (a file for the summary).
+ *
+ * For example:
+ * java gamesearch.Tournament reversi pvs:6:corners alphabeta:6:pieces 50 csv=games.csv
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class Tournament {
+
+	// memory budget of each engine's transposition table, since there is one per thread
+	private static final int TRANSPOSITION_TABLE_MB = 16;
+
+	private final String game;
+	private final EngineSpec[] engines;
+	private final int threads;
+	private final int plies;
+	private final long seed;
+	// the engines of each thread, by engine number
+	private final ThreadLocal<Engine[]> threadEngines = new ThreadLocal<Engine[]>() {
+		@Override
+		protected Engine[] initialValue() {
+			return new Engine[] {engines[0].create(), engines[1].create()};
+		}
+	};
+
+	/**
+	 * Initializes a tournament.
+	 *
+	 * @param game reversi or tictactoe.
+	 * @param engine0 The first engine, as algorithm:limit[:heuristic][:endgame][:qN][:probcut].
+	 * @param engine1 The second engine.
+	 * @param threads The number of games played at once.
+	 * @param plies The number of random moves from the start position to each opening.
+	 * @param seed The seed of the random openings.
+	 *
+	 * @throws IllegalArgumentException If the game or an engine is not recognized.
+	 */
+	public Tournament(String game, String engine0, String engine1, int threads, int plies, long seed) {
+		if (!(Perft.startState(game) instanceof IncrementalGameState)) {
+			throw new IllegalArgumentException("Tournaments require a game that supports IncrementalGameState");
+		}
+		this.game = game;
+		engines = new EngineSpec[] {EngineSpec.parse(engine0, game), EngineSpec.parse(engine1, game)};
+		this.threads = Math.max(1, threads);
+		this.plies = plies;
+		this.seed = seed;
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 4) {
+			System.out.println("Usage: java gamesearch.Tournament reversi|tictactoe engine0 engine1 openings "
+					+ "[threads=N] [plies=N] [seed=N] [csv=file] [json=file]");
+			System.out.println("where an engine is alphabeta|pvs|mtdf|mcts:depth|playouts|<millis>ms[:pieces|corners|mobility|patterns][:endgame][:qN][:probcut]");
+			return;
+		}
+		int threads = Runtime.getRuntime().availableProcessors();
+		int plies = 4;
+		long seed = 1;
+		String csv = null;
+		String json = null;
+		for (int i = 4; i < args.length; i++) {
+			int eq = args[i].indexOf('=');
+			String key = eq < 0 ? args[i] : args[i].substring(0, eq);
+			String value = eq < 0 ? "" : args[i].substring(eq + 1);
+			if (key.equals("threads")) threads = Integer.parseInt(value);
+			else if (key.equals("plies")) plies = Integer.parseInt(value);
+			else if (key.equals("seed")) seed = Long.parseLong(value);
+			else if (key.equals("csv")) csv = value;
+			else if (key.equals("json")) json = value;
+			else throw new IllegalArgumentException("Unknown option " + args[i]);
+		}
+		Tournament t = new Tournament(args[0], args[1], args[2], threads, plies, seed);
+		Results r = t.play(Integer.parseInt(args[3]));
+		System.out.print(r);
+		if (csv != null) {
+			try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(csv), StandardCharsets.UTF_8))) {
+				r.writeCsv(out);
+			}
+		}
+		if (json != null) {
+			try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(json), StandardCharsets.UTF_8))) {
+				r.writeJson(out);
+			}
+		}
+	}
+
+	/**
+	 * Plays the tournament.
+	 *
+	 * @param openings The number of openings, each of which is played twice.
+	 *
+	 * @return The results, with the games in the order they were scheduled.
+	 *
+	 * @throws InterruptedException If interrupted while waiting for the games.
+	 */
+	public Results play(int openings) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		try {
+			List<Future<GameRecord>> futures = new ArrayList<Future<GameRecord>>(2 * openings);
+			SplittableRandom random = new SplittableRandom(seed);
+			for (int i = 0; i < openings; i++) {
+				final IncrementalGameState opening = opening(random.split());
+				for (int first = 0; first < 2; first++) {
+					final int id = 2 * i + first;
+					final int openingId = i;
+					final int engineOf0 = first;
+					futures.add(pool.submit(new Callable<GameRecord>() {
+						@Override
+						public GameRecord call() {
+							return playGame(id, openingId, opening.copy(), engineOf0);
+						}
+					}));
+				}
+			}
+			Results results = new Results(engines);
+			for (Future<GameRecord> f : futures) {
+				try {
+					results.add(f.get());
+				} catch (ExecutionException e) {
+					throw new IllegalStateException("A game failed", e.getCause());
+				}
+			}
+			results.elapsedNanos = System.nanoTime() - start;
+			return results;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/*
+	 * Plays random moves from the start position, stopping early at the end of the game.
+	 */
+	private IncrementalGameState opening(SplittableRandom random) {
+		IncrementalGameState s = (IncrementalGameState)Perft.startState(game);
+		int[] moves = new int[s.maxMoves()];
+		for (int i = 0; i < plies && !s.isTerminalState(); i++) {
+			s.makeMove(moves[random.nextInt(s.generateMoves(moves))]);
+		}
+		return s;
+	}
+
+	/*
+	 * Plays a game, with the given engine playing player 0.
+	 */
+	private GameRecord playGame(int id, int opening, IncrementalGameState s, int engineOf0) {
+		Engine[] mine = threadEngines.get();
+		Engine[] players = {mine[engineOf0], mine[1 - engineOf0]};
+		players[0].newGame();
+		players[1].newGame();
+		GameRecord record = new GameRecord(id, opening, engineOf0);
+		while (!s.isTerminalState()) {
+			int p = s.whoseTurn();
+			int e = p == 0 ? engineOf0 : 1 - engineOf0;
+			long t = System.nanoTime();
+			int move = players[p].move(s);
+			t = System.nanoTime() - t;
+			s.makeMove(move);
+			record.moves++;
+			record.nanos[e] += t;
+			record.nodes[e] += players[p].lastNodes();
+			record.latency[e].record(t);
+		}
+		record.value = s.value();
+		return record;
+	}
+
+	/*
+	 * An engine as given on the command line, from which each game creates its own.  Also
+	 * used by GameService.
+	 */
+	static final class EngineSpec {
+		final String name;
+		final AlphaBetaSearcher.Algorithm algorithm;  // null for mcts
+		final int depth;
+		final long millis;
+		final int playouts;
+		final String heuristic;
+		final boolean endgame;
+		final int quiescence;
+		final String probCut;  // the file of the models, or null for none
+
+		private EngineSpec(String name, AlphaBetaSearcher.Algorithm algorithm, int depth, long millis, int playouts,
+				String heuristic, boolean endgame, int quiescence, String probCut) {
+			this.name = name;
+			this.algorithm = algorithm;
+			this.depth = depth;
+			this.millis = millis;
+			this.playouts = playouts;
+			this.heuristic = heuristic;
+			this.endgame = endgame;
+			this.quiescence = quiescence;
+			this.probCut = probCut;
+		}
+
+		static EngineSpec parse(String spec, String game) {
+			String[] parts = spec.split(":");
+			if (parts.length < 2) throw new IllegalArgumentException("Engine " + spec + " has no limit");
+			AlphaBetaSearcher.Algorithm algorithm;
+			if (parts[0].equals("alphabeta")) algorithm = AlphaBetaSearcher.Algorithm.ALPHA_BETA;
+			else if (parts[0].equals("pvs")) algorithm = AlphaBetaSearcher.Algorithm.PVS;
+			else if (parts[0].equals("mtdf")) algorithm = AlphaBetaSearcher.Algorithm.MTDF;
+			else if (parts[0].equals("mcts")) algorithm = null;
+			else throw new IllegalArgumentException("Unknown algorithm " + parts[0]);
+			long millis = 0;
+			int limit = 0;
+			if (parts[1].endsWith("ms")) millis = Long.parseLong(parts[1].substring(0, parts[1].length() - 2));
+			else limit = Integer.parseInt(parts[1]);
+			String heuristic = game.equals("reversi") && algorithm != null ? "corners" : null;
+			boolean endgame = false;
+			int quiescence = 0;
+			String probCut = null;
+			for (int i = 2; i < parts.length; i++) {
+				if (parts[i].equals("endgame") && game.equals("reversi")) endgame = true;
+				else if (parts[i].matches("q[0-9]+") && heuristic != null) quiescence = Integer.parseInt(parts[i].substring(1));
+				else if (parts[i].equals("probcut") && heuristic != null) probCut = ProbCut.DEFAULT_FILE;
+				else if (parts[i].startsWith("probcut=") && heuristic != null) probCut = parts[i].substring(8);
+				else if (heuristic != null) heuristic = parts[i];
+				else throw new IllegalArgumentException("Unknown option " + parts[i] + " of engine " + spec);
+			}
+			// rejects unknown names and unreadable files early
+			if (heuristic != null) heuristic(heuristic);
+			if (probCut != null) probCut(probCut);
+			return new EngineSpec(spec, algorithm, limit, millis, algorithm == null ? limit : 0, heuristic, endgame,
+					quiescence, probCut);
+		}
+
+		static GameHeuristic heuristic(String name) {
+			if (name == null) return null;
+			if (name.equals("pieces")) return new BitboardReversiState.PieceCountHeuristic();
+			if (name.equals("corners")) return new BitboardReversiState.CornersHeuristic();
+			if (name.equals("mobility")) return new BitboardReversiState.MobilityHeuristic();
+			if (name.equals("patterns") || name.startsWith("patterns=")) {
+				Path file = Paths.get(name.equals("patterns") ? PatternHeuristic.DEFAULT_FILE : name.substring(9));
+				if (name.equals("patterns") && !Files.exists(file)) return new PatternHeuristic();
+				try {
+					return PatternHeuristic.load(file);
+				} catch (IOException e) {
+					throw new IllegalArgumentException("Cannot load " + file + ": " + e.getMessage());
+				}
+			}
+			throw new IllegalArgumentException("Unknown heuristic " + name);
+		}
+
+		static ProbCut probCut(String file) {
+			try {
+				return ProbCut.load(Paths.get(file), ProbCut.DEFAULT_THRESHOLD);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Cannot load " + file + ": " + e.getMessage());
+			}
+		}
+
+		Engine create() {
+			if (algorithm == null) return new MonteCarloEngine(this);
+			return new SearchEngine(this);
+		}
+	}
+
+	/*
+	 * The AI of one side of one game.
+	 */
+	static abstract class Engine {
+		private final EndgameSolver solver;
+		private long lastNodes;
+
+		Engine(EngineSpec spec) {
+			solver = spec.endgame ? new EndgameSolver(EndgameSolver.DEFAULT_EMPTIES, false) : null;
+		}
+
+		int move(IncrementalGameState s) {
+			if (solver != null) {
+				int move = solver.move(s);
+				if (move >= 0) {
+					lastNodes = solver.nodes();
+					return move;
+				}
+			}
+			int move = search(s);
+			lastNodes = searchNodes();
+			return move;
+		}
+
+		long lastNodes() {
+			return lastNodes;
+		}
+
+		/*
+		 * Forgets what earlier games taught the engine, before it plays a new game.
+		 */
+		void newGame() {
+		}
+
+		abstract int search(IncrementalGameState s);
+
+		abstract long searchNodes();
+	}
+
+	private static final class SearchEngine extends Engine {
+		private final AlphaBetaSearcher searcher;
+		private final TranspositionTable tt;
+		private final MoveOrderer orderer;
+		private final EngineSpec spec;
+
+		SearchEngine(EngineSpec spec) {
+			super(spec);
+			this.spec = spec;
+			GameHeuristic h = EngineSpec.heuristic(spec.heuristic);
+			searcher = new AlphaBetaSearcher(h);
+			tt = new TranspositionTable(TRANSPOSITION_TABLE_MB);
+			searcher.setTranspositionTable(tt);
+			orderer = new KillerHistoryMoveOrderer(h, GameLoop.PRESORT_DEPTH);
+			searcher.setMoveOrderer(orderer);
+			searcher.setAlgorithm(spec.algorithm);
+			if (spec.quiescence > 0) searcher.setQuiescence(new BitboardReversiState.CornerAndPassMoves(), spec.quiescence);
+			if (spec.probCut != null) searcher.setProbCut(EngineSpec.probCut(spec.probCut));
+		}
+
+		@Override
+		void newGame() {
+			tt.clear();
+			orderer.reset();
+		}
+
+		@Override
+		int search(IncrementalGameState s) {
+			return spec.millis > 0 ? searcher.timedBestMove(s, spec.millis, Integer.MAX_VALUE) : searcher.bestMove(s, spec.depth);
+		}
+
+		@Override
+		long searchNodes() {
+			return searcher.getStatistics().nodes();
+		}
+	}
+
+	private static final class MonteCarloEngine extends Engine {
+		private MonteCarloTreeSearch mcts;
+		private final EngineSpec spec;
+
+		MonteCarloEngine(EngineSpec spec) {
+			super(spec);
+			this.spec = spec;
+			newGame();
+		}
+
+		@Override
+		void newGame() {
+			// a new tree and the same random numbers for every game, whichever thread plays it
+			int nodes = spec.playouts > 0 ? Math.min(2 * spec.playouts, GameLoop.MONTE_CARLO_NODES) : GameLoop.MONTE_CARLO_NODES / 4;
+			mcts = new MonteCarloTreeSearch(nodes, spec.name.hashCode());
+		}
+
+		@Override
+		int search(IncrementalGameState s) {
+			return mcts.bestMove(s, spec.millis, spec.playouts);
+		}
+
+		@Override
+		long searchNodes() {
+			return mcts.iterations();
+		}
+	}
+
+	/*
+	 * What happened in one game.
+	 */
+	private static final class GameRecord {
+		final int id;
+		final int opening;
+		final int engineOf0;
+		double value;
+		int moves;
+		final long[] nanos = new long[2];
+		final long[] nodes = new long[2];
+		final LatencyHistogram[] latency = {new LatencyHistogram(), new LatencyHistogram()};
+
+		GameRecord(int id, int opening, int engineOf0) {
+			this.id = id;
+			this.opening = opening;
+			this.engineOf0 = engineOf0;
+		}
+
+		/*
+		 * The result for an engine: 1 for a win, 0.5 for a draw, 0 for a loss.
+		 */
+		double score(int engine) {
+			double v = engine == engineOf0 ? value : -value;
+			return v > 0 ? 1 : v < 0 ? 0 : 0.5;
+		}
+	}
+
+	/**
+	 * A histogram of move times on a logarithmic scale, with 8 buckets for each power of 2
+	 * nanoseconds, so that a percentile is within about 10% of the true time.
+	 */
+	public static final class LatencyHistogram {
+		private static final int SUB_BUCKETS = 8;
+		private final long[] counts = new long[64 * SUB_BUCKETS];
+		private long count;
+		private long total;
+		private long max;
+
+		/**
+		 * Records a time.
+		 *
+		 * @param nanos The time in nanoseconds.
+		 */
+		public void record(long nanos) {
+			counts[bucket(Math.max(1, nanos))]++;
+			count++;
+			total += nanos;
+			max = Math.max(max, nanos);
+		}
+
+		/**
+		 * Adds the times recorded in another histogram.
+		 *
+		 * @param other The other histogram.
+		 */
+		public void add(LatencyHistogram other) {
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] += other.counts[i];
+			}
+			count += other.count;
+			total += other.total;
+			max = Math.max(max, other.max);
+		}
+
+		/**
+		 * Accesses the number of times recorded.
+		 *
+		 * @return The count.
+		 */
+		public long count() {
+			return count;
+		}
+
+		/**
+		 * Computes the mean time.
+		 *
+		 * @return The mean in nanoseconds, or 0 if nothing was recorded.
+		 */
+		public double mean() {
+			return count == 0 ? 0 : (double)total / count;
+		}
+
+		/**
+		 * Accesses the longest time.
+		 *
+		 * @return The maximum in nanoseconds.
+		 */
+		public long max() {
+			return max;
+		}
+
+		/**
+		 * Estimates a percentile, by the upper bound of the bucket it falls in.
+		 *
+		 * @param p The percentile, between 0 and 100.
+		 *
+		 * @return The time in nanoseconds at or below which p percent of the times fall.
+		 */
+		public long percentile(double p) {
+			if (count == 0) return 0;
+			long rank = Math.max(1, (long)Math.ceil(p / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) return Math.min(max, upperBound(i));
+			}
+			return max;
+		}
+
+		private static int bucket(long nanos) {
+			int power = 63 - Long.numberOfLeadingZeros(nanos);
+			if (power < 3) return (int)nanos;
+			// the 3 bits below the leading one
+			return power * SUB_BUCKETS + (int)(nanos >>> (power - 3) & 7);
+		}
+
+		private static long upperBound(int bucket) {
+			int power = bucket / SUB_BUCKETS;
+			if (power < 3) return bucket;
+			return ((long)(SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << (power - 3)) - 1;
+		}
+	}
+
+	/**
+	 * The results of a tournament: each game, and the totals of each engine.
+	 */
+	public static final class Results {
+		private final EngineSpec[] engines;
+		private final List<GameRecord> games = new ArrayList<GameRecord>();
+		private final double[] points = new double[2];
+		private final int[] wins = new int[2];
+		private final int[] draws = new int[2];
+		private final long[] nanos = new long[2];
+		private final long[] nodes = new long[2];
+		private final LatencyHistogram[] latency = {new LatencyHistogram(), new LatencyHistogram()};
+		private long elapsedNanos;
+
+		private Results(EngineSpec[] engines) {
+			this.engines = engines;
+		}
+
+		private void add(GameRecord g) {
+			games.add(g);
+			for (int e = 0; e < 2; e++) {
+				double score = g.score(e);
+				points[e] += score;
+				if (score == 1) wins[e]++;
+				else if (score == 0.5) draws[e]++;
+				nanos[e] += g.nanos[e];
+				nodes[e] += g.nodes[e];
+				latency[e].add(g.latency[e]);
+			}
+		}
+
+		/**
+		 * Accesses the score of an engine.
+		 *
+		 * @param engine 0 or 1.
+		 *
+		 * @return The number of wins plus half the number of draws.
+		 */
+		public double points(int engine) {
+			return points[engine];
+		}
+
+		/**
+		 * Accesses the move times of an engine.
+		 *
+		 * @param engine 0 or 1.
+		 *
+		 * @return The histogram of the engine's move times over all games.
+		 */
+		public LatencyHistogram latency(int engine) {
+			return latency[engine];
+		}
+
+		/**
+		 * Computes the search speed of an engine.
+		 *
+		 * @param engine 0 or 1.
+		 *
+		 * @return The number of nodes the engine searched per second of its own move time.
+		 */
+		public double nodesPerSecond(int engine) {
+			return nanos[engine] == 0 ? 0 : nodes[engine] / (nanos[engine] / 1e9);
+		}
+
+		/**
+		 * Writes one line per game, after a header line.
+		 *
+		 * @param out Where to write.
+		 */
+		public void writeCsv(PrintWriter out) {
+			out.println("game,opening,player0,player1,value,moves,seconds0,seconds1,nodes0,nodes1");
+			for (GameRecord g : games) {
+				int e0 = g.engineOf0;
+				int e1 = 1 - e0;
+				out.printf(Locale.ROOT, "%d,%d,%s,%s,%s,%d,%.6f,%.6f,%d,%d%n", g.id, g.opening, csv(engines[e0].name),
+						csv(engines[e1].name), g.value, g.moves, g.nanos[e0] / 1e9, g.nanos[e1] / 1e9, g.nodes[e0], g.nodes[e1]);
+			}
+		}
+
+		/**
+		 * Writes the totals of each engine as a JSON object.
+		 *
+		 * @param out Where to write.
+		 */
+		public void writeJson(PrintWriter out) {
+			out.println("{");
+			out.printf(Locale.ROOT, "  \"games\": %d,%n", games.size());
+			out.printf(Locale.ROOT, "  \"seconds\": %.3f,%n", elapsedNanos / 1e9);
+			out.println("  \"engines\": [");
+			for (int e = 0; e < 2; e++) {
+				LatencyHistogram l = latency[e];
+				out.println("    {");
+				out.printf(Locale.ROOT, "      \"engine\": %s,%n", json(engines[e].name));
+				out.printf(Locale.ROOT, "      \"points\": %.1f,%n", points[e]);
+				out.printf(Locale.ROOT, "      \"wins\": %d,%n", wins[e]);
+				out.printf(Locale.ROOT, "      \"draws\": %d,%n", draws[e]);
+				out.printf(Locale.ROOT, "      \"losses\": %d,%n", games.size() - wins[e] - draws[e]);
+				out.printf(Locale.ROOT, "      \"moves\": %d,%n", l.count());
+				out.printf(Locale.ROOT, "      \"nodes\": %d,%n", nodes[e]);
+				out.printf(Locale.ROOT, "      \"nodesPerSecond\": %.0f,%n", nodesPerSecond(e));
+				out.printf(Locale.ROOT, "      \"latencyMillis\": {\"mean\": %.3f, \"p50\": %.3f, \"p90\": %.3f, "
+						+ "\"p99\": %.3f, \"max\": %.3f}%n", l.mean() / 1e6, l.percentile(50) / 1e6,
+						l.percentile(90) / 1e6, l.percentile(99) / 1e6, l.max() / 1e6);
+				out.println(e == 0 ? "    }," : "    }");
+			}
+			out.println("  ]");
+			out.println("}");
+		}
+
+		/*
+		 * A CSV field, quoted if it contains a comma, quote or line break.
+		 */
+		private static String csv(String field) {
+			if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+				return field;
+			}
+			return '"' + field.replace("\"", "\"\"") + '"';
+		}
+
+		/*
+		 * A JSON string literal.
+		 */
+		private static String json(String value) {
+			StringBuilder b = new StringBuilder("\"");
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c == '"' || c == '\\') b.append('\\').append(c);
+				else if (c < 0x20) b.append(String.format("\\u%04x", (int)c));
+				else b.append(c);
+			}
+			return b.append('"').toString();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder b = new StringBuilder();
+			double seconds = elapsedNanos / 1e9;
+			b.append(String.format("%d games in %.1f s (%.2f games/s)%n", games.size(), seconds, games.size() / seconds));
+			for (int e = 0; e < 2; e++) {
+				LatencyHistogram l = latency[e];
+				b.append(String.format("%s: %.1f points (+%d =%d -%d), %.0f nodes/s, move ms mean %.2f p50 %.2f p90 %.2f p99 %.2f max %.2f%n",
+						engines[e].name, points[e], wins[e], draws[e], games.size() - wins[e] - draws[e], nodesPerSecond(e),
+						l.mean() / 1e6, l.percentile(50) / 1e6, l.percentile(90) / 1e6, l.percentile(99) / 1e6, l.max() / 1e6));
+			}
+			return b.toString();
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package gamesearch;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size transposition table for game search, indexed by Zobrist key.  Each entry
+ * records the value found by searching a state, the depth of that search, whether the value is
+ * exact or only a lower or upper bound (because the search was cut off by alpha or beta), and
+ * the best move found.
+ *
+ * Entries live in three preallocated long arrays, so storing and probing creates no objects.
+ * The table is lock-free and may be shared by concurrent searches: each entry's key is stored
+ * as the exclusive or of the key and the entry's two data words, so an entry that was torn by a
+ * concurrent write fails the key check and is treated as a miss.
+ *
+ * Counts of probes, hits, stores, and cutoffs are kept for sizing the table.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class TranspositionTable {
+
+	/** Bound type of an entry whose value is the exact value of the state. */
+	public static final int EXACT = 0;
+	/** Bound type of an entry whose value is a lower bound on the value of the state. */
+	public static final int LOWER = 1;
+	/** Bound type of an entry whose value is an upper bound on the value of the state. */
+	public static final int UPPER = 2;
+
+	/** The largest search depth that can be stored. */
+	public static final int MAX_DEPTH = 0xFFFF;
+
+	private static final int BYTES_PER_ENTRY = 24;
+
+	private final long[] keys;
+	private final long[] values;
+	private final long[] data;
+	private final int mask;
+
+	private final LongAdder probes = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+	private final LongAdder cutoffs = new LongAdder();
+
+	/**
+	 * The contents of an entry found by a probe.  A search should reuse one of these for all of
+	 * its probes.
+	 */
+	public static final class Probe {
+		/** The value of the state, or a bound on it. */
+		public double value;
+		/** The depth of the search that computed the value. */
+		public int depth;
+		/** One of EXACT, LOWER, or UPPER. */
+		public int bound;
+		/** The best move found, or -1 if none was recorded. */
+		public int move;
+	}
+
+	/**
+	 * Initializes an empty table.
+	 *
+	 * @param megabytes The memory budget.  The table has the largest power of two number of
+	 * 			entries that fits within it, and at least one entry.
+	 */
+	public TranspositionTable(int megabytes) {
+		long budget = (long)megabytes << 20;
+		long entries = Long.highestOneBit(Math.max(1, budget / BYTES_PER_ENTRY));
+		int size = (int)Math.min(entries, 1 << 30);
+		keys = new long[size];
+		values = new long[size];
+		data = new long[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Looks up a state.
+	 *
+	 * @param key The Zobrist key of the state.
+	 * @param p Set to the contents of the entry if the state is found.
+	 *
+	 * @return true if the state is found and false otherwise.
+	 */
+	public boolean probe(long key, Probe p) {
+		probes.increment();
+		int i = (int)key & mask;
+		long d = data[i];
+		long v = values[i];
+		if ((keys[i] ^ d ^ v) != key || d == 0) return false;
+		hits.increment();
+		p.value = Double.longBitsToDouble(v);
+		p.depth = (int)(d & 0xFFFF);
+		p.bound = (int)(d >>> 16) & 3;
+		p.move = (int)(d >>> 18 & 0xFFFF) - 1;
+		return true;
+	}
+
+	/**
+	 * Records the result of searching a state, replacing whatever was in its slot unless that
+	 * is the same state searched more deeply.
+	 *
+	 * @param key The Zobrist key of the state.
+	 * @param value The value found by the search.
+	 * @param depth The depth of the search.  Depths greater than MAX_DEPTH are stored as MAX_DEPTH.
+	 * @param bound One of EXACT, LOWER, or UPPER.
+	 * @param move The best move found, or -1 if none.
+	 */
+	public void store(long key, double value, int depth, int bound, int move) {
+		int i = (int)key & mask;
+		long oldData = data[i];
+		if ((keys[i] ^ oldData ^ values[i]) == key && (oldData & 0xFFFF) > depth) return;
+		long d = Math.min(depth, MAX_DEPTH) | (long)bound << 16 | (long)(move + 1 & 0xFFFF) << 18 | 1L << 34;
+		long v = Double.doubleToLongBits(value);
+		data[i] = d;
+		values[i] = v;
+		keys[i] = key ^ d ^ v;
+		stores.increment();
+	}
+
+	/**
+	 * Counts a probe whose entry allowed a search to skip searching the state.
+	 */
+	public void countCutoff() {
+		cutoffs.increment();
+	}
+
+	/**
+	 * Empties the table and resets its counters.
+	 */
+	public void clear() {
+		for (int i = 0; i <= mask; i++) {
+			keys[i] = values[i] = data[i] = 0;
+		}
+		probes.reset();
+		hits.reset();
+		stores.reset();
+		cutoffs.reset();
+	}
+
+	/**
+	 * Accesses the number of entries.
+	 *
+	 * @return The number of entries in the table.
+	 */
+	public int capacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Accesses the number of probes.
+	 *
+	 * @return The number of calls to probe since the table was created or cleared.
+	 */
+	public long probes() {
+		return probes.sum();
+	}
+
+	/**
+	 * Accesses the number of hits.
+	 *
+	 * @return The number of probes that found their state.
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Accesses the number of stores.
+	 *
+	 * @return The number of entries written.
+	 */
+	public long stores() {
+		return stores.sum();
+	}
+
+	/**
+	 * Accesses the number of cutoffs.
+	 *
+	 * @return The number of hits that allowed a search to skip a state.
+	 */
+	public long cutoffs() {
+		return cutoffs.sum();
+	}
+
+	/**
+	 * Estimates the fraction of entries in use from a sample of the table.
+	 *
+	 * @return The fraction of the first (up to) 4096 entries that are in use.
+	 */
+	public double fill() {
+		int n = Math.min(4096, mask + 1);
+		int used = 0;
+		for (int i = 0; i < n; i++) {
+			if (data[i] != 0) used++;
+		}
+		return used / (double)n;
+	}
+
+	@Override
+	public String toString() {
+		long p = probes();
+		long hit = hits();
+		return String.format("TT %d entries (%d KB), %.1f%% full: %d probes, %d hits (%.1f%%), %d cutoffs, %d stores",
+				capacity(), (long)capacity() * BYTES_PER_ENTRY >> 10, 100 * fill(), p, hit,
+				p == 0 ? 0.0 : 100.0 * hit / p, cutoffs(), stores());
+	}
+}
@@ -0,0 +1,419 @@
+package gamesearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Parallel alpha beta pruning by the Young Brothers Wait Concept.  At every node with at least
+ * a minimum remaining depth, the first (eldest) move is searched alone, and only once its value
+ * is known are its younger brothers searched, concurrently, as fork-join tasks.  Nodes with less
+ * remaining depth are searched sequentially by an AlphaBetaSearcher of the worker thread, which
+ * also runs any quiescence search beyond the depth limit.  With ProbCut, a node is checked for
+ * pruning by the worker's searcher before it is split.
+ *
+ * The window of a node is shared by its concurrently searched children: each child starts with
+ * the node's current alpha and beta, which are narrowed as children finish.  When a child's
+ * value causes a cutoff, the node is aborted, and every search below it, sequential or
+ * parallel, abandons its work at its next check, since its result is no longer needed.
+ *
+ * As in AlphaBetaPruning, nodes where player 0 moves maximize and nodes where player 1 moves
+ * minimize, whichever player moved last.  Of equally valued best moves, the one chosen is the
+ * first in the order the state generates them, whichever thread finishes first: a move that
+ * precedes the best move found so far is searched with a bound just beyond that move's value,
+ * so a tie with it is detected.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class YoungBrothersWaitSearch {
+
+	/** Default minimum remaining depth at which the younger brothers are searched in parallel. */
+	public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+	private final GameHeuristic h;
+	private final TranspositionTable tt;
+	private final ForkJoinPool pool;
+	private final int splitDepth;
+	private final ThreadLocal<Worker> workers;
+	private final List<Worker> allWorkers = new ArrayList<Worker>();
+	private final SearchStatistics stats = new SearchStatistics();
+	private final AtomicLong splitNodes = new AtomicLong();
+	private double bestValue;
+	private volatile AlphaBetaSearcher.Algorithm algorithm = AlphaBetaSearcher.Algorithm.ALPHA_BETA;
+	private volatile TacticalMoveFilter tactical;
+	private volatile int quiescenceDepth;
+	private volatile ProbCut probCut;
+	private volatile int rootDepth;
+
+	/**
+	 * Initializes a parallel searcher.
+	 *
+	 * @param h A heuristic to estimate the game theoretic value of states at the depth limit.
+	 * 			If h is null, then the search isn't limited by depth.
+	 * @param tt A transposition table shared by the threads, or null for none.
+	 * @param pool The threads that search.
+	 * @param splitDepth The minimum remaining depth at which a node's younger brothers are searched
+	 * 			in parallel.  Shallower nodes are searched sequentially.
+	 */
+	public YoungBrothersWaitSearch(GameHeuristic h, TranspositionTable tt, ForkJoinPool pool, int splitDepth) {
+		this.h = h;
+		this.tt = tt;
+		this.pool = pool;
+		this.splitDepth = Math.max(1, splitDepth);
+		workers = new ThreadLocal<Worker>() {
+			@Override
+			protected Worker initialValue() {
+				Worker w = new Worker(new AlphaBetaSearcher(YoungBrothersWaitSearch.this.h));
+				w.searcher.setTranspositionTable(YoungBrothersWaitSearch.this.tt);
+				synchronized (allWorkers) {
+					allWorkers.add(w);
+				}
+				return w;
+			}
+		};
+	}
+
+	/**
+	 * Selects a move for the player whose turn it is.
+	 *
+	 * @param s The game state, which is not modified.  Must not be terminal.
+	 * @param searchDepth The depth, in ply, to limit the search, counting the move itself.
+	 * 			Ignored if the heuristic is null.
+	 *
+	 * @return The best move, or -1 if s has no moves.
+	 */
+	public int bestMove(IncrementalGameState s, int searchDepth) {
+		final IncrementalGameState root = s.copy();
+		final int depth = depth(searchDepth);
+		rootDepth = depth;
+		final SplitNode[] result = new SplitNode[1];
+		startStatistics();
+		bestValue = pool.invoke(new RecursiveTask<Double>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Double compute() {
+				result[0] = new SplitNode(null, root.whoseTurn() == 0,
+						Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+				return search(root, depth, result[0]);
+			}
+		});
+		stopStatistics(depth);
+		return result[0].bestMove;
+	}
+
+	/**
+	 * Sets the algorithm of the sequential searches of later searches.  The default is ALPHA_BETA.
+	 *
+	 * @param algorithm The algorithm.
+	 */
+	public void setAlgorithm(AlphaBetaSearcher.Algorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Enables quiescence search in later searches (see AlphaBetaSearcher.setQuiescence), or
+	 * disables it.  Ignored if the heuristic is null.
+	 *
+	 * @param tactical The moves to search beyond the depth limit, or null to disable quiescence search.
+	 * @param maxDepth The most ply to search beyond the depth limit.
+	 */
+	public void setQuiescence(TacticalMoveFilter tactical, int maxDepth) {
+		this.tactical = maxDepth > 0 ? tactical : null;
+		quiescenceDepth = maxDepth;
+	}
+
+	/**
+	 * Sets the ProbCut models of later searches (see AlphaBetaSearcher.setProbCut).  Ignored if
+	 * the heuristic is null.
+	 *
+	 * @param probCut The models, or null to prune nothing.
+	 */
+	public void setProbCut(ProbCut probCut) {
+		this.probCut = probCut;
+	}
+
+	/**
+	 * Accesses the statistics of the most recent search, totaled over all of the threads.
+	 *
+	 * @return The statistics.
+	 */
+	public SearchStatistics getStatistics() {
+		return stats;
+	}
+
+	/**
+	 * Accesses the value of the move chosen by the most recent call to bestMove.
+	 *
+	 * @return The estimated game-theoretic value of the chosen move.
+	 */
+	public double bestValue() {
+		return bestValue;
+	}
+
+	/**
+	 * Evaluates a player 0 state with parallel alpha beta pruning.
+	 *
+	 * @param s The game state to evaluate, which is not modified.
+	 * @param alpha The value of alpha.
+	 * @param beta The value of beta.
+	 * @param searchDepth The depth to limit the search.  Ignored if the heuristic is null.
+	 *
+	 * @return The estimated game-theoretic value of s.
+	 */
+	public double maxValue(IncrementalGameState s, double alpha, double beta, int searchDepth) {
+		return value(s, true, alpha, beta, searchDepth);
+	}
+
+	/**
+	 * Evaluates a player 1 state with parallel alpha beta pruning.
+	 *
+	 * @param s The game state to evaluate, which is not modified.
+	 * @param alpha The value of alpha.
+	 * @param beta The value of beta.
+	 * @param searchDepth The depth to limit the search.  Ignored if the heuristic is null.
+	 *
+	 * @return The estimated game-theoretic value of s.
+	 */
+	public double minValue(IncrementalGameState s, double alpha, double beta, int searchDepth) {
+		return value(s, false, alpha, beta, searchDepth);
+	}
+
+	private double value(IncrementalGameState s, final boolean max, final double alpha, final double beta, int searchDepth) {
+		final IncrementalGameState root = s.copy();
+		final int depth = depth(searchDepth);
+		rootDepth = depth;
+		startStatistics();
+		double v = pool.invoke(new RecursiveTask<Double>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Double compute() {
+				if (root.isTerminalState()) return root.value();
+				return search(root, depth, new SplitNode(null, max, alpha, beta));
+			}
+		});
+		stopStatistics(depth);
+		return v;
+	}
+
+	private int depth(int searchDepth) {
+		return h == null ? AlphaBetaSearcher.UNLIMITED_DEPTH : Math.min(searchDepth, AlphaBetaSearcher.UNLIMITED_DEPTH);
+	}
+
+	/*
+	 * Evaluates the state s of the given node, which must not be terminal, from within a
+	 * fork-join worker thread.  s is restored before returning.  The value returned is
+	 * meaningless if an ancestor of the node has been aborted.
+	 */
+	private double search(IncrementalGameState s, int depth, SplitNode node) {
+		splitNodes.incrementAndGet();
+		int[] moves = new int[s.maxMoves()];
+		int n = s.generateMoves(moves);
+		// the eldest brother is the transposition table's best move, if any, and otherwise the first
+		int eldest = 0;
+		if (tt != null) {
+			TranspositionTable.Probe probe = new TranspositionTable.Probe();
+			if (tt.probe(s.zobristKey(), probe)) {
+				for (int i = 1; i < n; i++) {
+					if (moves[i] == probe.move) {
+						eldest = i;
+						break;
+					}
+				}
+			}
+		}
+		// the eldest brother is searched first, and alone
+		long undo = s.makeMove(moves[eldest]);
+		double v = child(s, depth - 1, node, eldest);
+		s.unmakeMove(moves[eldest], undo);
+		if (node.parentAborted()) return 0;
+		node.update(v, eldest, moves[eldest]);
+		if (n > 1 && !node.aborted) {
+			ArrayList<YoungerBrother> brothers = new ArrayList<YoungerBrother>(n - 1);
+			for (int i = 0; i < n; i++) {
+				if (i != eldest) brothers.add(new YoungerBrother(s, moves[i], i, depth - 1, node));
+			}
+			RecursiveAction.invokeAll(brothers);
+		}
+		if (node.parentAborted()) return 0;
+		if (tt != null) {
+			tt.store(s.zobristKey(), node.best, depth, node.best >= node.originalBeta ? TranspositionTable.LOWER :
+				(node.best <= node.originalAlpha ? TranspositionTable.UPPER : TranspositionTable.EXACT), node.bestMove);
+		}
+		return node.best;
+	}
+
+	/*
+	 * Evaluates a child of node, whose state is s, using node's current window.  index is the
+	 * position of the child's move in the order the node's state generated its moves.
+	 */
+	private double child(IncrementalGameState s, int depth, SplitNode node, int index) {
+		double alpha, beta;
+		synchronized (node) {
+			alpha = node.alpha;
+			beta = node.beta;
+			if (node.bestIndex > index) {
+				// search just wide enough to detect a tie with the best move so far
+				if (node.max) alpha = Math.nextDown(alpha);
+				else beta = Math.nextUp(beta);
+			}
+		}
+		if (s.isTerminalState()) return s.value();
+		if (depth == 0 && tactical == null) return h.h(s);
+		boolean max = s.whoseTurn() == 0;
+		if (depth < splitDepth) {
+			Worker w = worker(node);
+			double v = max ? w.searcher.maxValue(s, alpha, beta, depth) : w.searcher.minValue(s, alpha, beta, depth);
+			w.searcher.setAbortSignal(null);
+			w.total.add(w.searcher.getStatistics(), rootDepth - depth);
+			return v;
+		}
+		ProbCut p = probCut;
+		if (h != null && p != null && p.shallowDepth(depth) > 0) {
+			Worker w = worker(node);
+			int cut = w.searcher.probCut(s, alpha, beta, depth);
+			w.searcher.setAbortSignal(null);
+			w.total.add(w.searcher.getStatistics(), rootDepth - depth);
+			if (cut > 0) return beta;
+			if (cut < 0) return alpha;
+		}
+		return search(s, depth, new SplitNode(node, max, alpha, beta));
+	}
+
+	/*
+	 * The worker of the current thread, with its searcher set up for a search below node.
+	 */
+	private Worker worker(SplitNode node) {
+		Worker w = workers.get();
+		w.searcher.setAlgorithm(algorithm);
+		w.searcher.setQuiescence(tactical, quiescenceDepth);
+		w.searcher.setProbCut(probCut);
+		w.searcher.setAbortSignal(node);
+		return w;
+	}
+
+	/*
+	 * A node of the tree whose children may be searched in parallel.  It is also the abort
+	 * signal of the sequential searches below it.
+	 */
+	private static final class SplitNode implements BooleanSupplier {
+		private final SplitNode parent;
+		private final boolean max;
+		private final double originalAlpha;
+		private final double originalBeta;
+		private double alpha;
+		private double beta;
+		private double best;
+		private int bestMove;
+		private int bestIndex;
+		private volatile boolean aborted;
+
+		SplitNode(SplitNode parent, boolean max, double alpha, double beta) {
+			this.parent = parent;
+			this.max = max;
+			originalAlpha = this.alpha = alpha;
+			originalBeta = this.beta = beta;
+			best = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+			bestMove = -1;
+			bestIndex = -1;
+		}
+
+		/*
+		 * Records the value of a child, aborting the other children on a cutoff.  Of children of
+		 * equal value, the one whose move was generated first is kept.
+		 */
+		synchronized void update(double v, int index, int move) {
+			if (bestIndex < 0 || (max ? v > best : v < best) || v == best && index < bestIndex) {
+				best = v;
+				bestMove = move;
+				bestIndex = index;
+				if (max) alpha = Math.max(alpha, v);
+				else beta = Math.min(beta, v);
+				if (alpha >= beta) aborted = true;
+			}
+		}
+
+		/*
+		 * Checks whether this node or any of its ancestors has been aborted.
+		 */
+		@Override
+		public boolean getAsBoolean() {
+			for (SplitNode n = this; n != null; n = n.parent) {
+				if (n.aborted) return true;
+			}
+			return false;
+		}
+
+		boolean parentAborted() {
+			return parent != null && parent.getAsBoolean();
+		}
+	}
+
+	/*
+	 * Searches one of the younger brothers of a node, on a copy of the state.
+	 */
+	private final class YoungerBrother extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final IncrementalGameState s;
+		private final int move;
+		private final int index;
+		private final int depth;
+		private final SplitNode node;
+
+		YoungerBrother(IncrementalGameState s, int move, int index, int depth, SplitNode node) {
+			this.s = s.copy();
+			this.move = move;
+			this.index = index;
+			this.depth = depth;
+			this.node = node;
+		}
+
+		@Override
+		protected void compute() {
+			if (node.getAsBoolean()) return;
+			s.makeMove(move);
+			double v = child(s, depth, node, index);
+			if (!node.getAsBoolean()) node.update(v, index, move);
+		}
+	}
+
+	/*
+	 * A thread's searcher, and the statistics of its searches during the current parallel search.
+	 */
+	private static final class Worker {
+		final AlphaBetaSearcher searcher;
+		final SearchStatistics total = new SearchStatistics();
+
+		Worker(AlphaBetaSearcher searcher) {
+			this.searcher = searcher;
+		}
+	}
+
+	private void startStatistics() {
+		synchronized (allWorkers) {
+			for (Worker w : allWorkers) {
+				w.total.start();
+			}
+		}
+		splitNodes.set(0);
+		stats.start();
+	}
+
+	private void stopStatistics(int depth) {
+		stats.stop(depth);
+		// the nodes above the split depth, which were searched here rather than by a worker's searcher
+		stats.nodes += splitNodes.get();
+		synchronized (allWorkers) {
+			for (Worker w : allWorkers) {
+				stats.add(w.total);
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package gamesearch;
+
+/**
+ * Random numbers for Zobrist hashing of game states.  A state's key is the exclusive or of one
+ * random number per (piece, square) pair on the board, plus one more if player 1 is to move.
+ * The numbers come from a fixed seed so that keys are the same in every run of the program,
+ * which allows them to be stored in files such as opening books.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+final class Zobrist {
+
+	private Zobrist() {}
+
+	/**
+	 * Generates a reproducible sequence of random numbers (SplitMix64).
+	 *
+	 * @param n The number of random numbers.
+	 * @param seed The seed, which determines the sequence.
+	 *
+	 * @return An array of n pseudorandom longs.
+	 */
+	static long[] randoms(int n, long seed) {
+		long[] r = new long[n];
+		long x = seed;
+		for (int i = 0; i < n; i++) {
+			x += 0x9E3779B97F4A7C15L;
+			long z = x;
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			r[i] = z ^ (z >>> 31);
+		}
+		return r;
+	}
+}
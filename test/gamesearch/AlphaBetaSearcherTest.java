@@ -0,0 +1,84 @@
+package gamesearch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the root moves of each of AlphaBetaSearcher's algorithms against the root value of
+ * plain alpha beta pruning: the move chosen must itself have the root's value.  Positions are
+ * reached by random play, so that either player may be to move, including the second player,
+ * whose root searches minimize.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class AlphaBetaSearcherTest {
+
+	private static final int REVERSI_POSITIONS = 60;
+	private static final int REVERSI_DEPTH = 4;
+
+	@Test
+	public void reversiRootMovesHaveTheRootValue() {
+		Random random = new Random(0xAB5EA7CL);
+		GameHeuristic h = new BitboardReversiState.CornersHeuristic();
+		TranspositionTable tt = new TranspositionTable(4);
+		int[] moves = new int[64];
+		for (int i = 0; i < REVERSI_POSITIONS; i++) {
+			BitboardReversiState s = new BitboardReversiState();
+			int plies = 4 + random.nextInt(40);
+			for (int p = 0; p < plies && !s.isTerminalState(); p++) {
+				int n = s.generateMoves(moves);
+				s.makeMove(moves[random.nextInt(n)]);
+			}
+			if (s.isTerminalState()) continue;
+			for (AlphaBetaSearcher.Algorithm algorithm : AlphaBetaSearcher.Algorithm.values()) {
+				tt.clear();
+				assertRootMove(s, h, tt, algorithm, REVERSI_DEPTH);
+			}
+		}
+	}
+
+	@Test
+	public void ticTacToeRootMovesHaveTheRootValue() {
+		// every position with O to move, as when the AI plays O, and some with X to move
+		Random random = new Random(0x7AC70EL);
+		int[] moves = new int[9];
+		for (int i = 0; i < 200; i++) {
+			IncrementalGameState s = TicTacToeGame.startState();
+			int plies = i < 100 ? 1 + 2 * random.nextInt(4) : random.nextInt(8);
+			for (int p = 0; p < plies && !s.isTerminalState(); p++) {
+				int n = s.generateMoves(moves);
+				s.makeMove(moves[random.nextInt(n)]);
+			}
+			if (s.isTerminalState()) continue;
+			for (AlphaBetaSearcher.Algorithm algorithm : AlphaBetaSearcher.Algorithm.values()) {
+				assertRootMove(s, null, new TranspositionTable(1), algorithm, 0);
+			}
+		}
+	}
+
+	private static void assertRootMove(IncrementalGameState s, GameHeuristic h, TranspositionTable tt,
+			AlphaBetaSearcher.Algorithm algorithm, int depth) {
+		AlphaBetaSearcher plain = new AlphaBetaSearcher(h);
+		plain.bestMove(s, depth);
+		double value = plain.bestValue();
+
+		AlphaBetaSearcher searcher = new AlphaBetaSearcher(h);
+		searcher.setAlgorithm(algorithm);
+		searcher.setTranspositionTable(tt);
+		int move = searcher.bestMove(s, depth);
+		String message = algorithm + " to move " + s.whoseTurn() + "\n" + s;
+		assertEquals(message, value, searcher.bestValue(), 1e-12);
+
+		// the value of the move chosen, by plain alpha beta pruning
+		long undo = s.makeMove(move);
+		double moveValue = s.isTerminalState() ? s.value() : s.whoseTurn() == 0 ?
+				plain.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth - 1) :
+				plain.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, depth - 1);
+		s.unmakeMove(move, undo);
+		assertEquals(message + "move " + move, value, moveValue, 1e-12);
+	}
+}
@@ -0,0 +1,127 @@
+package gamesearch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks BitboardReversiState against ReversiState, which it must play identically, by playing
+ * random games on both and comparing them at every ply: the pieces, whose turn it is (and so
+ * passes), terminal detection and value, the legal moves, the flips of each move, the successors,
+ * and the restoring of the state by unmakeMove.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class BitboardReversiStateTest {
+
+	private static final int GAMES = 300;
+
+	@Test
+	public void randomGamesMatchReversiState() {
+		Random random = new Random(0x0E11011L);
+		int passes = 0;
+		int early = 0;
+		for (int game = 0; game < GAMES; game++) {
+			GameState a = ReversiGame.arrayState();
+			BitboardReversiState b = new BitboardReversiState();
+			int[] moves = new int[b.maxMoves()];
+			while (true) {
+				assertSame(a, b);
+				if (b.isTerminalState()) {
+					assertEquals(a.value(), b.value(), 0);
+					if ((b.discs0() | b.discs1()) != -1L) early++;
+					break;
+				}
+				int n = b.generateMoves(moves);
+				assertLegalMoves(a, b, moves, n);
+				assertSuccessors(a, b);
+				for (int i = 0; i < n; i++) {
+					assertMakeUnmake(b, moves[i]);
+				}
+				int move = moves[random.nextInt(n)];
+				int player = b.whoseTurn();
+				assertTrue(a.applyMove(new int[] {move / 8, move % 8}));
+				b.makeMove(move);
+				if (!b.isTerminalState() && b.whoseTurn() == player) passes++;
+			}
+		}
+		// the games must exercise the rules for a player with no move
+		assertTrue("no passes were played", passes > 0);
+		assertTrue("no game ended with empty squares", early > 0);
+	}
+
+	@Test
+	public void positionsMatchReversiState() {
+		// a position where player 1 has no move, and one where neither player has a move
+		long discs0 = BitboardReversiState.bit(0, 0) | BitboardReversiState.bit(0, 1);
+		long discs1 = BitboardReversiState.bit(0, 2);
+		assertSame(ReversiGame.arrayState(discs0, discs1, 0), new BitboardReversiState(discs0, discs1, 0));
+		assertSame(ReversiGame.arrayState(discs0, 0, 0), new BitboardReversiState(discs0, 0, 0));
+		assertTrue(new BitboardReversiState(discs0, 0, 0).isTerminalState());
+	}
+
+	private static void assertSame(GameState a, BitboardReversiState b) {
+		assertEquals(ReversiGame.discs(a, 0), b.discs0());
+		assertEquals(ReversiGame.discs(a, 1), b.discs1());
+		assertEquals(a.whoseTurn(), b.whoseTurn());
+		assertEquals(a.isTerminalState(), b.isTerminalState());
+		if (b.isTerminalState()) assertEquals(a.value(), b.value(), 0);
+	}
+
+	private static void assertLegalMoves(GameState a, BitboardReversiState b, int[] moves, int n) {
+		long legal = 0;
+		for (int square = 0; square < 64; square++) {
+			boolean isLegal = a.isLegalMove(new int[] {square / 8, square % 8});
+			assertEquals("square " + square, isLegal, b.isLegalMove(new int[] {square / 8, square % 8}));
+			if (isLegal) legal |= 1L << square;
+		}
+		assertEquals(legal, b.legalMoves());
+		int[] expected = new int[Long.bitCount(legal)];
+		for (int i = 0; legal != 0; i++, legal &= legal - 1) {
+			expected[i] = Long.numberOfTrailingZeros(legal);
+		}
+		int[] actual = new int[n];
+		System.arraycopy(moves, 0, actual, 0, n);
+		assertArrayEquals(expected, actual);
+	}
+
+	private static void assertSuccessors(GameState a, BitboardReversiState b) {
+		ArrayList<GameState> expected = a.getSuccessors();
+		ArrayList<GameState> actual = b.getSuccessors();
+		assertEquals(expected.size(), actual.size());
+		long own = b.whoseTurn() == 0 ? b.discs0() : b.discs1();
+		long opp = b.whoseTurn() == 0 ? b.discs1() : b.discs0();
+		for (int i = 0; i < expected.size(); i++) {
+			BitboardReversiState successor = (BitboardReversiState)actual.get(i);
+			assertSame(expected.get(i), successor);
+			// the flips are the pieces the mover gains, other than the square played
+			long gained = (b.whoseTurn() == 0 ? successor.discs0() : successor.discs1()) & ~own;
+			int square = Long.numberOfTrailingZeros(gained & ~opp);
+			assertEquals(1, Long.bitCount(gained & ~opp));
+			assertEquals(gained & opp, BitboardReversiState.flips(own, opp, square));
+		}
+	}
+
+	private static void assertMakeUnmake(BitboardReversiState b, int move) {
+		BitboardReversiState before = b.copy();
+		long key = b.zobristKey();
+		BitboardReversiState after = b.copy();
+		after.applyMove(new int[] {move / 8, move % 8});
+		long undo = b.makeMove(move);
+		assertEquals(after.discs0(), b.discs0());
+		assertEquals(after.discs1(), b.discs1());
+		assertEquals(after.whoseTurn(), b.whoseTurn());
+		assertEquals(after.zobristKey(), b.zobristKey());
+		b.unmakeMove(move, undo);
+		assertEquals(before.discs0(), b.discs0());
+		assertEquals(before.discs1(), b.discs1());
+		assertEquals(before.whoseTurn(), b.whoseTurn());
+		assertEquals(key, b.zobristKey());
+	}
+}
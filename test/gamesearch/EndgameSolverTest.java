@@ -0,0 +1,110 @@
+package gamesearch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks EndgameSolver against a plain search of the disc difference, on positions with 10 to
+ * 14 empty squares reached by random play: the exact score, the win/loss/draw value, and that
+ * the best move of each mode achieves the position's score, or its sign.  The plain search is
+ * full-width minimax up to 11 empties; beyond that minimax takes minutes, so alpha beta pruning
+ * without move ordering is used, having been checked against minimax on the smaller positions.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class EndgameSolverTest {
+
+	private static final int POSITIONS_PER_EMPTIES = 3;
+
+	// the most empty squares at which the score is checked by minimax
+	private static final int MINIMAX_EMPTIES = 11;
+
+	@Test
+	public void solverMatchesMinimax() {
+		Random random = new Random(0xE4D6A4EL);
+		EndgameSolver exact = new EndgameSolver(EndgameSolver.DEFAULT_EMPTIES, true);
+		EndgameSolver winLossDraw = new EndgameSolver(EndgameSolver.DEFAULT_EMPTIES, false);
+		for (int empties = 10; empties <= 14; empties++) {
+			for (int i = 0; i < POSITIONS_PER_EMPTIES; i++) {
+				BitboardReversiState s = randomPosition(random, empties);
+				int score = alphaBeta(s, -64, 64);
+				String position = "\n" + s;
+				if (empties <= MINIMAX_EMPTIES) assertEquals(position, minimax(s), score);
+				assertEquals(position, score, exact.discDifference(s));
+				assertEquals(position, Math.signum(score), winLossDraw.value(s), 0);
+
+				int move = exact.bestMove(s);
+				assertEquals(position, score, exact.score());
+				assertEquals(position, score, scoreOf(s, move));
+
+				move = winLossDraw.bestMove(s);
+				assertEquals(position, Math.signum(score), Math.signum(winLossDraw.score()), 0);
+				assertEquals(position, Math.signum(score), Math.signum(scoreOf(s, move)), 0);
+			}
+		}
+	}
+
+	/*
+	 * Plays random moves from the start until the given number of squares are empty, starting
+	 * over whenever a game ends first.
+	 */
+	private static BitboardReversiState randomPosition(Random random, int empties) {
+		int[] moves = new int[64];
+		while (true) {
+			BitboardReversiState s = new BitboardReversiState();
+			while (!s.isTerminalState() && 64 - Long.bitCount(s.discs0() | s.discs1()) > empties) {
+				int n = s.generateMoves(moves);
+				s.makeMove(moves[random.nextInt(n)]);
+			}
+			if (!s.isTerminalState()) return s;
+		}
+	}
+
+	private static int scoreOf(BitboardReversiState s, int move) {
+		long undo = s.makeMove(move);
+		int score = alphaBeta(s, -64, 64);
+		s.unmakeMove(move, undo);
+		return score;
+	}
+
+	/*
+	 * The final disc difference in favor of player 0 under perfect play, by alpha beta pruning
+	 * of the moves in the order generated, or a bound on it outside of the window.
+	 */
+	private static int alphaBeta(BitboardReversiState s, int alpha, int beta) {
+		if (s.isTerminalState()) return Long.bitCount(s.discs0()) - Long.bitCount(s.discs1());
+		int[] moves = new int[s.maxMoves()];
+		int n = s.generateMoves(moves);
+		boolean max = s.whoseTurn() == 0;
+		for (int i = 0; i < n && alpha < beta; i++) {
+			long undo = s.makeMove(moves[i]);
+			int v = alphaBeta(s, alpha, beta);
+			s.unmakeMove(moves[i], undo);
+			if (max) alpha = Math.max(alpha, v);
+			else beta = Math.min(beta, v);
+		}
+		return max ? alpha : beta;
+	}
+
+	/*
+	 * The final disc difference in favor of player 0 under perfect play, by plain minimax.
+	 */
+	private static int minimax(BitboardReversiState s) {
+		if (s.isTerminalState()) return Long.bitCount(s.discs0()) - Long.bitCount(s.discs1());
+		int[] moves = new int[s.maxMoves()];
+		int n = s.generateMoves(moves);
+		boolean max = s.whoseTurn() == 0;
+		int best = max ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		for (int i = 0; i < n; i++) {
+			long undo = s.makeMove(moves[i]);
+			int v = minimax(s);
+			s.unmakeMove(moves[i], undo);
+			best = max ? Math.max(best, v) : Math.min(best, v);
+		}
+		return best;
+	}
+}
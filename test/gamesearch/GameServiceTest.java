@@ -0,0 +1,79 @@
+package gamesearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+/**
+ * Checks that GameService refuses a move when its queue of searches is full, leaving the session
+ * as it was so the move may be sent again, and that it refuses engines a client should not be
+ * able to choose.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class GameServiceTest {
+
+	@Test
+	public void fullQueueRefusesMoveAndKeepsSession() {
+		GameService service = new GameService(1, 1);
+		try {
+			// the AI moves first in both games, so one search runs for a second and the other waits
+			CompletableFuture<GameService.Reply> running = service.newGame("reversi", 1, "alphabeta:1000ms");
+			CompletableFuture<GameService.Reply> waiting = service.newGame("reversi", 1, "alphabeta:1000ms");
+			long id = service.newGame("reversi", 0, "alphabeta:2").join().session;
+			try {
+				service.move(id, new int[] {2, 4});
+				fail("The move was accepted with a full queue");
+			} catch (RejectedExecutionException e) {
+				// expected
+			}
+			assertEquals(1, service.rejected());
+			GameService.Reply before = service.board(id);
+			assertEquals(0, before.whoseTurn);
+			assertEquals(new BitboardReversiState().toString(), before.board);
+
+			running.join();
+			waiting.join();
+			GameService.Reply after = service.move(id, new int[] {2, 4}).join();
+			assertEquals(0, after.whoseTurn);
+			assertFalse(after.over);
+			assertEquals(1, service.rejected());
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void enginesMayNotNameFiles() {
+		assertRefused("alphabeta:4:patterns=/etc/passwd");
+		assertRefused("alphabeta:4:corners:probcut=/etc/passwd");
+	}
+
+	@Test
+	public void enginesAreLimited() {
+		assertRefused("alphabeta:" + (GameService.MAX_DEPTH + 1));
+		assertRefused("alphabeta:0");
+		assertRefused("pvs:" + (GameService.MAX_MILLIS + 1) + "ms");
+		assertRefused("mcts:" + (GameService.MAX_PLAYOUTS + 1));
+		assertRefused("alphabeta:4:corners:q" + (GameService.MAX_DEPTH + 1));
+	}
+
+	private static void assertRefused(String engine) {
+		GameService service = new GameService(1, 1);
+		try {
+			service.newGame("reversi", 0, engine);
+			fail("Engine " + engine + " was accepted");
+		} catch (IllegalArgumentException e) {
+			assertFalse(e.getMessage(), e.getMessage().contains("passwd"));
+		} finally {
+			service.shutdown();
+		}
+		assertEquals(0, service.sessions());
+	}
+}
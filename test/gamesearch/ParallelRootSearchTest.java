@@ -0,0 +1,103 @@
+package gamesearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Checks ParallelRootSearch against the sequential AlphaBetaSearcher, without a transposition
+ * table, so that both search the moves in the order the state generates them: the value must be
+ * the same, and the move chosen must have that value.  Except for MTD(f), whose sequential root
+ * search takes its move from whichever pass proves one, the move must also be the same, since of
+ * equally valued moves both choose the first.  The searches are compared with and without
+ * quiescence search.  With ProbCut the value depends on the windows, which depend on the
+ * order in which the threads finish, so there it is only checked that the search prunes.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class ParallelRootSearchTest {
+
+	private static final int POSITIONS = 40;
+	private static final int DEPTH = 4;
+
+	@Test
+	public void reversiMovesMatchTheSequentialSearch() {
+		assertMatchesSequentialSearch(new Random(0x9A7A11E1L), null, 0);
+	}
+
+	@Test
+	public void quiescenceMatchesTheSequentialSearch() {
+		assertMatchesSequentialSearch(new Random(0x9A7A11E2L), new BitboardReversiState.CornerAndPassMoves(), 3);
+	}
+
+	@Test
+	public void probCutPrunesTheMoves() {
+		// the states of the moves have remaining depth 4, and no state below them does
+		ProbCut probCut = new ProbCut(ProbCut.DEFAULT_THRESHOLD);
+		probCut.set(4, 2, 1, 0, 0.01);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ParallelRootSearch parallel = new ParallelRootSearch(new BitboardReversiState.CornersHeuristic(), null, pool);
+			parallel.setProbCut(probCut);
+			// positions part way through random games, since the start is too even for cuts
+			Random random = new Random(0x9C07L);
+			int[] moves = new int[64];
+			long probCuts = 0;
+			for (int i = 0; i < 10; i++) {
+				BitboardReversiState s = new BitboardReversiState();
+				for (int p = 0; p < 20 && !s.isTerminalState(); p++) {
+					s.makeMove(moves[random.nextInt(s.generateMoves(moves))]);
+				}
+				if (s.isTerminalState()) continue;
+				assertTrue(parallel.bestMove(s, 5) >= 0);
+				probCuts += parallel.getStatistics().probCuts();
+			}
+			assertTrue(probCuts > 0);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void assertMatchesSequentialSearch(Random random, TacticalMoveFilter tactical, int quiescence) {
+		GameHeuristic h = new BitboardReversiState.CornersHeuristic();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			int[] moves = new int[64];
+			for (int i = 0; i < POSITIONS; i++) {
+				BitboardReversiState s = new BitboardReversiState();
+				int plies = random.nextInt(40);
+				for (int p = 0; p < plies && !s.isTerminalState(); p++) {
+					int n = s.generateMoves(moves);
+					s.makeMove(moves[random.nextInt(n)]);
+				}
+				if (s.isTerminalState()) continue;
+				for (AlphaBetaSearcher.Algorithm algorithm : AlphaBetaSearcher.Algorithm.values()) {
+					AlphaBetaSearcher sequential = new AlphaBetaSearcher(h);
+					sequential.setAlgorithm(algorithm);
+					sequential.setQuiescence(tactical, quiescence);
+					int expected = sequential.bestMove(s, DEPTH);
+					ParallelRootSearch parallel = new ParallelRootSearch(h, null, pool);
+					parallel.setAlgorithm(algorithm);
+					parallel.setQuiescence(tactical, quiescence);
+					int move = parallel.bestMove(s, DEPTH);
+					String message = algorithm + " to move " + s.whoseTurn() + "\n" + s;
+					assertEquals(message, sequential.bestValue(), parallel.bestValue(), 1e-12);
+					if (algorithm != AlphaBetaSearcher.Algorithm.MTDF) assertEquals(message, expected, move);
+					long undo = s.makeMove(move);
+					double moveValue = s.isTerminalState() ? s.value() : s.whoseTurn() == 0 ?
+							sequential.maxValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, DEPTH - 1) :
+							sequential.minValue(s, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, DEPTH - 1);
+					s.unmakeMove(move, undo);
+					assertEquals(message + "move " + move, parallel.bestValue(), moveValue, 1e-12);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
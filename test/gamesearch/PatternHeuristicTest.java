@@ -0,0 +1,118 @@
+package gamesearch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that PatternHeuristic values a position the same in each of its 8 symmetries, that its
+ * sum is the sum of the weights its features name, and that weights survive save and load.
+ * Random weights are used as well as the default ones, which come from a symmetric table of the
+ * value of each square and could hide an image of the board that is missing or read twice.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class PatternHeuristicTest {
+
+	private static final int POSITIONS = 300;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void sumIsInvariantUnderSymmetries() {
+		Random random = new Random(0x5E7A1L);
+		for (PatternHeuristic h : new PatternHeuristic[] {new PatternHeuristic(), randomWeights(random)}) {
+			for (BitboardReversiState s : positions(random)) {
+				double v = h.sum(s.discs0(), s.discs1());
+				for (int k = 1; k < 8; k++) {
+					assertEquals("symmetry " + k + "\n" + s, v, h.sum(symmetry(s.discs0(), k), symmetry(s.discs1(), k)), 1e-4);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void sumIsTheSumOfTheFeatures() {
+		Random random = new Random(0x5E7A2L);
+		PatternHeuristic h = randomWeights(random);
+		int[] indexes = new int[PatternHeuristic.features()];
+		for (BitboardReversiState s : positions(random)) {
+			h.features(s.discs0(), s.discs1(), indexes);
+			double sum = 0;
+			for (int i : indexes) {
+				sum += h.weights()[i];
+			}
+			assertEquals(s.toString(), sum, h.sum(s.discs0(), s.discs1()), 1e-4);
+		}
+	}
+
+	@Test
+	public void saveAndLoadKeepTheWeights() throws IOException {
+		Random random = new Random(0x5E7A3L);
+		PatternHeuristic h = randomWeights(random);
+		Path file = folder.newFile("test.weights").toPath();
+		h.save(file);
+		PatternHeuristic loaded = PatternHeuristic.load(file);
+		assertEquals(h.stages(), loaded.stages());
+		assertArrayEquals(h.weights(), loaded.weights(), 0);
+		for (BitboardReversiState s : positions(random)) {
+			assertEquals(h.h(s), loaded.h(s), 0);
+		}
+	}
+
+	private static PatternHeuristic randomWeights(Random random) {
+		PatternHeuristic h = new PatternHeuristic(PatternHeuristic.DEFAULT_STAGES);
+		float[] weights = h.weights();
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = (float)(random.nextGaussian() * 0.1);
+		}
+		return h;
+	}
+
+	/*
+	 * Positions of random games of Reversi, from every stage.
+	 */
+	private static ArrayList<BitboardReversiState> positions(Random random) {
+		ArrayList<BitboardReversiState> positions = new ArrayList<BitboardReversiState>(POSITIONS);
+		int[] moves = new int[64];
+		BitboardReversiState s = new BitboardReversiState();
+		while (positions.size() < POSITIONS) {
+			positions.add(s.copy());
+			if (s.isTerminalState()) s = new BitboardReversiState();
+			else s.makeMove(moves[random.nextInt(s.generateMoves(moves))]);
+		}
+		return positions;
+	}
+
+	/*
+	 * One of the 8 symmetric images of a mask, square by square: bit 0 of k transposes it, bit 1
+	 * flips the rows, and bit 2 flips the columns.
+	 */
+	private static long symmetry(long x, int k) {
+		long y = 0;
+		for (int square = 0; square < 64; square++) {
+			if ((x & 1L << square) == 0) continue;
+			int r = square / 8;
+			int c = square % 8;
+			if ((k & 1) != 0) {
+				int t = r;
+				r = c;
+				c = t;
+			}
+			if ((k & 2) != 0) r = 7 - r;
+			if ((k & 4) != 0) c = 7 - c;
+			y |= 1L << (r * 8 + c);
+		}
+		return y;
+	}
+}
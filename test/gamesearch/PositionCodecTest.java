@@ -0,0 +1,152 @@
+package gamesearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that each PositionCodec decodes what it encodes, on positions reached by random play,
+ * that the two Reversi codecs read each other's positions, and that positions play cannot reach
+ * are refused.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class PositionCodecTest {
+
+	private static final int GAMES = 50;
+
+	@Test
+	public void reversiRoundTrip() {
+		Random random = new Random(0xC0DEC1L);
+		ByteBuffer b = ByteBuffer.allocate(PositionCodec.REVERSI.recordBytes());
+		for (IncrementalGameState s : positions(new BitboardReversiState(), random)) {
+			BitboardReversiState r = (BitboardReversiState)s;
+			b.clear();
+			PositionCodec.REVERSI.encode(r, b);
+			assertEquals(PositionCodec.REVERSI.recordBytes(), b.position());
+			b.flip();
+			BitboardReversiState d = (BitboardReversiState)PositionCodec.REVERSI.decode(b);
+			assertEquals(r.discs0(), d.discs0());
+			assertEquals(r.discs1(), d.discs1());
+			assertEquals(r.whoseTurn(), d.whoseTurn());
+			assertEquals(r.isTerminalState(), d.isTerminalState());
+
+			// the same record, read as the array based implementation
+			b.rewind();
+			GameState a = PositionCodec.REVERSI_ARRAY.decode(b);
+			assertEquals(r.discs0(), ReversiGame.discs(a, 0));
+			assertEquals(r.discs1(), ReversiGame.discs(a, 1));
+			assertEquals(r.whoseTurn(), a.whoseTurn());
+			assertEquals(r.toString(), a.toString());
+		}
+	}
+
+	@Test
+	public void reversiArrayRoundTrip() {
+		Random random = new Random(0xC0DEC2L);
+		ByteBuffer b = ByteBuffer.allocate(PositionCodec.REVERSI_ARRAY.recordBytes());
+		for (int g = 0; g < GAMES; g++) {
+			GameState s = ReversiGame.arrayState();
+			while (true) {
+				b.clear();
+				PositionCodec.REVERSI_ARRAY.encode(s, b);
+				b.flip();
+				GameState d = PositionCodec.REVERSI_ARRAY.decode(b);
+				assertEquals(ReversiGame.discs(s, 0), ReversiGame.discs(d, 0));
+				assertEquals(ReversiGame.discs(s, 1), ReversiGame.discs(d, 1));
+				assertEquals(s.whoseTurn(), d.whoseTurn());
+				assertEquals(s.isTerminalState(), d.isTerminalState());
+				if (s.isTerminalState()) break;
+				ArrayList<GameState> successors = s.getSuccessors();
+				s = successors.get(random.nextInt(successors.size()));
+			}
+		}
+	}
+
+	@Test
+	public void ticTacToeRoundTrip() {
+		Random random = new Random(0xC0DEC3L);
+		ByteBuffer b = ByteBuffer.allocate(PositionCodec.TICTACTOE.recordBytes());
+		for (IncrementalGameState s : positions(TicTacToeGame.startState(), random)) {
+			b.clear();
+			PositionCodec.TICTACTOE.encode(s, b);
+			assertEquals(PositionCodec.TICTACTOE.recordBytes(), b.position());
+			b.flip();
+			GameState d = PositionCodec.TICTACTOE.decode(b);
+			assertEquals(TicTacToeGame.squares(s, 0), TicTacToeGame.squares(d, 0));
+			assertEquals(TicTacToeGame.squares(s, 1), TicTacToeGame.squares(d, 1));
+			assertEquals(s.whoseTurn(), d.whoseTurn());
+			assertEquals(s.toString(), d.toString());
+		}
+	}
+
+	@Test
+	public void reversiPositionWithPassToMoveIsRefused() {
+		// player 0 can play at row 0, column 2, and player 1 has no move
+		long discs0 = BitboardReversiState.bit(0, 0);
+		long discs1 = BitboardReversiState.bit(0, 1);
+		assertFalse(decodeReversi(PositionCodec.REVERSI, discs0, discs1, 0).isTerminalState());
+		assertRefused(PositionCodec.REVERSI, discs0, discs1, 1);
+		assertRefused(PositionCodec.REVERSI_ARRAY, discs0, discs1, 1);
+
+		// neither player can move, so the game is over whoever is to move
+		assertTrue(decodeReversi(PositionCodec.REVERSI, discs0, 0, 0).isTerminalState());
+		assertTrue(decodeReversi(PositionCodec.REVERSI, discs0, 0, 1).isTerminalState());
+	}
+
+	@Test
+	public void corruptPositionsAreRefused() {
+		long start0 = BitboardReversiState.bit(3, 3) | BitboardReversiState.bit(4, 4);
+		long start1 = BitboardReversiState.bit(3, 4) | BitboardReversiState.bit(4, 3);
+		assertRefused(PositionCodec.REVERSI, start0, start1 | BitboardReversiState.bit(3, 3), 0);
+		assertRefused(PositionCodec.REVERSI, start0, start1, 2);
+		ByteBuffer b = ByteBuffer.allocate(3);
+		b.put((byte)0).putShort((short)(1 | 1 << 9)).flip();
+		try {
+			PositionCodec.TICTACTOE.decode(b);
+			fail("X and O on the same square was accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/*
+	 * Every position of random games, from the start to the end.
+	 */
+	private static ArrayList<IncrementalGameState> positions(IncrementalGameState start, Random random) {
+		ArrayList<IncrementalGameState> positions = new ArrayList<IncrementalGameState>();
+		int[] moves = new int[start.maxMoves()];
+		for (int g = 0; g < GAMES; g++) {
+			IncrementalGameState s = start.copy();
+			positions.add(s.copy());
+			while (!s.isTerminalState()) {
+				s.makeMove(moves[random.nextInt(s.generateMoves(moves))]);
+				positions.add(s.copy());
+			}
+		}
+		return positions;
+	}
+
+	private static GameState decodeReversi(PositionCodec codec, long discs0, long discs1, int player) {
+		ByteBuffer b = ByteBuffer.allocate(codec.recordBytes());
+		b.putLong(discs0).putLong(discs1).put((byte)player).flip();
+		return codec.decode(b);
+	}
+
+	private static void assertRefused(PositionCodec codec, long discs0, long discs1, int player) {
+		try {
+			decodeReversi(codec, discs0, discs1, player);
+			fail("A position that play cannot reach was accepted by " + codec);
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
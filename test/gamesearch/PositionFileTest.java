@@ -0,0 +1,145 @@
+package gamesearch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that PositionFile reads back what it writes, over several chunks, with and without
+ * labels, and that it detects a file that is truncated or whose positions are damaged.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class PositionFileTest {
+
+	private static final int POSITIONS = 1000;
+	private static final int CHUNK_POSITIONS = 64;
+
+	// the sizes of the file header and of a chunk header
+	private static final int HEADER_BYTES = 12;
+	private static final int CHUNK_HEADER_BYTES = 8;
+
+	@Test
+	public void readsWhatWasWritten() throws IOException {
+		ArrayList<IncrementalGameState> positions = positions(new Random(0xF11E1L));
+		byte[] file = write(positions, false);
+		PositionFile.Reader in = new PositionFile.Reader(Channels.newChannel(new ByteArrayInputStream(file)), null);
+		try {
+			assertEquals(PositionCodec.REVERSI, in.codec());
+			for (IncrementalGameState s : positions) {
+				assertArrayEquals(encode(s), encode(in.read()));
+			}
+			assertNull(in.read());
+			assertEquals(POSITIONS, in.count());
+		} finally {
+			in.close();
+		}
+	}
+
+	@Test
+	public void readsLabels() throws IOException {
+		ArrayList<IncrementalGameState> positions = positions(new Random(0xF11E2L));
+		byte[] file = write(positions, true);
+		PositionFile.Reader in = new PositionFile.Reader(Channels.newChannel(new ByteArrayInputStream(file)), null);
+		try {
+			assertTrue(in.labeled());
+			for (int i = 0; i < positions.size(); i++) {
+				assertArrayEquals(encode(positions.get(i)), encode(in.read()));
+				assertEquals(i / 4f, in.label(), 0);
+			}
+			assertNull(in.read());
+		} finally {
+			in.close();
+		}
+	}
+
+	@Test
+	public void detectsTruncation() throws IOException {
+		byte[] file = write(positions(new Random(0xF11E3L)), false);
+		assertUnreadable(Arrays.copyOf(file, file.length - 5));
+		// a chunk header without its positions
+		int recordBytes = PositionCodec.REVERSI.recordBytes();
+		assertUnreadable(Arrays.copyOf(file, HEADER_BYTES + CHUNK_HEADER_BYTES + CHUNK_POSITIONS * recordBytes + CHUNK_HEADER_BYTES));
+	}
+
+	@Test
+	public void detectsDamage() throws IOException {
+		byte[] file = write(positions(new Random(0xF11E4L)), false);
+		int recordBytes = PositionCodec.REVERSI.recordBytes();
+		// a bit of a position in the third chunk
+		int offset = HEADER_BYTES + 2 * (CHUNK_HEADER_BYTES + CHUNK_POSITIONS * recordBytes) + CHUNK_HEADER_BYTES + 5 * recordBytes + 3;
+		byte[] damaged = file.clone();
+		damaged[offset] ^= 0x10;
+		assertUnreadable(damaged);
+		// the checksum of the second chunk
+		damaged = file.clone();
+		damaged[HEADER_BYTES + CHUNK_HEADER_BYTES + CHUNK_POSITIONS * recordBytes + 4] ^= 1;
+		assertUnreadable(damaged);
+	}
+
+	/*
+	 * Positions of random games of Reversi, including the ends of the games.
+	 */
+	private static ArrayList<IncrementalGameState> positions(Random random) {
+		ArrayList<IncrementalGameState> positions = new ArrayList<IncrementalGameState>(POSITIONS);
+		int[] moves = new int[64];
+		BitboardReversiState s = new BitboardReversiState();
+		while (positions.size() < POSITIONS) {
+			positions.add(s.copy());
+			if (s.isTerminalState()) s = new BitboardReversiState();
+			else s.makeMove(moves[random.nextInt(s.generateMoves(moves))]);
+		}
+		return positions;
+	}
+
+	private static byte[] write(ArrayList<IncrementalGameState> positions, boolean labeled) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PositionFile.Writer out = new PositionFile.Writer(Channels.newChannel(bytes), PositionCodec.REVERSI, CHUNK_POSITIONS, labeled);
+		try {
+			for (int i = 0; i < positions.size(); i++) {
+				if (labeled) out.write(positions.get(i), i / 4f);
+				else out.write(positions.get(i));
+			}
+			assertEquals(positions.size(), out.count());
+		} finally {
+			out.close();
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] encode(GameState s) {
+		ByteBuffer b = ByteBuffer.allocate(PositionCodec.REVERSI.recordBytes());
+		PositionCodec.REVERSI.encode(s, b);
+		return b.array();
+	}
+
+	/*
+	 * Reads a whole file, which must fail part way.
+	 */
+	private static void assertUnreadable(byte[] file) throws IOException {
+		PositionFile.Reader in = new PositionFile.Reader(Channels.newChannel(new ByteArrayInputStream(file)), null);
+		try {
+			while (in.read() != null) {
+			}
+			fail("A damaged file was read to the end, after " + in.count() + " positions");
+		} catch (IOException e) {
+			// expected
+		} finally {
+			in.close();
+		}
+	}
+}
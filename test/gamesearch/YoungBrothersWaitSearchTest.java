@@ -0,0 +1,94 @@
+package gamesearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Checks YoungBrothersWaitSearch against the sequential AlphaBetaSearcher, without a
+ * transposition table, so that both search the moves in the order the state generates them, and
+ * with a split depth low enough that the younger brothers of several levels are searched in
+ * parallel.  The value must be the same, and so must the move, since of equally valued moves
+ * both choose the first.  The searches are compared with and without quiescence search.
+ * With ProbCut the value depends on the windows, which depend on the order in which the threads
+ * finish, so there it is only checked that the search prunes.
+ *
+ * @author Patrick Harvey
+ * @version 10/17/26
+ */
+public class YoungBrothersWaitSearchTest {
+
+	private static final int POSITIONS = 40;
+	private static final int DEPTH = 5;
+	private static final int SPLIT_DEPTH = 2;
+
+	@Test
+	public void reversiMovesMatchTheSequentialSearch() {
+		assertMatchesSequentialSearch(new Random(0x7B3A1L), null, 0);
+	}
+
+	@Test
+	public void quiescenceMatchesTheSequentialSearch() {
+		assertMatchesSequentialSearch(new Random(0x7B3A2L), new BitboardReversiState.CornerAndPassMoves(), 3);
+	}
+
+	@Test
+	public void probCutPrunesSplitNodes() {
+		// nodes of remaining depth 4 are split, since the split depth is 3
+		ProbCut probCut = new ProbCut(ProbCut.DEFAULT_THRESHOLD);
+		probCut.set(4, 2, 1, 0, 0.01);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			YoungBrothersWaitSearch parallel = new YoungBrothersWaitSearch(new BitboardReversiState.CornersHeuristic(), null, pool, 3);
+			parallel.setProbCut(probCut);
+			// positions part way through random games, since the start is too even for cuts
+			Random random = new Random(0x9C07L);
+			int[] moves = new int[64];
+			long probCuts = 0;
+			for (int i = 0; i < 10; i++) {
+				BitboardReversiState s = new BitboardReversiState();
+				for (int p = 0; p < 20 && !s.isTerminalState(); p++) {
+					s.makeMove(moves[random.nextInt(s.generateMoves(moves))]);
+				}
+				if (s.isTerminalState()) continue;
+				assertTrue(parallel.bestMove(s, 6) >= 0);
+				probCuts += parallel.getStatistics().probCuts();
+			}
+			assertTrue(probCuts > 0);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void assertMatchesSequentialSearch(Random random, TacticalMoveFilter tactical, int quiescence) {
+		GameHeuristic h = new BitboardReversiState.CornersHeuristic();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			int[] moves = new int[64];
+			for (int i = 0; i < POSITIONS; i++) {
+				BitboardReversiState s = new BitboardReversiState();
+				int plies = random.nextInt(40);
+				for (int p = 0; p < plies && !s.isTerminalState(); p++) {
+					int n = s.generateMoves(moves);
+					s.makeMove(moves[random.nextInt(n)]);
+				}
+				if (s.isTerminalState()) continue;
+				AlphaBetaSearcher sequential = new AlphaBetaSearcher(h);
+				sequential.setQuiescence(tactical, quiescence);
+				int expected = sequential.bestMove(s, DEPTH);
+				YoungBrothersWaitSearch parallel = new YoungBrothersWaitSearch(h, null, pool, SPLIT_DEPTH);
+				parallel.setQuiescence(tactical, quiescence);
+				int move = parallel.bestMove(s, DEPTH);
+				String message = "to move " + s.whoseTurn() + "\n" + s;
+				assertEquals(message, sequential.bestValue(), parallel.bestValue(), 1e-12);
+				assertEquals(message, expected, move);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}